@@ -0,0 +1,35 @@
+package com.learningportal.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Conditional Content Annotation
+ * Marks GET endpoints whose responses are versioned, so they carry an ETag,
+ * Last-Modified and Cache-Control and repeat requests can be answered with
+ * 304 Not Modified before the handler runs
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConditionalContent {
+
+    /**
+     * What the responses are derived from
+     */
+    Source value();
+
+    /**
+     * Seconds browsers and shared caches may reuse a response without
+     * revalidating it; zero requires revalidation on every use
+     */
+    long maxAge() default 0;
+
+    enum Source {
+        /** Learning modules, topics and interview questions in the database */
+        LEARNING_CONTENT,
+        /** Content compiled into the controller itself; parameterless handlers are serialized once at startup */
+        STATIC
+    }
+}
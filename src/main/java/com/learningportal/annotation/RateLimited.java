@@ -0,0 +1,41 @@
+package com.learningportal.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Rate Limited Annotation
+ * Declares the rate limit policy of an endpoint: what each request costs
+ * and which allowance it is charged to. Endpoints without one cost a single
+ * request of the client's general allowance
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimited {
+
+    /**
+     * Requests each call is charged as
+     */
+    int cost() default 1;
+
+    /**
+     * Request parameter whose comma-separated values each multiply the
+     * cost, for endpoints whose work grows with them
+     */
+    String costPerValueOf() default "";
+
+    /**
+     * Allowance of its own, shared by every endpoint naming it, so expensive
+     * endpoints are limited without throttling cheap ones; empty for the
+     * client's general allowance
+     */
+    String bucket() default "";
+
+    /**
+     * Requests per hour of the bucket for the default tier, scaled like
+     * the general allowance for premium clients; required with a bucket
+     */
+    int limit() default 0;
+}
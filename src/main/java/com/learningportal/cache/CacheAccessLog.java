@@ -0,0 +1,79 @@
+package com.learningportal.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.interceptor.CacheOperationInvocationContext;
+import org.springframework.cache.interceptor.CacheableOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache Access Log
+ *
+ * Samples reads of {@code @Cacheable} methods and counts how often each
+ * distinct invocation is seen, so the most frequently read entries can be
+ * loaded again after a restart. Only one read in {@code sample-rate} is
+ * recorded, which keeps the cost on the hot path to a random number draw;
+ * frequently read entries are still sampled many times over.
+ */
+@Component
+public class CacheAccessLog {
+
+    private final int sampleRate;
+    private final Cache<CacheInvocation, LongAdder> samples;
+
+    public CacheAccessLog(@Value("${app.cache.warmup.sample-rate:16}") int sampleRate,
+                          @Value("${app.cache.warmup.max-tracked:5000}") long maxTracked) {
+        this.sampleRate = Math.max(1, sampleRate);
+        this.samples = Caffeine.newBuilder()
+            .maximumSize(maxTracked)
+            .build();
+    }
+
+    /**
+     * Called for every cache operation as its caches are resolved
+     */
+    public void record(CacheOperationInvocationContext<?> context) {
+        if (!(context.getOperation() instanceof CacheableOperation)
+                || ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            return;
+        }
+        Class<?> targetClass = AopUtils.getTargetClass(context.getTarget());
+        for (String cacheName : context.getOperation().getCacheNames()) {
+            CacheInvocation invocation = CacheInvocation.of(cacheName, targetClass, context.getMethod(),
+                context.getArgs());
+            if (invocation != null) {
+                samples.get(invocation, key -> new LongAdder()).increment();
+            }
+        }
+    }
+
+    /**
+     * Sample counts gathered since the last drain
+     */
+    Map<CacheInvocation, Long> counts() {
+        Map<CacheInvocation, Long> counts = new HashMap<>();
+        samples.asMap().forEach((invocation, count) -> counts.put(invocation, count.sum()));
+        return counts;
+    }
+
+    /**
+     * Return the sample counts and start counting afresh
+     */
+    Map<CacheInvocation, Long> drain() {
+        Map<CacheInvocation, Long> counts = new HashMap<>();
+        for (CacheInvocation invocation : samples.asMap().keySet()) {
+            LongAdder count = samples.asMap().remove(invocation);
+            if (count != null) {
+                counts.put(invocation, count.sum());
+            }
+        }
+        return counts;
+    }
+}
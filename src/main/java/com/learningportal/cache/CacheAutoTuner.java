@@ -0,0 +1,293 @@
+package com.learningportal.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache Auto-Tuner
+ *
+ * Optional feedback loop that resizes caches and adjusts their idle expiry
+ * at runtime from the Caffeine statistics of the last interval. A cache
+ * that misses its target hit rate while full and evicting is grown; one
+ * that misses it while far from full is losing entries to idle expiry, so
+ * its access expiry is extended; a grown cache that has become mostly empty
+ * is shrunk back towards its configured budget, returning headroom to the
+ * others. Sizes stay between the configured budget and a configured
+ * multiple of it and, together, under a global byte ceiling; access expiry
+ * never exceeds the write expiry, which bounds staleness and is never
+ * changed.
+ *
+ * Every change is logged. The hit rate of each cache's latest interval
+ * relative to its first is exported as {@code cache.tuning.hit.rate.improvement}.
+ */
+@Component
+public class CacheAutoTuner {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheAutoTuner.class);
+
+    private static final double GROWTH_STEP = 1.25;
+    private static final double FULL_OCCUPANCY = 0.9;
+    private static final double LOW_OCCUPANCY = 0.4;
+
+    /**
+     * What to change about a cache after an interval
+     */
+    enum Action {
+        NONE, GROW, SHRINK, EXTEND_EXPIRY, SHORTEN_EXPIRY
+    }
+
+    /**
+     * Statistics of one cache over one tuning interval
+     */
+    record Window(long requests, double hitRate, long evictions, double occupancy) {
+
+        static Window between(CacheStats previous, CacheStats current, long weightedSize, long maximum) {
+            CacheStats delta = current.minus(previous);
+            return new Window(delta.requestCount(), delta.hitRate(), delta.evictionCount(),
+                maximum > 0 ? (double) weightedSize / maximum : 0.0);
+        }
+    }
+
+    private final CacheManager cacheManager;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final long intervalMs;
+    private final double targetHitRate;
+    private final long minRequests;
+    private final double maxSizeFactor;
+    private final long maxTotalBytes;
+    private final Map<String, TunedCache> caches = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService scheduler;
+
+    public CacheAutoTuner(CacheManager cacheManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.cache.tuning.enabled:false}") boolean enabled,
+                          @Value("${app.cache.tuning.interval-ms:60000}") long intervalMs,
+                          @Value("${app.cache.tuning.target-hit-rate:0.9}") double targetHitRate,
+                          @Value("${app.cache.tuning.min-requests:200}") long minRequests,
+                          @Value("${app.cache.tuning.max-size-factor:4}") double maxSizeFactor,
+                          @Value("${app.cache.tuning.max-total-bytes:512MB}") DataSize maxTotalBytes) {
+        this.cacheManager = cacheManager;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.intervalMs = intervalMs;
+        this.targetHitRate = targetHitRate;
+        this.minRequests = minRequests;
+        this.maxSizeFactor = maxSizeFactor;
+        this.maxTotalBytes = maxTotalBytes.toBytes();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || scheduler != null) {
+            return;
+        }
+        for (String name : cacheManager.getCacheNames()) {
+            if (cacheManager.getCache(name) instanceof CaffeineCache cache) {
+                cache.getNativeCache().policy().eviction().ifPresent(eviction ->
+                    caches.put(name, new TunedCache(name, cache.getNativeCache(), eviction.getMaximum())));
+            }
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "cache-auto-tuner");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::tune, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        log.info("Cache auto-tuning enabled for {} caches every {}ms, target hit rate {}",
+            caches.size(), intervalMs, targetHitRate);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Run one tuning pass over every cache
+     */
+    void tune() {
+        try {
+            for (TunedCache cache : caches.values()) {
+                cache.tune();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Cache auto-tuning pass failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Decide how to react to an interval's statistics
+     *
+     * @param expiryExtensible whether access expiry is below the write expiry
+     * @param expiryExtended whether access expiry is above its configured value
+     */
+    Action decide(Window window, boolean canGrow, boolean canShrink, boolean expiryExtensible,
+                  boolean expiryExtended) {
+        if (window.requests() < minRequests) {
+            return Action.NONE;
+        }
+        boolean missingTarget = window.hitRate() < targetHitRate;
+        if (window.occupancy() >= FULL_OCCUPANCY) {
+            if (missingTarget && window.evictions() > 0) {
+                // Full and evicting: more room helps; without it, idle entries should make way sooner
+                if (canGrow) {
+                    return Action.GROW;
+                }
+                return expiryExtended ? Action.SHORTEN_EXPIRY : Action.NONE;
+            }
+            return Action.NONE;
+        }
+        if (missingTarget && window.evictions() > 0 && expiryExtensible) {
+            // Not full, yet entries are leaving: they are expiring idle
+            return Action.EXTEND_EXPIRY;
+        }
+        if (window.occupancy() < LOW_OCCUPANCY && canShrink) {
+            return Action.SHRINK;
+        }
+        return Action.NONE;
+    }
+
+    private long totalMaximum() {
+        long total = 0;
+        for (TunedCache cache : caches.values()) {
+            total += cache.maximum();
+        }
+        return total;
+    }
+
+    /**
+     * Tuning state of one cache
+     */
+    private final class TunedCache {
+
+        private final String name;
+        private final Cache<Object, Object> cache;
+        private final Policy.Eviction<Object, Object> eviction;
+        private final Optional<Policy.FixedExpiration<Object, Object>> accessExpiry;
+        private final long configuredMaximum;
+        private final Duration configuredAccessExpiry;
+        private final Duration maxAccessExpiry;
+        private final Counter adjustments;
+
+        private CacheStats previous;
+        private volatile double baselineHitRate = Double.NaN;
+        private volatile double latestHitRate = Double.NaN;
+
+        TunedCache(String name, Cache<Object, Object> cache, long configuredMaximum) {
+            this.name = name;
+            this.cache = cache;
+            this.eviction = cache.policy().eviction().orElseThrow();
+            this.accessExpiry = cache.policy().expireAfterAccess();
+            this.configuredMaximum = configuredMaximum;
+            this.configuredAccessExpiry = accessExpiry.map(Policy.FixedExpiration::getExpiresAfter).orElse(null);
+            this.maxAccessExpiry = cache.policy().expireAfterWrite()
+                .map(Policy.FixedExpiration::getExpiresAfter)
+                .orElse(configuredAccessExpiry);
+            this.previous = cache.stats();
+            this.adjustments = Counter.builder("cache.tuning.adjustments")
+                .description("Runtime cache size and expiry adjustments")
+                .tag("cache", name)
+                .register(meterRegistry);
+            Gauge.builder("cache.tuning.hit.rate.improvement", this, TunedCache::hitRateImprovement)
+                .description("Hit rate of the latest tuning interval minus that of the first")
+                .tag("cache", name)
+                .register(meterRegistry);
+        }
+
+        long maximum() {
+            return eviction.getMaximum();
+        }
+
+        double hitRateImprovement() {
+            return Double.isNaN(baselineHitRate) || Double.isNaN(latestHitRate) ? 0.0 : latestHitRate - baselineHitRate;
+        }
+
+        void tune() {
+            CacheStats current = cache.stats();
+            long maximum = eviction.getMaximum();
+            Window window = Window.between(previous, current, eviction.weightedSize().orElse(0), maximum);
+            previous = current;
+            if (window.requests() < minRequests) {
+                return;
+            }
+            latestHitRate = window.hitRate();
+            if (Double.isNaN(baselineHitRate)) {
+                baselineHitRate = window.hitRate();
+            }
+
+            long grown = Math.min((long) (maximum * GROWTH_STEP), (long) (configuredMaximum * maxSizeFactor));
+            boolean canGrow = grown > maximum && totalMaximum() + (grown - maximum) <= maxTotalBytes;
+            long shrunk = Math.max((long) (maximum / GROWTH_STEP), configuredMaximum);
+            boolean canShrink = shrunk < maximum;
+            Duration expiry = accessExpiry.map(Policy.FixedExpiration::getExpiresAfter).orElse(null);
+            boolean expiryExtensible = expiry != null && expiry.compareTo(maxAccessExpiry) < 0;
+            boolean expiryExtended = expiry != null && expiry.compareTo(configuredAccessExpiry) > 0;
+
+            switch (decide(window, canGrow, canShrink, expiryExtensible, expiryExtended)) {
+                case GROW -> resize(maximum, grown, window);
+                case SHRINK -> resize(maximum, shrunk, window);
+                case EXTEND_EXPIRY -> setAccessExpiry(expiry, min(scale(expiry, GROWTH_STEP), maxAccessExpiry), window);
+                case SHORTEN_EXPIRY -> setAccessExpiry(expiry,
+                    max(scale(expiry, 1 / GROWTH_STEP), configuredAccessExpiry), window);
+                case NONE -> { }
+            }
+        }
+
+        private void resize(long from, long to, Window window) {
+            eviction.setMaximum(to);
+            adjustments.increment();
+            log.info("Cache {} resized from {} to {} bytes (hit rate {}, occupancy {}, {} evictions)",
+                name, from, to, percent(window.hitRate()), percent(window.occupancy()), window.evictions());
+        }
+
+        private void setAccessExpiry(Duration from, Duration to, Window window) {
+            accessExpiry.orElseThrow().setExpiresAfter(to);
+            adjustments.increment();
+            log.info("Cache {} access expiry changed from {} to {} (hit rate {}, occupancy {}, {} evictions)",
+                name, from, to, percent(window.hitRate()), percent(window.occupancy()), window.evictions());
+        }
+    }
+
+    private static Duration scale(Duration duration, double factor) {
+        return Duration.ofMillis((long) (duration.toMillis() * factor));
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    private static Duration max(Duration a, Duration b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+
+    private static String percent(double ratio) {
+        return String.format("%.1f%%", ratio * 100);
+    }
+}
@@ -0,0 +1,108 @@
+package com.learningportal.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.SubscriptionListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Cache Invalidation Bus
+ *
+ * Broadcasts evictions from {@link TwoLevelCache}s and invalidations of
+ * {@link CacheRegion}s to every other node over a Redis pub/sub channel,
+ * and applies those received from other nodes to the local first level. Each message names the sending node so a node
+ * ignores its own broadcasts.
+ *
+ * Pub/sub delivers at most once: messages sent while a node is
+ * disconnected are lost. A node therefore clears all of its first-level
+ * caches and region generations whenever its subscription is
+ * re-established.
+ */
+@Component
+public class CacheInvalidationBus implements MessageListener, SubscriptionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    private static final String EVICT = "E";
+    private static final String CLEAR = "C";
+    private static final String REGION = "R";
+
+    private final RedisCacheStore store;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+    private final Map<String, CacheRegion> regions = new ConcurrentHashMap<>();
+    private final AtomicBoolean subscribedBefore = new AtomicBoolean();
+
+    public CacheInvalidationBus(RedisCacheStore store,
+                                @Value("${app.cache.l2.invalidation-channel:cache:invalidations}") String channel) {
+        this.store = store;
+        this.channel = channel;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    void register(TwoLevelCache cache) {
+        caches.put(cache.getName(), cache);
+    }
+
+    void register(CacheRegion region) {
+        regions.put(region.getName(), region);
+    }
+
+    void publishEviction(String cacheName, String key) {
+        store.publish(channel, String.join("\n", nodeId, EVICT, cacheName, key));
+    }
+
+    void publishClear(String cacheName) {
+        store.publish(channel, String.join("\n", nodeId, CLEAR, cacheName, ""));
+    }
+
+    void publishRegionInvalidation(String regionName, String owner) {
+        store.publish(channel, String.join("\n", nodeId, REGION, regionName, owner));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n", 4);
+        if (parts.length < 4 || parts[0].equals(nodeId)) {
+            return;
+        }
+        if (REGION.equals(parts[1])) {
+            CacheRegion region = regions.get(parts[2]);
+            if (region != null) {
+                region.forgetLocal(parts[3]);
+            }
+            return;
+        }
+        TwoLevelCache cache = caches.get(parts[2]);
+        if (cache == null) {
+            return;
+        }
+        if (EVICT.equals(parts[1])) {
+            cache.evictLocal(parts[3]);
+        } else if (CLEAR.equals(parts[1])) {
+            cache.clearLocal();
+        }
+    }
+
+    @Override
+    public void onChannelSubscribed(byte[] channel, long count) {
+        if (subscribedBefore.getAndSet(true)) {
+            log.info("Cache invalidation channel re-subscribed; clearing {} local caches", caches.size());
+            caches.values().forEach(TwoLevelCache::clearLocal);
+            regions.values().forEach(CacheRegion::forgetAllLocal);
+        }
+    }
+}
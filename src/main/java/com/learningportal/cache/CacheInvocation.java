@@ -0,0 +1,37 @@
+package com.learningportal.cache;
+
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Cache Invocation
+ *
+ * A call to a {@code @Cacheable} method, recorded by bean type, method
+ * signature and arguments so that it can be replayed to load the same
+ * entry again, possibly in another process.
+ */
+public record CacheInvocation(
+        String cacheName,
+        String targetClass,
+        String methodName,
+        List<String> parameterTypes,
+        List<Object> arguments) implements Serializable {
+
+    /**
+     * Describe a call, or return null when an argument could not be
+     * persisted and the call therefore cannot be replayed later
+     */
+    static CacheInvocation of(String cacheName, Class<?> targetClass, Method method, Object[] arguments) {
+        for (Object argument : arguments) {
+            if (argument != null && !(argument instanceof Serializable)) {
+                return null;
+            }
+        }
+        List<String> parameterTypes = Arrays.stream(method.getParameterTypes()).map(Class::getName).toList();
+        return new CacheInvocation(cacheName, targetClass.getName(), method.getName(), parameterTypes,
+            Collections.unmodifiableList(Arrays.asList(arguments.clone())));
+    }
+}
@@ -0,0 +1,174 @@
+package com.learningportal.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * Cache Region
+ *
+ * Per-owner key namespaces within a cache: every cached view of one
+ * owner's data - a user's progress pages and statistics, say - is keyed
+ * with the current generation of that owner's region. Invalidating the
+ * region moves it to a new generation, which retires all of those entries
+ * at once in constant time: they are never looked up again and age out of
+ * both cache levels on their own. Nothing is scanned, and no other owner's
+ * entries are touched.
+ *
+ * Used as the key generator of the region's cached methods, whose first
+ * argument is the owner. Keys are built before the value is loaded, so a
+ * load racing an invalidation stores its result under the generation it
+ * started with and is never served afterwards.
+ *
+ * With the Redis second level, generations are drawn from a sequence in
+ * Redis shared by every node, so all nodes stamp the same owner's keys
+ * alike; each node keeps a local copy of the generations it uses, dropped
+ * when another node broadcasts an invalidation. Without Redis, or while it
+ * is unavailable, a node stamps keys with random negative generations of
+ * its own, which never match the sequence's.
+ */
+public class CacheRegion implements KeyGenerator {
+
+    // Generation of an owner, assigned from the sequence on first use
+    private static final RedisScript<Long> CURRENT = RedisScript.of("""
+        local generation = redis.call('GET', KEYS[2])
+        if generation then
+            return tonumber(generation)
+        end
+        generation = redis.call('INCR', KEYS[1])
+        redis.call('SET', KEYS[2], generation, 'PX', ARGV[1])
+        return generation
+        """, Long.class);
+
+    // Move an owner to the next generation of the sequence
+    private static final RedisScript<Long> NEXT = RedisScript.of("""
+        local generation = redis.call('INCR', KEYS[1])
+        redis.call('SET', KEYS[2], generation, 'PX', ARGV[1])
+        return generation
+        """, Long.class);
+
+    private static final int MAX_LOCAL_OWNERS = 100_000;
+
+    private final String name;
+    private final Function<String, ?> ownerParser;
+    private final MethodKeyGenerator methodKeys;
+    private final RedisCacheStore store;
+    private final CacheInvalidationBus bus;
+    private final String sequenceKey;
+    private final String generationKeyPrefix;
+    private final String timeToLiveMs;
+    private final Cache<Object, Long> generations;
+
+    /**
+     * @param name the region's name, unique among regions; its cache's name will do
+     * @param ownerParser parses an owner from its string form, as broadcast to other nodes
+     * @param store the Redis second level, or null when the region is local
+     * @param timeToLive how long a generation is kept unused; at least as
+     *        long as the entries it stamps live
+     */
+    public CacheRegion(String name, Function<String, ?> ownerParser, MethodKeyGenerator methodKeys,
+                       RedisCacheStore store, CacheInvalidationBus bus, String keyPrefix, Duration timeToLive) {
+        this.name = name;
+        this.ownerParser = ownerParser;
+        this.methodKeys = methodKeys;
+        this.store = store;
+        this.bus = bus;
+        this.sequenceKey = keyPrefix + "region:sequence";
+        this.generationKeyPrefix = keyPrefix + name + ":region:";
+        this.timeToLiveMs = String.valueOf(timeToLive.toMillis());
+        this.generations = Caffeine.newBuilder()
+            .maximumSize(MAX_LOCAL_OWNERS)
+            .expireAfterAccess(timeToLive)
+            .build();
+        if (store != null) {
+            bus.register(this);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        MethodKey key = (MethodKey) methodKeys.generate(target, method, params);
+        Object owner = params.length > 0 ? params[0] : null;
+        return owner == null ? key : MethodKey.Region.of(key, generation(owner));
+    }
+
+    /**
+     * Retire every entry of an owner's region. Inside a transaction this
+     * happens once it commits - and not at all if it rolls back - so no
+     * read can cache what the transaction has not yet made visible.
+     */
+    public void invalidate(Object owner) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            advance(owner);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<Object> pending = (Set<Object>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<Object> owners = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, owners);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CacheRegion.this);
+                    if (status == STATUS_COMMITTED) {
+                        owners.forEach(CacheRegion.this::advance);
+                    }
+                }
+            });
+            pending = owners;
+        }
+        pending.add(owner);
+    }
+
+    /**
+     * Drop the local copy of an owner's generation after another node
+     * invalidated the region
+     */
+    void forgetLocal(String owner) {
+        generations.invalidate(ownerParser.apply(owner));
+    }
+
+    /**
+     * Drop every local copy, after invalidations may have been missed
+     */
+    void forgetAllLocal() {
+        generations.invalidateAll();
+    }
+
+    long generation(Object owner) {
+        Long generation = generations.getIfPresent(owner);
+        if (generation == null) {
+            generation = generations.get(owner, key -> fromSequence(CURRENT, key));
+        }
+        return generation;
+    }
+
+    private void advance(Object owner) {
+        generations.put(owner, fromSequence(NEXT, owner));
+        if (store != null) {
+            bus.publishRegionInvalidation(name, String.valueOf(owner));
+        }
+    }
+
+    private long fromSequence(RedisScript<Long> script, Object owner) {
+        Long generation = store == null ? null
+            : store.execute(script, List.of(sequenceKey, generationKeyPrefix + owner), timeToLiveMs);
+        return generation != null ? generation : ThreadLocalRandom.current().nextLong() | Long.MIN_VALUE;
+    }
+}
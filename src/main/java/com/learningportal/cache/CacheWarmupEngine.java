@@ -0,0 +1,282 @@
+package com.learningportal.cache;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cache Warm-up Engine
+ *
+ * Keeps a small manifest of the cache entries most worth having loaded -
+ * the invocations sampled most often by the {@link CacheAccessLog},
+ * weighted by the hit rate their cache achieves - and replays it on
+ * startup, or on demand, so a fresh node serves from warm caches rather
+ * than sending its first burst of traffic to the database.
+ *
+ * The manifest is persisted periodically and on shutdown. Each save halves
+ * the scores carried over from the previous manifest before adding the
+ * newly sampled counts, so entries that stop being read age out. Replay
+ * calls the cached methods through their proxies on a bounded pool, in
+ * score order, within a time budget; entries whose method no longer exists
+ * are skipped.
+ */
+@Component
+public class CacheWarmupEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheWarmupEngine.class);
+
+    private static final int MANIFEST_VERSION = 1;
+    private static final double CARRY_OVER = 0.5;
+
+    // The manifest holds only our records and the argument types of cached methods
+    private static final ObjectInputFilter MANIFEST_FILTER = ObjectInputFilter.Config.createFilter(
+        "maxdepth=12;java.lang.*;java.util.*;java.time.*;java.math.*;"
+            + "org.springframework.data.domain.*;com.learningportal.**;!*");
+
+    /**
+     * A manifest entry and the score it was ranked by
+     */
+    record ManifestEntry(CacheInvocation invocation, double score) implements Serializable {
+    }
+
+    /**
+     * Outcome of a warm-up run
+     */
+    public record WarmupReport(int entries, int loaded, int failed, int skipped, boolean timedOut, long durationMs) {
+    }
+
+    private final CacheAccessLog accessLog;
+    private final CacheManager cacheManager;
+    private final ApplicationContext applicationContext;
+    private final Path manifestPath;
+    private final int maxEntries;
+    private final int concurrency;
+    private final long timeoutMs;
+    private final boolean onStartup;
+    private final ScheduledExecutorService saver = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "cache-warmup-manifest");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private volatile List<ManifestEntry> manifest;
+
+    public CacheWarmupEngine(CacheAccessLog accessLog,
+                             CacheManager cacheManager,
+                             ApplicationContext applicationContext,
+                             @Value("${app.cache.warmup.manifest-path:data/cache-warmup.manifest}") String manifestPath,
+                             @Value("${app.cache.warmup.max-entries:500}") int maxEntries,
+                             @Value("${app.cache.warmup.concurrency:4}") int concurrency,
+                             @Value("${app.cache.warmup.timeout-ms:30000}") long timeoutMs,
+                             @Value("${app.cache.warmup.on-startup:true}") boolean onStartup,
+                             @Value("${app.cache.warmup.save-interval-ms:300000}") long saveIntervalMs) {
+        this.accessLog = accessLog;
+        this.cacheManager = cacheManager;
+        this.applicationContext = applicationContext;
+        this.manifestPath = Paths.get(manifestPath);
+        this.maxEntries = maxEntries;
+        this.concurrency = Math.max(1, concurrency);
+        this.timeoutMs = timeoutMs;
+        this.onStartup = onStartup;
+        this.manifest = readManifest();
+        saver.scheduleWithFixedDelay(this::saveQuietly, saveIntervalMs, saveIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Warm the caches before the node reports itself ready for traffic
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(20)
+    public void warmUpOnStartup() {
+        if (onStartup && !manifest.isEmpty()) {
+            warmUp();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        saver.shutdownNow();
+        saveQuietly();
+    }
+
+    /**
+     * Replay the highest-ranked entries, with bounded concurrency and within
+     * the configured time budget
+     */
+    public WarmupReport warmUp() {
+        long start = System.currentTimeMillis();
+        List<ManifestEntry> entries = rank(manifest, accessLog.counts());
+        AtomicInteger loaded = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicInteger skipped = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency, r -> {
+            Thread t = new Thread(r, "cache-warmup");
+            t.setDaemon(true);
+            return t;
+        });
+        boolean timedOut = false;
+        try {
+            List<Future<?>> tasks = new ArrayList<>(entries.size());
+            for (ManifestEntry entry : entries) {
+                tasks.add(pool.submit(() -> replay(entry.invocation(), loaded, failed, skipped)));
+            }
+            pool.shutdown();
+            timedOut = !pool.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS);
+            if (timedOut) {
+                tasks.forEach(task -> task.cancel(true));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            timedOut = true;
+        } finally {
+            pool.shutdownNow();
+        }
+
+        WarmupReport report = new WarmupReport(entries.size(), loaded.get(), failed.get(), skipped.get(), timedOut,
+            System.currentTimeMillis() - start);
+        log.info("Cache warm-up finished: {}", report);
+        return report;
+    }
+
+    /**
+     * Merge newly sampled counts into the manifest and persist it
+     */
+    public synchronized void saveManifest() throws IOException {
+        List<ManifestEntry> merged = rank(manifest, accessLog.drain());
+        Files.createDirectories(manifestPath.toAbsolutePath().getParent());
+        Path temporary = manifestPath.resolveSibling(manifestPath.getFileName() + ".tmp");
+        try (OutputStream file = new BufferedOutputStream(Files.newOutputStream(temporary));
+             ObjectOutputStream out = new ObjectOutputStream(file)) {
+            out.writeInt(MANIFEST_VERSION);
+            out.writeObject(new ArrayList<>(merged));
+        }
+        Files.move(temporary, manifestPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        manifest = merged;
+        log.debug("Saved cache warm-up manifest with {} entries", merged.size());
+    }
+
+    public int getManifestSize() {
+        return manifest.size();
+    }
+
+    private void replay(CacheInvocation invocation, AtomicInteger loaded, AtomicInteger failed,
+                        AtomicInteger skipped) {
+        try {
+            Class<?> targetClass = ClassUtils.forName(invocation.targetClass(), getClass().getClassLoader());
+            Class<?>[] parameterTypes = new Class<?>[invocation.parameterTypes().size()];
+            for (int i = 0; i < parameterTypes.length; i++) {
+                parameterTypes[i] = ClassUtils.forName(invocation.parameterTypes().get(i), getClass().getClassLoader());
+            }
+            Method method = ReflectionUtils.findMethod(targetClass, invocation.methodName(), parameterTypes);
+            if (method == null) {
+                skipped.incrementAndGet();
+                return;
+            }
+            // Through the proxy, so the result lands in the cache
+            Object bean = applicationContext.getBean(targetClass);
+            method.invoke(bean, invocation.arguments().toArray());
+            loaded.incrementAndGet();
+        } catch (ClassNotFoundException | LinkageError | org.springframework.beans.BeansException e) {
+            skipped.incrementAndGet();
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            log.debug("Cache warm-up of {} failed: {}", invocation, e.getMessage());
+        }
+    }
+
+    /**
+     * Carry over the previous scores at a discount, add the sampled counts
+     * weighted by their cache's hit rate, and keep the best entries. A
+     * cache whose entries are never hit gains nothing from warming.
+     */
+    private List<ManifestEntry> rank(List<ManifestEntry> previous, Map<CacheInvocation, Long> counts) {
+        Map<CacheInvocation, Double> scores = new HashMap<>();
+        for (ManifestEntry entry : previous) {
+            scores.merge(entry.invocation(), entry.score() * CARRY_OVER, Double::sum);
+        }
+        Map<String, Double> hitRates = new HashMap<>();
+        counts.forEach((invocation, count) -> {
+            double hitRate = hitRates.computeIfAbsent(invocation.cacheName(), this::hitRate);
+            scores.merge(invocation, count * hitRate, Double::sum);
+        });
+
+        return scores.entrySet().stream()
+            .filter(entry -> entry.getValue() > 0)
+            .sorted(Map.Entry.<CacheInvocation, Double>comparingByValue(Comparator.reverseOrder()))
+            .limit(maxEntries)
+            .map(entry -> new ManifestEntry(entry.getKey(), entry.getValue()))
+            .toList();
+    }
+
+    private double hitRate(String cacheName) {
+        if (cacheManager.getCache(cacheName) instanceof CaffeineCache cache) {
+            return cache.getNativeCache().stats().hitRate();
+        }
+        return 1.0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ManifestEntry> readManifest() {
+        if (!Files.isRegularFile(manifestPath)) {
+            return List.of();
+        }
+        try (InputStream file = new BufferedInputStream(Files.newInputStream(manifestPath));
+             ObjectInputStream in = new ObjectInputStream(file)) {
+            in.setObjectInputFilter(MANIFEST_FILTER);
+            if (in.readInt() != MANIFEST_VERSION) {
+                return List.of();
+            }
+            List<ManifestEntry> entries = List.copyOf((List<ManifestEntry>) in.readObject());
+            log.info("Loaded cache warm-up manifest with {} entries", entries.size());
+            return entries;
+        } catch (IOException | ClassNotFoundException | RuntimeException e) {
+            log.warn("Ignoring unreadable cache warm-up manifest {}: {}", manifestPath, e.getMessage());
+            return List.of();
+        }
+    }
+
+    private void saveQuietly() {
+        try {
+            saveManifest();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not save cache warm-up manifest {}: {}", manifestPath, e.getMessage());
+        }
+    }
+}
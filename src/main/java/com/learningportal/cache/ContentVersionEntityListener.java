@@ -0,0 +1,54 @@
+package com.learningportal.cache;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Content Version Entity Listener
+ *
+ * JPA listener on learning content entities that retires the current
+ * {@link ContentVersions learning content version} once a writing
+ * transaction commits. Each transaction retires it once, however many
+ * entities it wrote; rolled-back writes retire nothing.
+ *
+ * The versions are looked up lazily because Hibernate creates listeners
+ * while the entity manager factory - which they depend on - is still being
+ * built.
+ */
+@Component
+public class ContentVersionEntityListener {
+
+    private final ObjectProvider<ContentVersions> versions;
+
+    public ContentVersionEntityListener(ObjectProvider<ContentVersions> versions) {
+        this.versions = versions;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            versions.getObject().contentChanged();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ContentVersionEntityListener.this);
+                if (status == STATUS_COMMITTED) {
+                    versions.getObject().contentChanged();
+                }
+            }
+        });
+    }
+}
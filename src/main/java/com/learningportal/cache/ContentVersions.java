@@ -0,0 +1,244 @@
+package com.learningportal.cache;
+
+import com.learningportal.dto.ContentStamp;
+import com.learningportal.repository.InterviewQuestionRepository;
+import com.learningportal.repository.LearningModuleRepository;
+import com.learningportal.repository.TopicRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.SubscriptionListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Content Versions
+ *
+ * Validators - an entity tag and a last-modified time - for content
+ * responses, known in advance so conditional requests can be answered
+ * without querying or serializing anything.
+ *
+ * Learning content (modules, topics and interview questions) is versioned
+ * by a stamp of its tables: row counts, ID sums and latest modification
+ * times. Every node derives the same tag from the same data. The stamp is
+ * read once and re-read in the background after each committed change,
+ * whether made on this node or announced by another over Redis pub/sub;
+ * until it has been re-read the version is unknown and responses carry no
+ * validators, so a stale version is never confirmed. A delete leaves no
+ * modification time behind, so the last-modified time is also never
+ * earlier than this node's start or the last change it heard of.
+ *
+ * Content compiled into a controller is versioned by a digest of the
+ * controller's class file, which only a new build changes, and modified as
+ * of this node's start.
+ */
+@Component
+public class ContentVersions implements MessageListener, SubscriptionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ContentVersions.class);
+
+    // Hex digits of the digest kept in a tag
+    private static final int TAG_LENGTH = 16;
+
+    /**
+     * Validators of one version of some content
+     *
+     * @param etag weak entity tag, quoted
+     * @param lastModified epoch milliseconds, truncated to whole seconds as HTTP dates are
+     */
+    public record Version(String etag, long lastModified) {
+    }
+
+    private final LearningModuleRepository moduleRepository;
+    private final TopicRepository topicRepository;
+    private final InterviewQuestionRepository questionRepository;
+    private final RedisCacheStore store;
+    private final boolean broadcast;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final long startedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS).toEpochMilli();
+    private final Map<Class<?>, Version> staticVersions = new ConcurrentHashMap<>();
+
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+    private final AtomicBoolean subscribedBefore = new AtomicBoolean();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "content-version-refresh");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Null while unknown: before the first read and between a change and its re-read
+    private volatile Version learningContent;
+    private volatile long lastChangeAt;
+
+    public ContentVersions(LearningModuleRepository moduleRepository,
+                           TopicRepository topicRepository,
+                           InterviewQuestionRepository questionRepository,
+                           RedisCacheStore store,
+                           ObjectProvider<RedisMessageListenerContainer> cacheInvalidationListenerContainer,
+                           @Value("${app.cache.l2.enabled:true}") boolean broadcast,
+                           @Value("${app.cache.l2.content-version-channel:content:versions}") String channel) {
+        this.moduleRepository = moduleRepository;
+        this.topicRepository = topicRepository;
+        this.questionRepository = questionRepository;
+        this.store = store;
+        this.broadcast = broadcast;
+        this.channel = channel;
+        if (broadcast) {
+            cacheInvalidationListenerContainer.getObject().addMessageListener(this, new ChannelTopic(channel));
+        }
+    }
+
+    /**
+     * The current version of the learning content, or null while it is
+     * being read
+     */
+    public Version learningContent() {
+        Version version = learningContent;
+        if (version == null) {
+            requestRefresh();
+        }
+        return version;
+    }
+
+    /**
+     * The version of the content compiled into a class, or null when its
+     * class file cannot be read
+     */
+    public Version staticContent(Class<?> type) {
+        return staticVersions.computeIfAbsent(type, this::fingerprint);
+    }
+
+    /**
+     * Forget the learning content version after a committed change on this
+     * node, and tell the other nodes to do the same
+     */
+    void contentChanged() {
+        invalidate();
+        if (broadcast) {
+            store.publish(channel, nodeId);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        if (!nodeId.equals(new String(message.getBody(), StandardCharsets.UTF_8))) {
+            invalidate();
+        }
+    }
+
+    @Override
+    public void onChannelSubscribed(byte[] channel, long count) {
+        // Changes announced while disconnected were missed
+        if (subscribedBefore.getAndSet(true)) {
+            invalidate();
+        }
+    }
+
+    private void invalidate() {
+        lastChangeAt = Instant.now().truncatedTo(ChronoUnit.SECONDS).toEpochMilli();
+        generation.incrementAndGet();
+        learningContent = null;
+        requestRefresh();
+    }
+
+    private void requestRefresh() {
+        if (refreshPending.compareAndSet(false, true)) {
+            refresher.execute(this::refresh);
+        }
+    }
+
+    private void refresh() {
+        // Changes from here on schedule another pass
+        refreshPending.set(false);
+        long readGeneration = generation.get();
+        Version version;
+        try {
+            version = read();
+        } catch (RuntimeException e) {
+            log.warn("Could not read the learning content version: {}", e.getMessage());
+            return;
+        }
+        synchronized (this) {
+            if (generation.get() == readGeneration) {
+                learningContent = version;
+            }
+        }
+    }
+
+    private Version read() {
+        ContentStamp modules = moduleRepository.getContentStamp();
+        ContentStamp topics = topicRepository.getContentStamp();
+        ContentStamp questions = questionRepository.getContentStamp();
+
+        String stamp = String.join("|", describe(modules), describe(topics), describe(questions));
+        LocalDateTime lastModified = latest(latest(modules.lastModified(), topics.lastModified()),
+            questions.lastModified());
+        long lastModifiedMillis = Math.max(startedAt, lastChangeAt);
+        if (lastModified != null) {
+            lastModifiedMillis = Math.max(lastModifiedMillis,
+                lastModified.atZone(ZoneId.systemDefault()).toInstant().truncatedTo(ChronoUnit.SECONDS).toEpochMilli());
+        }
+        return new Version(etag(digest(stamp.getBytes(StandardCharsets.UTF_8))), lastModifiedMillis);
+    }
+
+    private Version fingerprint(Class<?> type) {
+        String resource = type.getName().replace('.', '/') + ".class";
+        try (InputStream in = type.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                return null;
+            }
+            return new Version(etag(digest(in.readAllBytes())), startedAt);
+        } catch (IOException e) {
+            log.warn("Could not fingerprint {}: {}", type.getName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static String describe(ContentStamp stamp) {
+        return stamp.rows() + ":" + Objects.requireNonNullElse(stamp.idSum(), 0L) + ":" + stamp.lastModified();
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isAfter(b) ? a : b;
+    }
+
+    private static String etag(byte[] digest) {
+        return "W/\"" + HexFormat.of().formatHex(digest).substring(0, TAG_LENGTH) + "\"";
+    }
+
+    private static byte[] digest(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.learningportal.cache;
+
+import org.springframework.data.domain.Sort;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Method Key
+ *
+ * Cache key of a call to a cached method, produced by
+ * {@link MethodKeyGenerator}: the method's name and the argument values
+ * that decide its result, in a small record whose hash is computed once,
+ * when the key is created, because Caffeine hashes a key on every lookup.
+ * The string form names the entry in Redis and in evictions broadcast to
+ * other nodes. Keys built in a {@link CacheRegion} also carry the
+ * generation of their owner's region.
+ */
+public sealed interface MethodKey extends Serializable permits MethodKey.Value, MethodKey.Page, MethodKey.Region {
+
+    /**
+     * Key of a method taking at most one argument
+     */
+    record Value(String method, Object value, int hash) implements MethodKey {
+
+        static Value of(String method, Object value) {
+            return new Value(method, value, 31 * method.hashCode() + Objects.hashCode(value));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || o instanceof Value other && hash == other.hash
+                && method.equals(other.method) && Objects.equals(value, other.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return value == null ? method : method + ":" + value;
+        }
+    }
+
+    /**
+     * Key of a method reading one page, optionally of something it owns
+     * such as a user's records
+     *
+     * @param owner the other argument, or null when the method takes none
+     */
+    record Page(String method, Object owner, int page, int size, Sort sort, int hash) implements MethodKey {
+
+        static Page of(String method, Object owner, int page, int size, Sort sort) {
+            int hash = 31 * method.hashCode() + Objects.hashCode(owner);
+            hash = 31 * (31 * (31 * hash + page) + size) + sort.hashCode();
+            return new Page(method, owner, page, size, sort, hash);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || o instanceof Page other && hash == other.hash
+                && page == other.page && size == other.size && method.equals(other.method)
+                && Objects.equals(owner, other.owner) && sort.equals(other.sort);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            String prefix = owner == null ? method : method + ":" + owner;
+            String pageKey = prefix + ":" + page + ":" + size;
+            return sort.isSorted() ? pageKey + ":" + sort : pageKey;
+        }
+    }
+
+    /**
+     * Key of a call in a {@link CacheRegion}, stamped with the generation
+     * its owner's region had when the key was built
+     */
+    record Region(MethodKey key, long generation, int hash) implements MethodKey {
+
+        static Region of(MethodKey key, long generation) {
+            return new Region(key, generation, 31 * key.hashCode() + Long.hashCode(generation));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || o instanceof Region other && hash == other.hash
+                && generation == other.generation && key.equals(other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return key + "@" + generation;
+        }
+    }
+}
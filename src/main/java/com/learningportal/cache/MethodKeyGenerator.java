@@ -0,0 +1,94 @@
+package com.learningportal.cache;
+
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.interceptor.SimpleKeyGenerator;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Method Key Generator
+ *
+ * Builds {@link MethodKey}s for cached methods without evaluating an
+ * expression or concatenating strings. Each method's shape - which argument
+ * is a {@link Pageable} and which is a plain value - is worked out on its
+ * first call; later calls only copy argument values into a key record, and
+ * methods without arguments reuse a single key.
+ *
+ * A pageable contributes its page number, size and sort. Methods with
+ * other argument lists fall back to Spring's simple keys, still scoped by
+ * method name. Keys name the method but not its class, so two cached
+ * methods sharing a cache must not share a name.
+ */
+@Component(MethodKeyGenerator.BEAN_NAME)
+public class MethodKeyGenerator implements KeyGenerator {
+
+    public static final String BEAN_NAME = "methodKeyGenerator";
+
+    // Page number and size recorded for unpaged reads
+    private static final int UNPAGED = -1;
+
+    private final Map<Method, Shape> shapes = new ConcurrentHashMap<>();
+
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        Shape shape = shapes.get(method);
+        if (shape == null) {
+            shape = shapes.computeIfAbsent(method, Shape::of);
+        }
+        return shape.key(params);
+    }
+
+    /**
+     * How to build the keys of one method
+     *
+     * @param pageable index of the pageable argument, or -1
+     * @param value index of the other argument, or -1
+     * @param constant the key of a method without arguments
+     */
+    private record Shape(String method, int pageable, int value, boolean simple, MethodKey constant) {
+
+        static Shape of(Method method) {
+            String name = method.getName();
+            Class<?>[] types = method.getParameterTypes();
+            if (types.length == 0) {
+                return new Shape(name, -1, -1, false, MethodKey.Value.of(name, null));
+            }
+            int pageable = -1;
+            int value = -1;
+            for (int i = 0; i < types.length; i++) {
+                if (Pageable.class.isAssignableFrom(types[i]) && pageable < 0) {
+                    pageable = i;
+                } else if (value < 0) {
+                    value = i;
+                } else {
+                    return new Shape(name, -1, -1, true, null);
+                }
+            }
+            return new Shape(name, pageable, value, false, null);
+        }
+
+        MethodKey key(Object[] params) {
+            if (constant != null) {
+                return constant;
+            }
+            if (simple) {
+                return MethodKey.Value.of(method, SimpleKeyGenerator.generateKey(params));
+            }
+            Object argument = value >= 0 ? params[value] : null;
+            if (pageable < 0) {
+                return MethodKey.Value.of(method, argument);
+            }
+            Pageable page = (Pageable) params[pageable];
+            if (page == null || page.isUnpaged()) {
+                Sort sort = page == null ? Sort.unsorted() : page.getSort();
+                return MethodKey.Page.of(method, argument, UNPAGED, UNPAGED, sort);
+            }
+            return MethodKey.Page.of(method, argument, page.getPageNumber(), page.getPageSize(), page.getSort());
+        }
+    }
+}
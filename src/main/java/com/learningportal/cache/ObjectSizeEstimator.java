@@ -0,0 +1,238 @@
+package com.learningportal.cache;
+
+import org.hibernate.Hibernate;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Object Size Estimator
+ *
+ * Estimates the heap retained by a cached key and value, used as the
+ * Caffeine weigher so caches are bounded by bytes rather than by entry
+ * count. The object graph is walked once, counting each object a single
+ * time, with sizes approximated for a 64-bit JVM with compressed
+ * references: 12-byte headers, 4-byte references, 8-byte alignment.
+ *
+ * JDK classes cannot be reflected into, so strings, boxes, arrays,
+ * collections and maps are sized from their public shape and other JDK
+ * values get a fixed size. Hibernate internals are never followed:
+ * uninitialized proxies and collections count as empty, initialized
+ * proxies count as their entity, and a session reachable from an entity is
+ * not part of the entry.
+ */
+public final class ObjectSizeEstimator {
+
+    private static final int HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+    private static final int ALIGNMENT = 8;
+
+    // Per element beyond the reference: HashMap/HashSet nodes, linked list nodes
+    private static final int HASH_NODE = 32;
+    private static final int COLLECTION_OVERHEAD = 40;
+    private static final int OPAQUE_JDK_OBJECT = 24;
+
+    // Walks that reach this many objects stop counting; such entries are far over any budget anyway
+    private static final int MAX_OBJECTS = 200_000;
+
+    private static final ClassValue<Layout> LAYOUTS = new ClassValue<>() {
+        @Override
+        protected Layout computeValue(Class<?> type) {
+            return Layout.of(type);
+        }
+    };
+
+    private ObjectSizeEstimator() {
+    }
+
+    /**
+     * Caffeine weigher: estimated bytes retained by an entry
+     */
+    public static int weigh(Object key, Object value) {
+        long bytes = estimate(key) + estimate(value);
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(1, bytes));
+    }
+
+    /**
+     * Estimated bytes retained by an object graph
+     */
+    public static long estimate(Object root) {
+        if (root == null) {
+            return 0;
+        }
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Object> pending = new ArrayDeque<>();
+        pending.push(root);
+
+        long total = 0;
+        while (!pending.isEmpty() && visited.size() < MAX_OBJECTS) {
+            Object object = pending.pop();
+            if (object == null || !visited.add(object)) {
+                continue;
+            }
+            total += sizeOf(object, pending);
+        }
+        return total;
+    }
+
+    /**
+     * Size one object and queue the objects it references
+     */
+    private static long sizeOf(Object object, Deque<Object> pending) {
+        Class<?> type = object.getClass();
+
+        if (type.isEnum() || object instanceof Enum<?> || object instanceof Class<?>) {
+            return 0; // Shared singletons
+        }
+        if (object instanceof String string) {
+            return align(HEADER + REFERENCE + 8) + align(ARRAY_HEADER + (long) string.length() * bytesPerChar(string));
+        }
+        if (type.isArray()) {
+            return sizeOfArray(object, type.getComponentType(), pending);
+        }
+        if (object instanceof HibernateProxy proxy) {
+            if (Hibernate.isInitialized(proxy)) {
+                pending.push(proxy.getHibernateLazyInitializer().getImplementation());
+            }
+            return align(HEADER + 2L * REFERENCE);
+        }
+        if (object instanceof Collection<?> collection) {
+            if (!Hibernate.isInitialized(collection)) {
+                return COLLECTION_OVERHEAD;
+            }
+            long size = COLLECTION_OVERHEAD + align(ARRAY_HEADER + (long) collection.size() * REFERENCE);
+            if (object instanceof Set<?> || !(object instanceof List<?>)) {
+                size += (long) collection.size() * HASH_NODE;
+            }
+            collection.forEach(pending::push);
+            return size;
+        }
+        if (object instanceof Map<?, ?> map) {
+            if (!Hibernate.isInitialized(map)) {
+                return COLLECTION_OVERHEAD;
+            }
+            map.forEach((key, value) -> {
+                pending.push(key);
+                pending.push(value);
+            });
+            return COLLECTION_OVERHEAD + align(ARRAY_HEADER + (long) map.size() * REFERENCE)
+                + (long) map.size() * HASH_NODE;
+        }
+
+        Layout layout = LAYOUTS.get(type);
+        for (Field field : layout.references()) {
+            try {
+                Object value = field.get(object);
+                if (value != null && !isHibernateInternal(value)) {
+                    pending.push(value);
+                }
+            } catch (IllegalAccessException e) {
+                // Counted as a reference only
+            }
+        }
+        return layout.shallowSize();
+    }
+
+    private static long sizeOfArray(Object array, Class<?> componentType, Deque<Object> pending) {
+        if (!componentType.isPrimitive()) {
+            Object[] elements = (Object[]) array;
+            for (Object element : elements) {
+                if (element != null) {
+                    pending.push(element);
+                }
+            }
+            return align(ARRAY_HEADER + (long) elements.length * REFERENCE);
+        }
+        int length = java.lang.reflect.Array.getLength(array);
+        return align(ARRAY_HEADER + (long) length * primitiveSize(componentType));
+    }
+
+    private static boolean isHibernateInternal(Object value) {
+        return value.getClass().getName().startsWith("org.hibernate.")
+            && !(value instanceof Collection<?>) && !(value instanceof Map<?, ?>);
+    }
+
+    private static int bytesPerChar(String string) {
+        for (int i = 0; i < string.length(); i++) {
+            if (string.charAt(i) > 0xFF) {
+                return 2;
+            }
+        }
+        return 1;
+    }
+
+    private static int primitiveSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1;
+    }
+
+    private static long align(long size) {
+        return (size + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+
+    /**
+     * Shallow size of a class and the fields to follow from its instances
+     */
+    private record Layout(long shallowSize, Field[] references) {
+
+        static Layout of(Class<?> type) {
+            if (isJdkClass(type)) {
+                return new Layout(jdkSize(type), new Field[0]);
+            }
+            long size = HEADER;
+            List<Field> references = new ArrayList<>();
+            for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    if (field.getType().isPrimitive()) {
+                        size += primitiveSize(field.getType());
+                        continue;
+                    }
+                    size += REFERENCE;
+                    if (!isJdkClass(current) && field.trySetAccessible()) {
+                        references.add(field);
+                    }
+                }
+            }
+            return new Layout(align(size), references.toArray(new Field[0]));
+        }
+
+        private static boolean isJdkClass(Class<?> type) {
+            String name = type.getName();
+            return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk.")
+                || name.startsWith("sun.");
+        }
+
+        private static long jdkSize(Class<?> type) {
+            if (Number.class.isAssignableFrom(type) && type.getName().startsWith("java.lang.")
+                    || type == Boolean.class || type == Character.class) {
+                return align(HEADER + 8);
+            }
+            if (type == java.time.LocalDateTime.class) {
+                return 3 * align(HEADER + 8);
+            }
+            return OPAQUE_JDK_OBJECT;
+        }
+    }
+}
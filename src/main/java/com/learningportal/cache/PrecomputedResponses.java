@@ -0,0 +1,229 @@
+package com.learningportal.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learningportal.annotation.ConditionalContent;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Precomputed Responses
+ *
+ * Serialized, compressed bodies of the parameterless GET handlers whose
+ * content is {@link ConditionalContent.Source#STATIC compiled in}. Each
+ * handler is invoked once at startup, its body serialized with the
+ * application's object mapper and gzipped at the highest level, and every
+ * later request is answered by writing the shared bytes directly, without
+ * invoking the handler, building the content or serializing it again.
+ *
+ * Bodies too small to gain from compression are kept as they are. Handlers
+ * that take parameters are not precomputed and run as usual.
+ */
+@Component
+public class PrecomputedResponses implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(PrecomputedResponses.class);
+
+    private static final String GZIP = "gzip";
+
+    // Below this, gzip headers and framing cost more than they save
+    private static final int MIN_COMPRESSIBLE_BYTES = 512;
+
+    /**
+     * One precomputed body
+     *
+     * @param gzip compressed body, or null when not worth serving compressed
+     */
+    record Payload(byte[] identity, byte[] gzip) {
+    }
+
+    // Looked up once built: the mapping's interceptors depend on this component
+    private final ObjectProvider<RequestMappingHandlerMapping> handlerMapping;
+    private final ObjectMapper objectMapper;
+    private final Map<Method, Payload> payloads = new ConcurrentHashMap<>();
+
+    public PrecomputedResponses(
+            @Qualifier("requestMappingHandlerMapping") ObjectProvider<RequestMappingHandlerMapping> handlerMapping,
+            ObjectMapper objectMapper) {
+        this.handlerMapping = handlerMapping;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long identityBytes = 0;
+        long gzipBytes = 0;
+        Map<RequestMappingInfo, HandlerMethod> handlerMethods = handlerMapping.getObject().getHandlerMethods();
+        for (Map.Entry<RequestMappingInfo, HandlerMethod> entry : handlerMethods.entrySet()) {
+            HandlerMethod handlerMethod = entry.getValue();
+            if (!isPrecomputable(entry.getKey(), handlerMethod)) {
+                continue;
+            }
+            try {
+                Payload payload = precompute(handlerMethod.createWithResolvedBean());
+                if (payload != null) {
+                    payloads.put(handlerMethod.getMethod(), payload);
+                    identityBytes += payload.identity().length;
+                    gzipBytes += payload.gzip() != null ? payload.gzip().length : payload.identity().length;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not precompute the response of {}: {}", handlerMethod.getShortLogMessage(),
+                    e.getMessage());
+            }
+        }
+        log.info("Precomputed {} static responses: {} bytes, {} gzipped", payloads.size(), identityBytes, gzipBytes);
+    }
+
+    /**
+     * Write the precomputed response of a handler, compressed when the
+     * client accepts it
+     *
+     * @return false when the handler has no precomputed response or the
+     *         client does not accept JSON, leaving the request to the handler
+     */
+    public boolean write(Method handler, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Payload payload = payloads.get(handler);
+        if (payload == null || !acceptsJson(request.getHeader(HttpHeaders.ACCEPT))) {
+            return false;
+        }
+
+        byte[] body = payload.identity();
+        if (payload.gzip() != null) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+                body = payload.gzip();
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+            }
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        if (!HttpMethod.HEAD.matches(request.getMethod())) {
+            response.getOutputStream().write(body);
+        }
+        return true;
+    }
+
+    private static boolean isPrecomputable(RequestMappingInfo mapping, HandlerMethod handlerMethod) {
+        if (handlerMethod.getMethod().getParameterCount() > 0) {
+            return false;
+        }
+        Set<RequestMethod> methods = mapping.getMethodsCondition().getMethods();
+        if (!methods.isEmpty() && !methods.contains(RequestMethod.GET)) {
+            return false;
+        }
+        ConditionalContent policy = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(),
+            ConditionalContent.class);
+        if (policy == null) {
+            policy = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), ConditionalContent.class);
+        }
+        return policy != null && policy.value() == ConditionalContent.Source.STATIC;
+    }
+
+    private Payload precompute(HandlerMethod handlerMethod) {
+        Object result = ReflectionUtils.invokeMethod(handlerMethod.getMethod(), handlerMethod.getBean());
+        Object body = result;
+        if (result instanceof ResponseEntity<?> entity) {
+            // Only plain successful bodies can stand in for the handler
+            if (!entity.getStatusCode().is2xxSuccessful() || !entity.getHeaders().isEmpty()) {
+                return null;
+            }
+            body = entity.getBody();
+        }
+        if (body == null) {
+            return null;
+        }
+
+        byte[] identity;
+        try {
+            identity = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response is not serializable: " + e.getOriginalMessage(), e);
+        }
+        byte[] gzip = identity.length >= MIN_COMPRESSIBLE_BYTES ? gzip(identity) : null;
+        return new Payload(identity, gzip != null && gzip.length < identity.length ? gzip : null);
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    static boolean acceptsJson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        try {
+            for (MediaType mediaType : MediaType.parseMediaTypes(accept)) {
+                if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON) && mediaType.getQualityValue() > 0) {
+                    return true;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // Unparseable; let the handler's content negotiation reject it
+        }
+        return false;
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            if (name.equals(GZIP) || name.equals("*")) {
+                return parts.length < 2 || !isZeroQuality(parts[1]);
+            }
+        }
+        return false;
+    }
+
+    private static boolean isZeroQuality(String parameter) {
+        String trimmed = parameter.trim().toLowerCase(Locale.ROOT);
+        if (!trimmed.startsWith("q=")) {
+            return false;
+        }
+        try {
+            return Double.parseDouble(trimmed.substring(2)) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
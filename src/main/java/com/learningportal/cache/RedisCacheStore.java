@@ -0,0 +1,152 @@
+package com.learningportal.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Redis Cache Store
+ *
+ * Second-level cache storage and the pub/sub transport used to broadcast
+ * evictions. Values are stored JDK-serialized; a value that cannot be
+ * serialized is simply kept in the first level only.
+ *
+ * Redis is an optimization here, never a dependency: when a call fails the
+ * store stops calling Redis for a back-off period and every operation
+ * degrades to a miss or a no-op, so an outage costs cache hits rather than
+ * request latency.
+ */
+@Component
+public class RedisCacheStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisCacheStore.class);
+    private static final int DELETE_BATCH_SIZE = 500;
+
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final RedisSerializer<Object> serializer =
+        new JdkSerializationRedisSerializer(RedisCacheStore.class.getClassLoader());
+    private final RedisSerializer<Long> longSerializer = new GenericToStringSerializer<>(Long.class);
+    private final long retryAfterMs;
+
+    private volatile long unavailableUntil;
+
+    public RedisCacheStore(RedisConnectionFactory connectionFactory,
+                           @Value("${app.cache.l2.retry-after-ms:30000}") long retryAfterMs) {
+        this.retryAfterMs = retryAfterMs;
+
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(RedisSerializer.string());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.afterPropertiesSet();
+        this.redisTemplate = template;
+    }
+
+    /**
+     * Read and deserialize a value, or return null on a miss or while Redis
+     * is unavailable
+     */
+    Object get(String key) {
+        byte[] bytes = call(() -> redisTemplate.opsForValue().get(key));
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            return serializer.deserialize(bytes);
+        } catch (SerializationException e) {
+            // Written by an incompatible build; drop it
+            log.debug("Discarding unreadable L2 cache entry {}: {}", key, e.getMessage());
+            delete(key);
+            return null;
+        }
+    }
+
+    void set(String key, Object value, Duration timeToLive) {
+        byte[] bytes;
+        try {
+            bytes = serializer.serialize(value);
+        } catch (SerializationException e) {
+            log.debug("Keeping {} in L1 only: value is not serializable ({})", key, e.getMessage());
+            return;
+        }
+        call(() -> {
+            redisTemplate.opsForValue().set(key, bytes, timeToLive);
+            return null;
+        });
+    }
+
+    void delete(String key) {
+        call(() -> redisTemplate.delete(key));
+    }
+
+    /**
+     * Delete every key starting with a prefix, scanning rather than
+     * blocking Redis with KEYS
+     */
+    void deleteByPrefix(String prefix) {
+        call(() -> {
+            List<String> batch = new ArrayList<>(DELETE_BATCH_SIZE);
+            ScanOptions options = ScanOptions.scanOptions().match(prefix + "*").count(DELETE_BATCH_SIZE).build();
+            try (Cursor<String> keys = redisTemplate.scan(options)) {
+                while (keys.hasNext()) {
+                    batch.add(keys.next());
+                    if (batch.size() == DELETE_BATCH_SIZE) {
+                        redisTemplate.delete(batch);
+                        batch.clear();
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                redisTemplate.delete(batch);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Run a script returning an integer, or return null while Redis is
+     * unavailable
+     */
+    Long execute(RedisScript<Long> script, List<String> keys, String... args) {
+        return call(() -> redisTemplate.execute(script, RedisSerializer.string(), longSerializer, keys,
+            (Object[]) args));
+    }
+
+    void publish(String channel, String message) {
+        call(() -> redisTemplate.convertAndSend(channel, message.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    boolean isAvailable() {
+        return System.currentTimeMillis() >= unavailableUntil;
+    }
+
+    private <T> T call(Supplier<T> operation) {
+        if (!isAvailable()) {
+            return null;
+        }
+        try {
+            return operation.get();
+        } catch (DataAccessException e) {
+            unavailableUntil = System.currentTimeMillis() + retryAfterMs;
+            log.warn("Redis cache unavailable, using local caches only for {}ms: {}", retryAfterMs, e.getMessage());
+            return null;
+        }
+    }
+}
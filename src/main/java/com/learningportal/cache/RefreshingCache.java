@@ -0,0 +1,167 @@
+package com.learningportal.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Refreshing Cache
+ *
+ * A Caffeine cache that loads each missing key once and refreshes hot keys
+ * before they expire. Concurrent misses on one key wait for a single
+ * loader instead of each running the query (used by
+ * {@code @Cacheable(sync = true)}). Once an entry is older than the refresh
+ * interval, the next read still returns it but also reloads it in the
+ * background with that caller's loader, so a key that keeps being read
+ * never expires and never makes a request wait.
+ *
+ * A refresh that overlaps an eviction is discarded, so a background reload
+ * that started before a write cannot reinstate the value the write evicted.
+ *
+ * Entries are keyed by the key objects themselves, so a lookup costs no
+ * more than the key's own hash and equality.
+ */
+public class RefreshingCache extends CaffeineCache {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshingCache.class);
+
+    private final long refreshAfterNanos;
+    private final Executor refreshExecutor;
+    private final Set<Object> refreshing = ConcurrentHashMap.newKeySet();
+
+    // Bumped by every eviction; loads and refreshes that overlap one are not published
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param refreshAfter age after which a read triggers a background
+     *                     reload; zero disables refreshing
+     */
+    public RefreshingCache(String name, Cache<Object, Object> cache, Duration refreshAfter, Executor refreshExecutor) {
+        super(name, cache, true);
+        this.refreshAfterNanos = refreshAfter.toNanos();
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object value = getNativeCache().get(key, k -> {
+            long epoch = evictionEpoch();
+            try {
+                return load(key, valueLoader, epoch);
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+        });
+        refreshIfStale(key, valueLoader);
+        return (T) fromStoreValue(value);
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        return getNativeCache().getIfPresent(key);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        markEvicted();
+        getNativeCache().put(key, toStoreValue(value));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return toValueWrapper(getNativeCache().asMap().putIfAbsent(key, toStoreValue(value)));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        markEvicted();
+        return getNativeCache().asMap().remove(key) != null;
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictIfPresent(key);
+    }
+
+    @Override
+    public boolean invalidate() {
+        markEvicted();
+        boolean notEmpty = !getNativeCache().asMap().isEmpty();
+        getNativeCache().invalidateAll();
+        return notEmpty;
+    }
+
+    @Override
+    public void clear() {
+        invalidate();
+    }
+
+    /**
+     * Compute the store value of a missing key; runs once per key however
+     * many callers missed it
+     *
+     * @param epoch the eviction epoch when the load started
+     */
+    protected Object load(Object key, Callable<?> valueLoader, long epoch) throws Exception {
+        return toStoreValue(valueLoader.call());
+    }
+
+    /**
+     * Called after a background refresh replaced a local entry
+     */
+    protected void refreshed(Object key, Object storeValue) {
+    }
+
+    protected final long evictionEpoch() {
+        return evictions.get();
+    }
+
+    protected final void markEvicted() {
+        evictions.incrementAndGet();
+    }
+
+    private void refreshIfStale(Object key, Callable<?> valueLoader) {
+        if (refreshAfterNanos <= 0 || age(key) < refreshAfterNanos || !refreshing.add(key)) {
+            return;
+        }
+        long epoch = evictionEpoch();
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    Object value = toStoreValue(valueLoader.call());
+                    // Eviction happens-before the epoch check or waits for this compute to finish
+                    Object installed = getNativeCache().asMap().computeIfPresent(key,
+                        (k, old) -> evictionEpoch() == epoch ? value : old);
+                    if (installed == value) {
+                        refreshed(key, value);
+                    }
+                } catch (Exception e) {
+                    log.warn("Background refresh of {}::{} failed, keeping current value: {}",
+                        getName(), key, e.getMessage());
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Refresh queue full; the entry is retried on a later read
+            refreshing.remove(key);
+        }
+    }
+
+    private long age(Object key) {
+        return getNativeCache().policy().expireAfterWrite()
+            .map(expiration -> expiration.ageOf(key, TimeUnit.NANOSECONDS).orElse(0L))
+            .orElse(0L);
+    }
+}
@@ -0,0 +1,168 @@
+package com.learningportal.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Two-Level Cache
+ *
+ * A Caffeine cache (L1) in front of a Redis cache shared by every node
+ * (L2). Reads are served from local memory whenever possible; an L1 miss
+ * falls through to Redis before the value is computed, so a value loaded
+ * by one node is reused by the others. Every write and eviction is
+ * applied to both levels and broadcast on the {@link CacheInvalidationBus},
+ * so other nodes drop their now-stale local copy.
+ *
+ * Local entries are keyed by the key objects; Redis keys and broadcast
+ * evictions use the keys' string form, built only when Redis is involved.
+ * Each local entry is indexed by its Redis key, so an eviction received
+ * from another node is a single lookup; the index follows the local
+ * cache's own evictions. Being a Caffeine cache, the local statistics stay
+ * visible to monitoring.
+ */
+public class TwoLevelCache extends RefreshingCache {
+
+    private final String keyPrefix;
+    private final Duration timeToLive;
+    private final RedisCacheStore store;
+    private final CacheInvalidationBus bus;
+    // Redis key of every local entry, to the entry's key
+    private final Map<String, Object> localKeys;
+
+    /**
+     * @param localCache the local cache's configuration; built here, so
+     *                   that its evictions also leave the key index
+     */
+    public TwoLevelCache(String name, Caffeine<Object, Object> localCache, Duration refreshAfter,
+                         Executor refreshExecutor, String keyPrefix, Duration timeToLive,
+                         RedisCacheStore store, CacheInvalidationBus bus) {
+        this(name, localCache, refreshAfter, refreshExecutor, keyPrefix + name + "::", timeToLive, store, bus,
+            new ConcurrentHashMap<>());
+    }
+
+    private TwoLevelCache(String name, Caffeine<Object, Object> localCache, Duration refreshAfter,
+                          Executor refreshExecutor, String keyPrefix, Duration timeToLive,
+                          RedisCacheStore store, CacheInvalidationBus bus, Map<String, Object> localKeys) {
+        super(name, localCache
+            .evictionListener((key, value, cause) -> localKeys.remove(keyPrefix + key, key))
+            .build(), refreshAfter, refreshExecutor);
+        this.keyPrefix = keyPrefix;
+        this.timeToLive = timeToLive;
+        this.store = store;
+        this.bus = bus;
+        this.localKeys = localKeys;
+        bus.register(this);
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = getNativeCache().getIfPresent(key);
+        if (value == null) {
+            String redisKey = redisKey(key);
+            value = store.get(redisKey);
+            if (value != null) {
+                getNativeCache().put(key, value);
+                localKeys.put(redisKey, key);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    protected Object load(Object key, Callable<?> valueLoader, long epoch) throws Exception {
+        // Indexed before the entry is installed; an eviction meanwhile waits for the load
+        String redisKey = redisKey(key);
+        localKeys.put(redisKey, key);
+        Object remote = store.get(redisKey);
+        if (remote != null) {
+            return remote;
+        }
+        Object value;
+        try {
+            value = super.load(key, valueLoader, epoch);
+        } catch (Exception e) {
+            localKeys.remove(redisKey, key);
+            throw e;
+        }
+        if (evictionEpoch() == epoch) {
+            store.set(redisKey, value, timeToLive);
+        }
+        return value;
+    }
+
+    @Override
+    protected void refreshed(Object key, Object storeValue) {
+        // A refresh is not a change, so other nodes keep their copies
+        store.set(redisKey(key), storeValue, timeToLive);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Object storeValue = toStoreValue(value);
+        String redisKey = redisKey(key);
+        markEvicted();
+        getNativeCache().put(key, storeValue);
+        localKeys.put(redisKey, key);
+        store.set(redisKey, storeValue, timeToLive);
+        bus.publishEviction(getName(), String.valueOf(key));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = get(key);
+        if (existing == null) {
+            put(key, value);
+        }
+        return existing;
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        // Unindexed first, so an entry put meanwhile is left with its index
+        String redisKey = redisKey(key);
+        localKeys.remove(redisKey);
+        boolean present = super.evictIfPresent(key);
+        store.delete(redisKey);
+        bus.publishEviction(getName(), String.valueOf(key));
+        return present;
+    }
+
+    @Override
+    public boolean invalidate() {
+        localKeys.clear();
+        boolean notEmpty = super.invalidate();
+        store.deleteByPrefix(keyPrefix);
+        bus.publishClear(getName());
+        return notEmpty;
+    }
+
+    /**
+     * Drop a local entry after another node changed it. Only the key's
+     * string form crosses nodes; the index maps it back to the local key.
+     */
+    void evictLocal(String key) {
+        markEvicted();
+        Object localKey = localKeys.remove(keyPrefix + key);
+        if (localKey != null) {
+            getNativeCache().invalidate(localKey);
+        }
+    }
+
+    /**
+     * Drop every local entry after another node cleared the cache, or after
+     * evictions may have been missed
+     */
+    void clearLocal() {
+        localKeys.clear();
+        super.invalidate();
+    }
+
+    private String redisKey(Object key) {
+        return keyPrefix + key;
+    }
+}
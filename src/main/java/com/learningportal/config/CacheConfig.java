@@ -2,74 +2,211 @@ package com.learningportal.config;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.learningportal.cache.CacheAccessLog;
+import com.learningportal.cache.CacheInvalidationBus;
+import com.learningportal.cache.CacheRegion;
+import com.learningportal.cache.MethodKeyGenerator;
+import com.learningportal.cache.ObjectSizeEstimator;
+import com.learningportal.cache.RedisCacheStore;
+import com.learningportal.cache.RefreshingCache;
+import com.learningportal.cache.TwoLevelCache;
+import com.learningportal.search.SearchResultCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.interceptor.CacheResolver;
+import org.springframework.cache.interceptor.SimpleCacheResolver;
 import org.springframework.cache.support.SimpleCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.util.unit.DataSize;
 
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Advanced Cache Configuration
  * 
  * Configures multiple Caffeine caches with different TTL and size settings
- * optimized for different types of learning content and user data
+ * optimized for different types of learning content and user data. Caches
+ * are bounded by the estimated heap their entries retain, with per-cache
+ * byte budgets under {@code app.cache.max-bytes}, since a single module
+ * with its topics can outweigh thousands of statistics entries.
+ * 
+ * Each cache is two-level: the local Caffeine cache is backed by Redis and
+ * evictions are broadcast to the other nodes over Redis pub/sub, so a write
+ * on one node is not followed by stale reads on another. Search results
+ * stay local only, since they describe this node's own search index.
+ * A user's cached progress lives in a per-user {@link CacheRegion}, so
+ * one progress write retires all of that user's cached views at once.
+ * 
+ * Concurrent misses on a key run a single load, and the long-lived caches
+ * reload hot keys in the background before they expire. Caching runs
+ * outside transactions, so a cache hit never opens one. Reads are sampled
+ * for the cache warm-up manifest as their caches are resolved.
  */
 @Configuration
-@EnableCaching
-public class CacheConfig {
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig implements CachingConfigurer {
+
+    public static final String USER_PROGRESS_REGION = "userProgressRegion";
+
+    private static final int REFRESH_THREADS = 2;
+    private static final int REFRESH_QUEUE_CAPACITY = 256;
+    private static final int USER_PROGRESS_TTL_MINUTES = 5;
+
+    // Background refreshes; when full, stale entries are simply served until a later read
+    private final ThreadPoolExecutor refreshExecutor = new ThreadPoolExecutor(
+        REFRESH_THREADS, REFRESH_THREADS, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(REFRESH_QUEUE_CAPACITY), r -> {
+            Thread t = new Thread(r, "cache-refresh");
+            t.setDaemon(true);
+            return t;
+        });
+
+    private final RedisCacheStore redisCacheStore;
+    private final CacheInvalidationBus invalidationBus;
+    private final CacheAccessLog accessLog;
+    private final Environment environment;
+    private final boolean l2Enabled;
+    private final String l2KeyPrefix;
+
+    public CacheConfig(RedisCacheStore redisCacheStore,
+                       CacheInvalidationBus invalidationBus,
+                       CacheAccessLog accessLog,
+                       Environment environment,
+                       @Value("${app.cache.l2.enabled:true}") boolean l2Enabled,
+                       @Value("${app.cache.l2.key-prefix:portal:cache:}") String l2KeyPrefix) {
+        this.redisCacheStore = redisCacheStore;
+        this.invalidationBus = invalidationBus;
+        this.accessLog = accessLog;
+        this.environment = environment;
+        this.l2Enabled = l2Enabled;
+        this.l2KeyPrefix = l2KeyPrefix;
+    }
 
     /**
      * Configure multiple caches with different strategies
      */
     @Bean
+    @Override
     public CacheManager cacheManager() {
         SimpleCacheManager cacheManager = new SimpleCacheManager();
         
         cacheManager.setCaches(Arrays.asList(
-            // Learning modules cache - long TTL, high capacity
-            buildCache("learningModules", 2000, 30, 15),
+            // Learning modules cache - long TTL, high capacity, refreshed ahead of expiry
+            buildCache("learningModules", DataSize.ofMegabytes(64), 30, 15, 20),
             
             // Learning statistics cache - medium TTL, medium capacity  
-            buildCache("learningStats", 500, 10, 5),
+            buildCache("learningStats", DataSize.ofMegabytes(4), 10, 5, 0),
             
             // User progress cache - short TTL, high capacity
-            buildCache("userProgress", 1000, 5, 2),
+            buildCache("userProgress", DataSize.ofMegabytes(16), USER_PROGRESS_TTL_MINUTES, 2, 0),
             
-            // Interview questions cache - long TTL, very high capacity
-            buildCache("interviewQuestions", 5000, 60, 30),
+            // Interview questions cache - long TTL, very high capacity, refreshed ahead of expiry
+            buildCache("interviewQuestions", DataSize.ofMegabytes(32), 60, 30, 45),
             
-            // Topic content cache - medium TTL, high capacity
-            buildCache("topicContent", 3000, 20, 10),
+            // Topic content cache - medium TTL, high capacity, refreshed ahead of expiry
+            buildCache("topicContent", DataSize.ofMegabytes(64), 20, 10, 15),
             
             // User notes cache - short TTL, medium capacity
-            buildCache("userNotes", 800, 8, 4),
+            buildCache("userNotes", DataSize.ofMegabytes(16), 8, 4, 0),
             
             // Search results cache - very short TTL, medium capacity
-            buildCache("searchResults", 200, 2, 1),
+            buildLocalCache(SearchResultCache.CACHE_NAME, DataSize.ofMegabytes(8), 2, 1, 0),
             
             // Database query results cache - short TTL, high capacity
-            buildCache("queryResults", 1500, 5, 2)
+            buildCache("queryResults", DataSize.ofMegabytes(16), 5, 2, 0)
         ));
         
         return cacheManager;
     }
 
     /**
-     * Build a Caffeine cache with specific configuration
+     * Resolve caches by name as usual, sampling each read on the way
+     */
+    @Bean
+    @Override
+    public CacheResolver cacheResolver() {
+        SimpleCacheResolver resolver = new SimpleCacheResolver(cacheManager());
+        return context -> {
+            accessLog.record(context);
+            return resolver.resolveCaches(context);
+        };
+    }
+
+    /**
+     * Per-user region of the user progress cache, keyed by user ID; its
+     * generations are kept as long as the cache's entries live
+     */
+    @Bean(USER_PROGRESS_REGION)
+    public CacheRegion userProgressRegion(MethodKeyGenerator methodKeyGenerator) {
+        return new CacheRegion("userProgress", Long::valueOf, methodKeyGenerator,
+            l2Enabled ? redisCacheStore : null, invalidationBus, l2KeyPrefix, Duration.ofMinutes(USER_PROGRESS_TTL_MINUTES));
+    }
+
+    /**
+     * Listen for evictions broadcast by the other nodes; without the Redis
+     * second level there is nothing to listen for
      */
-    private CaffeineCache buildCache(String name, int maxSize, int expireAfterWriteMinutes, int expireAfterAccessMinutes) {
-        Cache<Object, Object> cache = Caffeine.newBuilder()
-            .maximumSize(maxSize)
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.l2.enabled", havingValue = "true", matchIfMissing = true)
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(invalidationBus, new ChannelTopic(invalidationBus.getChannel()));
+        return container;
+    }
+
+    /**
+     * Build a two-level cache with specific configuration; Redis entries
+     * expire with the same write TTL as local ones. A refresh interval of
+     * zero disables refresh-ahead.
+     */
+    private CaffeineCache buildCache(String name, DataSize maxBytes, int expireAfterWriteMinutes,
+                                     int expireAfterAccessMinutes, int refreshAfterWriteMinutes) {
+        if (!l2Enabled) {
+            return buildLocalCache(name, maxBytes, expireAfterWriteMinutes, expireAfterAccessMinutes,
+                refreshAfterWriteMinutes);
+        }
+        return new TwoLevelCache(name, caffeine(name, maxBytes, expireAfterWriteMinutes, expireAfterAccessMinutes),
+            Duration.ofMinutes(refreshAfterWriteMinutes), refreshExecutor,
+            l2KeyPrefix, Duration.ofMinutes(expireAfterWriteMinutes), redisCacheStore, invalidationBus);
+    }
+
+    /**
+     * Build a Caffeine cache that is never shared with other nodes
+     */
+    private CaffeineCache buildLocalCache(String name, DataSize maxBytes, int expireAfterWriteMinutes,
+                                          int expireAfterAccessMinutes, int refreshAfterWriteMinutes) {
+        return new RefreshingCache(name, caffeine(name, maxBytes, expireAfterWriteMinutes, expireAfterAccessMinutes).build(),
+            Duration.ofMinutes(refreshAfterWriteMinutes), refreshExecutor);
+    }
+
+    /**
+     * Configure the local cache, bounded by the byte budget configured for
+     * it or the given default
+     */
+    private Caffeine<Object, Object> caffeine(String name, DataSize defaultMaxBytes, int expireAfterWriteMinutes,
+                                              int expireAfterAccessMinutes) {
+        DataSize maxBytes = environment.getProperty("app.cache.max-bytes." + name, DataSize.class, defaultMaxBytes);
+        return Caffeine.newBuilder()
+            .maximumWeight(maxBytes.toBytes())
+            .weigher(ObjectSizeEstimator::weigh)
             .expireAfterWrite(expireAfterWriteMinutes, TimeUnit.MINUTES)
             .expireAfterAccess(expireAfterAccessMinutes, TimeUnit.MINUTES)
-            .recordStats()  // Enable statistics for monitoring
-            .build();
-        
-        return new CaffeineCache(name, cache);
+            .recordStats();  // Enable statistics for monitoring
     }
 
     /**
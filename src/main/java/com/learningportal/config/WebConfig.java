@@ -1,5 +1,6 @@
 package com.learningportal.config;
 
+import com.learningportal.interceptor.ConditionalRequestInterceptor;
 import com.learningportal.interceptor.PerformanceMonitoringInterceptor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
@@ -14,9 +15,12 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 public class WebConfig implements WebMvcConfigurer {
 
     private final PerformanceMonitoringInterceptor performanceMonitoringInterceptor;
+    private final ConditionalRequestInterceptor conditionalRequestInterceptor;
 
-    public WebConfig(PerformanceMonitoringInterceptor performanceMonitoringInterceptor) {
+    public WebConfig(PerformanceMonitoringInterceptor performanceMonitoringInterceptor,
+                     ConditionalRequestInterceptor conditionalRequestInterceptor) {
         this.performanceMonitoringInterceptor = performanceMonitoringInterceptor;
+        this.conditionalRequestInterceptor = conditionalRequestInterceptor;
     }
 
     @Override
@@ -24,5 +28,8 @@ public class WebConfig implements WebMvcConfigurer {
         registry.addInterceptor(performanceMonitoringInterceptor)
                 .addPathPatterns("/api/**", "/modules/**")
                 .excludePathPatterns("/actuator/**", "/swagger-ui/**", "/v3/api-docs/**");
+
+        // Applies only to handlers annotated with @ConditionalContent
+        registry.addInterceptor(conditionalRequestInterceptor);
     }
 }
\ No newline at end of file
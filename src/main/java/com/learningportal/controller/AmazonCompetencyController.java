@@ -1,5 +1,6 @@
 package com.learningportal.controller;
 
+import com.learningportal.annotation.RateLimited;
 import com.learningportal.model.AmazonCompetencyProgression;
 import com.learningportal.service.AmazonCompetencyService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -188,6 +189,7 @@ public class AmazonCompetencyController {
         @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully")
     })
     @GetMapping("/system-statistics")
+    @RateLimited(bucket = "system-statistics", limit = 60)
     public ResponseEntity<Map<String, Object>> getSystemCompetencyStatistics() {
         Map<String, Object> stats = amazonCompetencyService.getSystemCompetencyStatistics();
         return ResponseEntity.ok(stats);
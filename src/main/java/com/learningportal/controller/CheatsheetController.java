@@ -1,5 +1,6 @@
 package com.learningportal.controller;
 
+import com.learningportal.annotation.ConditionalContent;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -17,6 +18,7 @@ import java.util.*;
 @RestController
 @RequestMapping("/cheatsheets")
 @Tag(name = "Cheatsheets & Summaries", description = "Quick reference guides and topic summaries")
+@ConditionalContent(value = ConditionalContent.Source.STATIC, maxAge = 3600)
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class CheatsheetController {
     
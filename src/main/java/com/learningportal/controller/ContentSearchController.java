@@ -1,24 +1,40 @@
 package com.learningportal.controller;
 
+import com.learningportal.annotation.RateLimited;
 import com.learningportal.model.LearningModule;
 import com.learningportal.model.Topic;
 import com.learningportal.model.InterviewQuestion;
 import com.learningportal.repository.LearningModuleRepository;
 import com.learningportal.repository.TopicRepository;
 import com.learningportal.repository.InterviewQuestionRepository;
+import com.learningportal.search.ContentSearchIndex;
+import com.learningportal.search.ContentSearchService;
+import com.learningportal.search.DocumentType;
+import com.learningportal.search.Facet;
+import com.learningportal.search.FacetedHits;
+import com.learningportal.search.SearchBackend;
+import com.learningportal.search.SearchHit;
+import com.learningportal.search.SearchMode;
+import com.learningportal.search.SearchResults;
+import com.learningportal.search.SourceStatus;
+import com.learningportal.search.TagMatch;
+import com.learningportal.search.TagPage;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import org.springframework.data.domain.Pageable;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.*;
 import java.util.stream.Collectors;
 
 @RestController
+@Validated
 @RequestMapping("/search")
 @Tag(name = "Content Search", description = "Global search and content discovery APIs")
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -27,55 +43,133 @@ public class ContentSearchController {
     private final LearningModuleRepository moduleRepository;
     private final TopicRepository topicRepository;
     private final InterviewQuestionRepository questionRepository;
+    private final ContentSearchIndex searchIndex;
+    private final ContentSearchService searchService;
 
     public ContentSearchController(
             LearningModuleRepository moduleRepository,
             TopicRepository topicRepository,
-            InterviewQuestionRepository questionRepository) {
+            InterviewQuestionRepository questionRepository,
+            ContentSearchIndex searchIndex,
+            ContentSearchService searchService) {
         this.moduleRepository = moduleRepository;
         this.topicRepository = topicRepository;
         this.questionRepository = questionRepository;
+        this.searchIndex = searchIndex;
+        this.searchService = searchService;
     }
 
     @Operation(
         summary = "Global content search",
-        description = "Search across all content types: modules, topics, and questions"
+        description = "Search across all content types: modules, topics, and questions, ranked by relevance. " +
+                      "Sources that miss their deadline are skipped and the response is marked partial"
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Search results retrieved successfully")
     })
     @GetMapping("/global")
+    @RateLimited(bucket = "search", limit = 600)
     public ResponseEntity<Map<String, Object>> globalSearch(
             @Parameter(description = "Search query", required = true)
             @RequestParam String q,
             
             @Parameter(description = "Maximum results per category", example = "10")
-            @RequestParam(defaultValue = "10") int limit) {
+            @RequestParam(defaultValue = "10")
+            @Min(value = 1, message = "Limit must be at least 1")
+            @Max(value = 100, message = "Limit cannot exceed 100")
+            int limit,
+            
+            @Parameter(description = "Match mode: EXACT, or FUZZY to tolerate typos")
+            @RequestParam(defaultValue = "EXACT") SearchMode mode,
+            
+            @Parameter(description = "Search backend: MEMORY or DATABASE (defaults to app.search.backend)")
+            @RequestParam(required = false) SearchBackend backend) {
         
         Map<String, Object> results = new HashMap<>();
         
-        // Search modules
-        List<LearningModule> modules = moduleRepository.searchModules(q, null)
-            .getContent().stream()
-            .limit(limit)
-            .collect(Collectors.toList());
+        // Ranked lookup against the configured backend - no table scans either way
+        SearchResults searchResults = searchService.search(q, limit, mode, backend);
         
-        // Search topics
-        List<Topic> topics = topicRepository.searchTopics(q).stream()
-            .limit(limit)
-            .collect(Collectors.toList());
+        Map<String, Object> sources = new LinkedHashMap<>();
+        for (Map.Entry<DocumentType, List<SearchHit>> entry : searchResults.hits().entrySet()) {
+            results.put(entry.getKey().getResultKey(), entry.getValue());
+            SourceStatus status = searchResults.sources().get(entry.getKey());
+            sources.put(entry.getKey().getResultKey(), Map.of(
+                "status", status.state(),
+                "latencyMs", status.latencyMs()));
+        }
+        results.put("totalResults", searchResults.totalHits());
+        results.put("partial", searchResults.isPartial());
+        results.put("sources", sources);
+        results.put("mode", mode);
+        results.put("backend", backend != null ? backend : searchService.getDefaultBackend());
+        
+        return ResponseEntity.ok(results);
+    }
+
+    @Operation(
+        summary = "Faceted content search",
+        description = "Search all content types and return hits plus counts for category, difficulty level, " +
+                      "topic type and question difficulty in a single request"
+    )
+    @GetMapping("/faceted")
+    @RateLimited(bucket = "search", limit = 600, cost = 2)
+    public ResponseEntity<Map<String, Object>> facetedSearch(
+            @Parameter(description = "Search query", required = true)
+            @RequestParam String q,
+            
+            @Parameter(description = "Maximum results per category", example = "10")
+            @RequestParam(defaultValue = "10")
+            @Min(value = 1, message = "Limit must be at least 1")
+            @Max(value = 100, message = "Limit cannot exceed 100")
+            int limit,
+            
+            @Parameter(description = "Match mode: EXACT, or FUZZY to tolerate typos")
+            @RequestParam(defaultValue = "EXACT") SearchMode mode,
+            
+            @Parameter(description = "Module category filter")
+            @RequestParam(required = false) List<LearningModule.Category> category,
+            
+            @Parameter(description = "Module difficulty filter")
+            @RequestParam(required = false) List<LearningModule.DifficultyLevel> difficultyLevel,
+            
+            @Parameter(description = "Topic type filter")
+            @RequestParam(required = false) List<Topic.TopicType> topicType,
+            
+            @Parameter(description = "Interview question difficulty filter")
+            @RequestParam(required = false) List<InterviewQuestion.Difficulty> questionDifficulty) {
+        
+        Map<Facet, Set<String>> filters = new EnumMap<>(Facet.class);
+        putFilter(filters, Facet.CATEGORY, category);
+        putFilter(filters, Facet.DIFFICULTY_LEVEL, difficultyLevel);
+        putFilter(filters, Facet.TOPIC_TYPE, topicType);
+        putFilter(filters, Facet.QUESTION_DIFFICULTY, questionDifficulty);
         
-        // Search questions
-        List<InterviewQuestion> questions = questionRepository.searchQuestions(q, Pageable.ofSize(limit)).getContent();
+        // Hits and all facet counts come from the same scoring pass over the index
+        FacetedHits facetedHits = searchIndex.facetedSearch(q, limit, mode, filters);
         
-        results.put("modules", modules);
-        results.put("topics", topics);
-        results.put("questions", questions);
-        results.put("totalResults", modules.size() + topics.size() + questions.size());
+        Map<String, Object> results = new HashMap<>();
+        for (Map.Entry<DocumentType, List<SearchHit>> entry : facetedHits.hits().entrySet()) {
+            results.put(entry.getKey().getResultKey(), entry.getValue());
+        }
+        
+        Map<String, Object> facets = new LinkedHashMap<>();
+        for (Map.Entry<Facet, Map<String, Integer>> entry : facetedHits.facetCounts().entrySet()) {
+            facets.put(entry.getKey().getResultKey(), entry.getValue());
+        }
+        results.put("facets", facets);
+        results.put("totalMatches", facetedHits.totalMatches());
+        results.put("mode", mode);
         
         return ResponseEntity.ok(results);
     }
 
+    private static void putFilter(Map<Facet, Set<String>> filters, Facet facet, List<? extends Enum<?>> values) {
+        if (values != null && !values.isEmpty()) {
+            filters.put(facet, values.stream().map(Enum::name).collect(Collectors.toSet()));
+        }
+    }
+
     @Operation(
         summary = "Get trending content",
         description = "Get trending and popular content based on usage metrics"
@@ -83,7 +177,10 @@ public class ContentSearchController {
     @GetMapping("/trending")
     public ResponseEntity<Map<String, Object>> getTrendingContent(
             @Parameter(description = "Maximum results per category", example = "5")
-            @RequestParam(defaultValue = "5") int limit) {
+            @RequestParam(defaultValue = "5")
+            @Min(value = 1, message = "Limit must be at least 1")
+            @Max(value = 100, message = "Limit cannot exceed 100")
+            int limit) {
         
         Map<String, Object> trending = new HashMap<>();
         
@@ -147,49 +244,57 @@ public class ContentSearchController {
 
     @Operation(
         summary = "Get content by tags",
-        description = "Search content by tags and categories"
+        description = "Search content by tags and categories, ranked by the number of matching tags"
     )
     @GetMapping("/tags")
+    @RateLimited(bucket = "search", limit = 600, costPerValueOf = "tags")
     public ResponseEntity<Map<String, Object>> getContentByTags(
             @Parameter(description = "Comma-separated tags")
             @RequestParam String tags,
             
-            @Parameter(description = "Content type filter")
-            @RequestParam(required = false) String type) {
-        
-        Map<String, Object> results = new HashMap<>();
-        String[] tagArray = tags.split(",");
-        
-        // Simple tag-based search (can be enhanced with actual tagging system)
-        List<LearningModule> modules = new ArrayList<>();
-        List<Topic> topics = new ArrayList<>();
-        List<InterviewQuestion> questions = new ArrayList<>();
-        
-        for (String tag : tagArray) {
-            String trimmedTag = tag.trim();
+            @Parameter(description = "Content type filter: modules, topics or questions")
+            @RequestParam(required = false) String type,
             
-            if (type == null || "modules".equals(type)) {
-                modules.addAll(moduleRepository.searchModules(trimmedTag, null).getContent());
-            }
+            @Parameter(description = "Tag combination: ANY (at least one tag) or ALL (every tag)")
+            @RequestParam(defaultValue = "ANY") TagMatch match,
             
-            if (type == null || "topics".equals(type)) {
-                topics.addAll(topicRepository.searchTopics(trimmedTag));
-            }
+            @Parameter(description = "Page number (0-based)", example = "0")
+            @RequestParam(defaultValue = "0")
+            @Min(value = 0, message = "Page cannot be negative")
+            int page,
             
-            if (type == null || "questions".equals(type)) {
-                questions.addAll(questionRepository.searchQuestions(trimmedTag, Pageable.unpaged()).getContent());
+            @Parameter(description = "Page size per content type", example = "20")
+            @RequestParam(defaultValue = "20")
+            @Min(value = 1, message = "Size must be at least 1")
+            @Max(value = 100, message = "Size cannot exceed 100")
+            int size) {
+        
+        Map<String, Object> results = new HashMap<>();
+        List<String> tagList = Arrays.stream(tags.split(","))
+            .map(String::trim)
+            .filter(tag -> !tag.isEmpty())
+            .collect(Collectors.toList());
+        
+        Set<DocumentType> types = EnumSet.noneOf(DocumentType.class);
+        for (DocumentType documentType : DocumentType.values()) {
+            if (type == null || documentType.getResultKey().equals(type)) {
+                types.add(documentType);
             }
         }
         
-        // Remove duplicates
-        modules = modules.stream().distinct().collect(Collectors.toList());
-        topics = topics.stream().distinct().collect(Collectors.toList());
-        questions = questions.stream().distinct().collect(Collectors.toList());
+        // One bitset pass per content type, however many tags are given
+        Map<DocumentType, TagPage> pages = searchIndex.searchTags(tagList, match, types, page, size);
         
-        results.put("modules", modules);
-        results.put("topics", topics);
-        results.put("questions", questions);
-        results.put("searchTags", Arrays.asList(tagArray));
+        Map<String, Integer> totals = new HashMap<>();
+        for (Map.Entry<DocumentType, TagPage> entry : pages.entrySet()) {
+            results.put(entry.getKey().getResultKey(), entry.getValue().hits());
+            totals.put(entry.getKey().getResultKey(), entry.getValue().totalMatches());
+        }
+        results.put("totalMatches", totals);
+        results.put("searchTags", tagList);
+        results.put("match", match);
+        results.put("page", page);
+        results.put("size", size);
         
         return ResponseEntity.ok(results);
     }
@@ -204,25 +309,13 @@ public class ContentSearchController {
             @RequestParam String q,
             
             @Parameter(description = "Maximum suggestions", example = "10")
-            @RequestParam(defaultValue = "10") int limit) {
+            @RequestParam(defaultValue = "10")
+            @Min(value = 1, message = "Limit must be at least 1")
+            @Max(value = 100, message = "Limit cannot exceed 100")
+            int limit) {
         
-        Set<String> suggestions = new HashSet<>();
-        
-        // Get module names that match
-        moduleRepository.searchModules(q, null).getContent().stream()
-            .map(LearningModule::getName)
-            .forEach(suggestions::add);
-        
-        // Get topic names that match
-        topicRepository.searchTopics(q).stream()
-            .map(Topic::getName)
-            .forEach(suggestions::add);
-        
-        // Convert to list and limit
-        List<String> result = suggestions.stream()
-            .limit(limit)
-            .sorted()
-            .collect(Collectors.toList());
+        // Served from the in-memory suggestion trie, highest weight first
+        List<String> result = searchIndex.suggest(q, limit);
         
         return ResponseEntity.ok(result);
     }
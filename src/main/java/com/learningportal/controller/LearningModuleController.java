@@ -1,5 +1,7 @@
 package com.learningportal.controller;
 
+import com.learningportal.annotation.ConditionalContent;
+import com.learningportal.dto.LearningModuleDto;
 import com.learningportal.model.LearningModule;
 import com.learningportal.service.LearningModuleService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,7 +16,6 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -29,6 +30,7 @@ import java.util.Optional;
 @RestController
 @RequestMapping("/modules")
 @Tag(name = "Learning Modules", description = "API for managing learning modules")
+@ConditionalContent(ConditionalContent.Source.LEARNING_CONTENT)
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class LearningModuleController {
 
@@ -48,12 +50,11 @@ public class LearningModuleController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved modules",
                     content = @Content(mediaType = "application/json", 
-                                     schema = @Schema(implementation = LearningModule.class))),
+                                     schema = @Schema(implementation = LearningModuleDto.class))),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @GetMapping
-    @Cacheable(value = "learningModules", key = "#page + '_' + #size + '_' + (#search != null ? #search : 'all')")
-    public ResponseEntity<Page<LearningModule>> getAllModules(
+    public ResponseEntity<Page<LearningModuleDto>> getAllModules(
             @Parameter(description = "Page number (0-based)", example = "0")
             @RequestParam(defaultValue = "0") int page,
             
@@ -65,7 +66,7 @@ public class LearningModuleController {
         
         try {
             Pageable pageable = PageRequest.of(page, size);
-            Page<LearningModule> modules;
+            Page<LearningModuleDto> modules;
             
             if (search != null && !search.trim().isEmpty()) {
                 log.info("Searching modules with term: {}", search);
@@ -91,12 +92,12 @@ public class LearningModuleController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Module found",
                     content = @Content(mediaType = "application/json", 
-                                     schema = @Schema(implementation = LearningModule.class))),
+                                     schema = @Schema(implementation = LearningModuleDto.class))),
         @ApiResponse(responseCode = "404", description = "Module not found"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<LearningModule> getModuleById(
+    public ResponseEntity<LearningModuleDto> getModuleById(
             @Parameter(description = "Module ID", required = true, example = "1")
             @PathVariable Long id,
             
@@ -109,7 +110,7 @@ public class LearningModuleController {
         try {
             log.info("Fetching module with ID: {}", id);
             
-            LearningModule module;
+            LearningModuleDto module;
             
             if (includeTopics && includeQuestions) {
                 // For now, just get with topics (questions loading can be enhanced later)
@@ -122,7 +123,7 @@ public class LearningModuleController {
                 module = learningModuleService.getModuleById(id);
             }
             
-            log.info("Found module: {}", module.getName());
+            log.info("Found module: {}", module.name());
             return ResponseEntity.ok(module);
             
         } catch (EntityNotFoundException e) {
@@ -144,13 +145,13 @@ public class LearningModuleController {
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<LearningModule>> getModulesByCategory(
+    public ResponseEntity<List<LearningModuleDto>> getModulesByCategory(
             @Parameter(description = "Module category", required = true)
             @PathVariable LearningModule.Category category) {
         
         try {
             log.info("Fetching modules by category: {}", category);
-            List<LearningModule> modules = learningModuleService.getModulesByCategory(category);
+            List<LearningModuleDto> modules = learningModuleService.getModulesByCategory(category);
             log.info("Found {} modules for category: {}", modules.size(), category);
             return ResponseEntity.ok(modules);
             
@@ -170,13 +171,13 @@ public class LearningModuleController {
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @GetMapping("/difficulty/{difficulty}")
-    public ResponseEntity<List<LearningModule>> getModulesByDifficulty(
+    public ResponseEntity<List<LearningModuleDto>> getModulesByDifficulty(
             @Parameter(description = "Difficulty level", required = true)
             @PathVariable LearningModule.DifficultyLevel difficulty) {
         
         try {
             log.info("Fetching modules by difficulty: {}", difficulty);
-            List<LearningModule> modules = learningModuleService.getModulesByDifficulty(difficulty);
+            List<LearningModuleDto> modules = learningModuleService.getModulesByDifficulty(difficulty);
             log.info("Found {} modules for difficulty: {}", modules.size(), difficulty);
             return ResponseEntity.ok(modules);
             
@@ -217,14 +218,14 @@ public class LearningModuleController {
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @GetMapping("/popular")
-    public ResponseEntity<List<LearningModule>> getPopularModules(
+    public ResponseEntity<List<LearningModuleDto>> getPopularModules(
             @Parameter(description = "Maximum number of modules to return", example = "5")
             @RequestParam(defaultValue = "5") int limit) {
         
         try {
             log.info("Fetching top {} popular modules", limit);
             Pageable pageable = PageRequest.of(0, limit);
-            List<LearningModule> modules = learningModuleService.getPopularModules(pageable);
+            List<LearningModuleDto> modules = learningModuleService.getPopularModules(pageable);
             log.info("Found {} popular modules", modules.size());
             return ResponseEntity.ok(modules);
             
@@ -241,13 +242,13 @@ public class LearningModuleController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "Module created successfully",
                     content = @Content(mediaType = "application/json", 
-                                     schema = @Schema(implementation = LearningModule.class))),
+                                     schema = @Schema(implementation = LearningModuleDto.class))),
         @ApiResponse(responseCode = "400", description = "Invalid input data"),
         @ApiResponse(responseCode = "409", description = "Module with same name already exists"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @PostMapping
-    public ResponseEntity<LearningModule> createModule(
+    public ResponseEntity<LearningModuleDto> createModule(
             @Parameter(description = "Module data", required = true)
             @Valid @RequestBody LearningModule module) {
         
@@ -255,7 +256,7 @@ public class LearningModuleController {
             log.info("Creating new module: {}", module.getName());
             LearningModule savedModule = learningModuleService.createModule(module);
             log.info("Created module with ID: {}", savedModule.getId());
-            return ResponseEntity.status(HttpStatus.CREATED).body(savedModule);
+            return ResponseEntity.status(HttpStatus.CREATED).body(LearningModuleDto.from(savedModule));
             
         } catch (IllegalArgumentException e) {
             log.warn("Module creation failed: {}", e.getMessage());
@@ -273,13 +274,13 @@ public class LearningModuleController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Module updated successfully",
                     content = @Content(mediaType = "application/json", 
-                                     schema = @Schema(implementation = LearningModule.class))),
+                                     schema = @Schema(implementation = LearningModuleDto.class))),
         @ApiResponse(responseCode = "400", description = "Invalid input data"),
         @ApiResponse(responseCode = "404", description = "Module not found"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @PutMapping("/{id}")
-    public ResponseEntity<LearningModule> updateModule(
+    public ResponseEntity<LearningModuleDto> updateModule(
             @Parameter(description = "Module ID", required = true, example = "1")
             @PathVariable Long id,
             
@@ -290,7 +291,7 @@ public class LearningModuleController {
             log.info("Updating module with ID: {}", id);
             LearningModule savedModule = learningModuleService.updateModule(id, moduleUpdate);
             log.info("Updated module: {}", savedModule.getName());
-            return ResponseEntity.ok(savedModule);
+            return ResponseEntity.ok(LearningModuleDto.from(savedModule));
             
         } catch (EntityNotFoundException e) {
             log.warn("Module not found with ID: {}", id);
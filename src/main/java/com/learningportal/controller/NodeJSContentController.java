@@ -1,5 +1,6 @@
 package com.learningportal.controller;
 
+import com.learningportal.annotation.ConditionalContent;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,6 +18,7 @@ import java.util.*;
  */
 @RestController
 @RequestMapping("/nodejs")
+@ConditionalContent(value = ConditionalContent.Source.STATIC, maxAge = 3600)
 @CrossOrigin(origins = "*")
 public class NodeJSContentController {
     
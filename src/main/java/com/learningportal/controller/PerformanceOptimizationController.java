@@ -1,5 +1,6 @@
 package com.learningportal.controller;
 
+import com.learningportal.cache.CacheWarmupEngine;
 import com.learningportal.service.PerformanceOptimizationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -67,12 +68,12 @@ public class PerformanceOptimizationController {
 
     @Operation(
         summary = "Warm up caches",
-        description = "Pre-load frequently accessed data into caches"
+        description = "Pre-load the most frequently read cache entries recorded in the warm-up manifest"
     )
     @PostMapping("/cache/warmup")
-    public ResponseEntity<String> warmUpCaches() {
-        performanceOptimizationService.warmUpCaches();
-        return ResponseEntity.ok("Cache warm-up completed successfully");
+    public ResponseEntity<CacheWarmupEngine.WarmupReport> warmUpCaches() {
+        CacheWarmupEngine.WarmupReport report = performanceOptimizationService.warmUpCaches();
+        return ResponseEntity.ok(report);
     }
 
     @Operation(
@@ -1,5 +1,6 @@
 package com.learningportal.controller;
 
+import com.learningportal.annotation.RateLimited;
 import com.learningportal.model.SpacedRepetitionSchedule;
 import com.learningportal.service.SpacedRepetitionService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -244,6 +245,7 @@ public class SpacedRepetitionController {
         @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully")
     })
     @GetMapping("/system-statistics")
+    @RateLimited(bucket = "system-statistics", limit = 60)
     public ResponseEntity<Map<String, Object>> getSystemStatistics() {
         Map<String, Object> stats = spacedRepetitionService.getSystemStatistics();
         return ResponseEntity.ok(stats);
@@ -1,6 +1,8 @@
 package com.learningportal.controller;
 
 import com.learningportal.model.UserNote;
+import com.learningportal.search.NoteHit;
+import com.learningportal.search.SearchMode;
 import com.learningportal.service.UserNoteService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -152,30 +154,50 @@ public class UserNoteController {
 
     @Operation(
         summary = "Search user notes",
-        description = "Search through user's notes by title and content"
+        description = "Search through user's notes by title and content, returning ranked hits with highlighted snippets"
     )
     @GetMapping("/search/user/{userId}")
-    public ResponseEntity<List<UserNote>> searchUserNotes(
+    public ResponseEntity<Page<NoteHit>> searchUserNotes(
             @Parameter(description = "User ID", required = true, example = "1")
             @PathVariable Long userId,
             
             @Parameter(description = "Search query", required = true)
-            @RequestParam String q) {
+            @RequestParam String q,
+            
+            @Parameter(description = "Match mode: EXACT, or FUZZY to tolerate typos")
+            @RequestParam(defaultValue = "EXACT") SearchMode mode,
+            
+            @Parameter(description = "Page number", example = "0")
+            @RequestParam(defaultValue = "0") int page,
+            
+            @Parameter(description = "Page size", example = "10")
+            @RequestParam(defaultValue = "10") int size) {
         
-        List<UserNote> notes = noteService.searchUserNotes(userId, q);
+        Pageable pageable = PageRequest.of(page, size);
+        Page<NoteHit> notes = noteService.searchUserNotes(userId, q, mode, pageable);
         return ResponseEntity.ok(notes);
     }
 
     @Operation(
         summary = "Search public notes",
-        description = "Search through public notes by title and content"
+        description = "Search through public notes by title and content, returning ranked hits with highlighted snippets"
     )
     @GetMapping("/search/public")
-    public ResponseEntity<List<UserNote>> searchPublicNotes(
+    public ResponseEntity<Page<NoteHit>> searchPublicNotes(
             @Parameter(description = "Search query", required = true)
-            @RequestParam String q) {
+            @RequestParam String q,
+            
+            @Parameter(description = "Match mode: EXACT, or FUZZY to tolerate typos")
+            @RequestParam(defaultValue = "EXACT") SearchMode mode,
+            
+            @Parameter(description = "Page number", example = "0")
+            @RequestParam(defaultValue = "0") int page,
+            
+            @Parameter(description = "Page size", example = "10")
+            @RequestParam(defaultValue = "10") int size) {
         
-        List<UserNote> notes = noteService.searchPublicNotes(q);
+        Pageable pageable = PageRequest.of(page, size);
+        Page<NoteHit> notes = noteService.searchPublicNotes(q, mode, pageable);
         return ResponseEntity.ok(notes);
     }
 
@@ -1,6 +1,7 @@
 package com.learningportal.controller;
 
 import com.learningportal.dto.ApiErrorResponse;
+import com.learningportal.dto.UserProgressDto;
 import com.learningportal.model.UserProgress;
 import com.learningportal.service.UserProgressService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -76,17 +77,15 @@ public class UserProgressController {
                       "content": [
                         {
                           "id": 1,
+                          "userId": 1,
+                          "moduleId": 1,
                           "progressPercentage": 75,
                           "status": "IN_PROGRESS",
                           "timeSpentMinutes": 120,
                           "startedAt": "2024-01-15T10:30:00",
                           "lastAccessedAt": "2024-01-20T14:45:00",
                           "accessCount": 15,
-                          "userRating": 4,
-                          "module": {
-                            "id": 1,
-                            "name": "Java Fundamentals"
-                          }
+                          "userRating": 4
                         }
                       ],
                       "totalElements": 1,
@@ -108,7 +107,7 @@ public class UserProgressController {
         )
     })
     @GetMapping("/user/{userId}")
-    public ResponseEntity<Page<UserProgress>> getUserProgress(
+    public ResponseEntity<Page<UserProgressDto>> getUserProgress(
             @Parameter(
                 description = "User ID to get progress for",
                 required = true,
@@ -125,7 +124,7 @@ public class UserProgressController {
         try {
             log.info("Fetching progress for user: {} (page: {}, size: {})", userId, page, size);
             Pageable pageable = PageRequest.of(page, size);
-            Page<UserProgress> progress = progressService.getUserProgress(userId, pageable);
+            Page<UserProgressDto> progress = progressService.getUserProgress(userId, pageable);
             log.info("Found {} progress records for user: {}", progress.getTotalElements(), userId);
             return ResponseEntity.ok(progress);
             
@@ -0,0 +1,11 @@
+package com.learningportal.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Aggregate state of one content table: its row count, the sum of its IDs
+ * (so a delete followed by an insert still changes the stamp) and its most
+ * recent creation or update time
+ */
+public record ContentStamp(Long rows, Long idSum, LocalDateTime lastModified) {
+}
@@ -0,0 +1,30 @@
+package com.learningportal.dto;
+
+import com.learningportal.model.InterviewQuestion;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable interview question projection, safe to cache and serialize
+ * outside a session
+ */
+public record InterviewQuestionDto(
+        Long id,
+        Long moduleId,
+        String question,
+        String answer,
+        InterviewQuestion.Difficulty difficulty,
+        String company,
+        String topic,
+        String tags,
+        Integer frequencyScore,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) implements Serializable {
+
+    public static InterviewQuestionDto from(InterviewQuestion question, Long moduleId) {
+        return new InterviewQuestionDto(question.getId(), moduleId, question.getQuestion(), question.getAnswer(),
+            question.getDifficulty(), question.getCompany(), question.getTopic(), question.getTags(),
+            question.getFrequencyScore(), question.getCreatedAt(), question.getUpdatedAt());
+    }
+}
@@ -0,0 +1,70 @@
+package com.learningportal.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.learningportal.model.LearningModule;
+import org.hibernate.Hibernate;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Immutable learning module projection, built once while the entity is
+ * still attached and then cached and serialized as is.
+ * 
+ * Topics and interview questions are only present when they were fetched
+ * with the module; counts are only present when the collection was loaded,
+ * so building a projection never triggers a query.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record LearningModuleDto(
+        Long id,
+        String name,
+        String description,
+        LearningModule.Category category,
+        LearningModule.DifficultyLevel difficultyLevel,
+        Integer estimatedHours,
+        Integer sortOrder,
+        Integer topicCount,
+        Integer questionCount,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        List<TopicDto> topics,
+        List<InterviewQuestionDto> interviewQuestions) implements Serializable {
+
+    /**
+     * Project a module without its topics or questions
+     */
+    public static LearningModuleDto from(LearningModule module) {
+        return of(module, null, null);
+    }
+
+    /**
+     * Project a module together with its fetched topics
+     */
+    public static LearningModuleDto withTopics(LearningModule module) {
+        List<TopicDto> topics = module.getTopics().stream()
+            .map(topic -> TopicDto.from(topic, module.getId()))
+            .toList();
+        return of(module, topics, null);
+    }
+
+    /**
+     * Project a module together with its fetched interview questions
+     */
+    public static LearningModuleDto withQuestions(LearningModule module) {
+        List<InterviewQuestionDto> questions = module.getInterviewQuestions().stream()
+            .map(question -> InterviewQuestionDto.from(question, module.getId()))
+            .toList();
+        return of(module, null, questions);
+    }
+
+    private static LearningModuleDto of(LearningModule module, List<TopicDto> topics,
+                                        List<InterviewQuestionDto> questions) {
+        return new LearningModuleDto(module.getId(), module.getName(), module.getDescription(),
+            module.getCategory(), module.getDifficultyLevel(), module.getEstimatedHours(), module.getSortOrder(),
+            Hibernate.isInitialized(module.getTopics()) ? module.getTopicCount() : null,
+            Hibernate.isInitialized(module.getInterviewQuestions()) ? module.getQuestionCount() : null,
+            module.getCreatedAt(), module.getUpdatedAt(), topics, questions);
+    }
+}
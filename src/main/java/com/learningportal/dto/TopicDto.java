@@ -0,0 +1,28 @@
+package com.learningportal.dto;
+
+import com.learningportal.model.Topic;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable topic projection, safe to cache and serialize outside a session
+ */
+public record TopicDto(
+        Long id,
+        Long moduleId,
+        String title,
+        String description,
+        String content,
+        Integer estimatedMinutes,
+        Integer sortOrder,
+        Topic.TopicType topicType,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) implements Serializable {
+
+    public static TopicDto from(Topic topic, Long moduleId) {
+        return new TopicDto(topic.getId(), moduleId, topic.getTitle(), topic.getDescription(), topic.getContent(),
+            topic.getEstimatedMinutes(), topic.getSortOrder(), topic.getTopicType(), topic.getCreatedAt(),
+            topic.getUpdatedAt());
+    }
+}
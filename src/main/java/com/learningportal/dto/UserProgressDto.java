@@ -0,0 +1,40 @@
+package com.learningportal.dto;
+
+import com.learningportal.model.UserProgress;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable user progress projection, safe to cache and serialize outside a
+ * session. The user, module and topic are referenced by ID only; reading
+ * the ID of a lazy reference does not load it.
+ */
+public record UserProgressDto(
+        Long id,
+        Long userId,
+        Long moduleId,
+        Long topicId,
+        Integer progressPercentage,
+        UserProgress.ProgressStatus status,
+        Integer timeSpentMinutes,
+        LocalDateTime startedAt,
+        LocalDateTime completedAt,
+        LocalDateTime lastAccessedAt,
+        Integer accessCount,
+        Integer userRating,
+        String notes,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) implements Serializable {
+
+    public static UserProgressDto from(UserProgress progress) {
+        return new UserProgressDto(progress.getId(),
+            progress.getUser() != null ? progress.getUser().getId() : null,
+            progress.getModule() != null ? progress.getModule().getId() : null,
+            progress.getTopic() != null ? progress.getTopic().getId() : null,
+            progress.getProgressPercentage(), progress.getStatus(), progress.getTimeSpentMinutes(),
+            progress.getStartedAt(), progress.getCompletedAt(), progress.getLastAccessedAt(),
+            progress.getAccessCount(), progress.getUserRating(), progress.getNotes(),
+            progress.getCreatedAt(), progress.getUpdatedAt());
+    }
+}
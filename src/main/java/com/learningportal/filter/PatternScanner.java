@@ -0,0 +1,196 @@
+package com.learningportal.filter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+
+/**
+ * Pattern Scanner
+ *
+ * A set of literal patterns, each tagged with a category bit, compiled once
+ * into an Aho-Corasick automaton so an input is checked against every
+ * pattern in a single pass, without lower-casing or otherwise allocating.
+ *
+ * The automaton is a dense transition table with failure transitions
+ * folded in. Its columns are character classes rather than characters:
+ * each character occurring in a pattern has a class, its upper-case form
+ * sharing it, and every other character falls in one class that leads
+ * back to the start. The table stays small enough for the L1 cache, and
+ * each character costs a class lookup and one table read, whose sign tells
+ * whether a pattern ends there.
+ *
+ * Patterns are ASCII; any other character ends every partial match.
+ */
+public final class PatternScanner {
+
+    private static final int ALPHABET = 128;
+
+    // Class of each ASCII character; class 0 leads back to the start
+    private final byte[] classes;
+    private final int width;
+    // table[row + class]: row of the next state (state * width), sign bit set where a pattern ends
+    private final int[] table;
+    // Categories of every pattern ending at a state, its suffixes' included
+    private final int[] outputs;
+    private final int allCategories;
+
+    private PatternScanner(byte[] classes, int width, int[] table, int[] outputs, int allCategories) {
+        this.classes = classes;
+        this.width = width;
+        this.table = table;
+        this.outputs = outputs;
+        this.allCategories = allCategories;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * The categories of the patterns found in an input, as a bit mask;
+     * zero when none is found or the input is null
+     */
+    public int scan(CharSequence input) {
+        return scan(input, allCategories);
+    }
+
+    /**
+     * The categories among those wanted of the patterns found in an input,
+     * stopping as soon as all of them have been found
+     */
+    public int scan(CharSequence input, int wanted) {
+        if (input == null) {
+            return 0;
+        }
+        int found = 0;
+        int row = 0;
+        for (int i = 0, length = input.length(); i < length; i++) {
+            char c = input.charAt(i);
+            int next = table[row + (c < ALPHABET ? classes[c] : 0)];
+            if (next < 0) {
+                next &= Integer.MAX_VALUE;
+                found |= outputs[next / width] & wanted;
+                if (found == wanted) {
+                    break;
+                }
+            }
+            row = next;
+        }
+        return found;
+    }
+
+    public static final class Builder {
+
+        private final List<String> patterns = new ArrayList<>();
+        private final List<Integer> categories = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Add patterns of a category, matched case-insensitively
+         *
+         * @param category a single bit identifying the category in scan results
+         */
+        public Builder add(int category, String... patterns) {
+            if (Integer.bitCount(category) != 1) {
+                throw new IllegalArgumentException("Category must be a single bit: " + category);
+            }
+            for (String pattern : patterns) {
+                if (pattern.isEmpty() || !pattern.chars().allMatch(c -> c < ALPHABET)) {
+                    throw new IllegalArgumentException("Pattern must be non-empty ASCII: " + pattern);
+                }
+                this.patterns.add(pattern.toLowerCase(Locale.ROOT));
+                this.categories.add(category);
+            }
+            return this;
+        }
+
+        public PatternScanner build() {
+            // Trie of the patterns; -1 marks a missing edge
+            int maxStates = 1 + patterns.stream().mapToInt(String::length).sum();
+            int[] transitions = new int[maxStates * ALPHABET];
+            Arrays.fill(transitions, -1);
+            int[] outputs = new int[maxStates];
+            int states = 1;
+            int allCategories = 0;
+            for (int p = 0; p < patterns.size(); p++) {
+                String pattern = patterns.get(p);
+                int state = 0;
+                for (int i = 0; i < pattern.length(); i++) {
+                    int edge = state * ALPHABET + pattern.charAt(i);
+                    if (transitions[edge] < 0) {
+                        transitions[edge] = states++;
+                    }
+                    state = transitions[edge];
+                }
+                outputs[state] |= categories.get(p);
+                allCategories |= categories.get(p);
+            }
+
+            // Breadth first, complete every state's row with its failure state's
+            int[] failure = new int[states];
+            Queue<Integer> queue = new ArrayDeque<>();
+            for (int c = 0; c < ALPHABET; c++) {
+                int next = transitions[c];
+                if (next < 0) {
+                    transitions[c] = 0;
+                } else {
+                    failure[next] = 0;
+                    queue.add(next);
+                }
+            }
+            while (!queue.isEmpty()) {
+                int state = queue.remove();
+                outputs[state] |= outputs[failure[state]];
+                for (int c = 0; c < ALPHABET; c++) {
+                    int edge = state * ALPHABET + c;
+                    int next = transitions[edge];
+                    int fallback = transitions[failure[state] * ALPHABET + c];
+                    if (next < 0) {
+                        transitions[edge] = fallback;
+                    } else {
+                        failure[next] = fallback;
+                        queue.add(next);
+                    }
+                }
+            }
+
+            // Compress the columns to character classes
+            byte[] classes = new byte[ALPHABET];
+            char[] representatives = new char[ALPHABET];
+            int width = 1;
+            for (String pattern : patterns) {
+                for (int i = 0; i < pattern.length(); i++) {
+                    char c = pattern.charAt(i);
+                    if (classes[c] == 0) {
+                        representatives[width] = c;
+                        classes[c] = (byte) width++;
+                    }
+                }
+            }
+            for (char c = 'A'; c <= 'Z'; c++) {
+                classes[c] = classes[Character.toLowerCase(c)];
+            }
+            // Any character outside the patterns stands for all of them
+            for (char c = 0; c < ALPHABET; c++) {
+                if (classes[c] == 0) {
+                    representatives[0] = c;
+                    break;
+                }
+            }
+
+            int[] table = new int[states * width];
+            for (int state = 0; state < states; state++) {
+                for (int cls = 0; cls < width; cls++) {
+                    int next = transitions[state * ALPHABET + representatives[cls]];
+                    table[state * width + cls] = next * width | (outputs[next] != 0 ? Integer.MIN_VALUE : 0);
+                }
+            }
+            return new PatternScanner(classes, width, table, Arrays.copyOf(outputs, states), allCategories);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.learningportal.filter;
+
+import com.learningportal.annotation.RateLimited;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rate Limit Policies
+ *
+ * Route-to-policy table of the endpoints marked {@link RateLimited},
+ * resolved once at startup from the request mappings so the rate limiting
+ * filter - which runs before a handler is chosen - can price a request by
+ * matching its path against the annotated routes alone. Routes are tried
+ * most specific first, as Spring MVC would; anything else gets the default
+ * policy of one request from the client's general allowance.
+ */
+@Component
+public class RateLimitPolicies implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitPolicies.class);
+
+    /**
+     * How requests to a route are charged
+     *
+     * @param bucket name of the route's own allowance, or empty for the general one
+     * @param limit requests per hour of the bucket for the default tier
+     */
+    public record Policy(int cost, String costPerValueOf, String bucket, int limit) {
+
+        static final Policy DEFAULT = new Policy(1, "", "", 0);
+
+        static Policy of(RateLimited annotation) {
+            return new Policy(annotation.cost(), annotation.costPerValueOf(), annotation.bucket(), annotation.limit());
+        }
+
+        public boolean hasOwnBucket() {
+            return !bucket.isEmpty();
+        }
+
+        /**
+         * The cost of one request, counting the values of the parameter
+         * the cost scales with
+         */
+        public int cost(HttpServletRequest request) {
+            if (costPerValueOf.isEmpty()) {
+                return cost;
+            }
+            String[] values = request.getParameterValues(costPerValueOf);
+            if (values == null) {
+                return cost;
+            }
+            int count = 0;
+            for (String value : values) {
+                for (String part : value.split(",")) {
+                    if (!part.isBlank()) {
+                        count++;
+                    }
+                }
+            }
+            return cost * Math.max(1, count);
+        }
+    }
+
+    private record Route(PathPattern pattern, Set<RequestMethod> methods, Policy policy) {
+
+        boolean matches(PathContainer path, RequestMethod method) {
+            return (methods.isEmpty() || methods.contains(method)) && pattern.matches(path);
+        }
+    }
+
+    // Looked up once built: filters are created before the handler mappings
+    private final ObjectProvider<RequestMappingHandlerMapping> handlerMappings;
+
+    private volatile List<Route> routes = List.of();
+
+    public RateLimitPolicies(ObjectProvider<RequestMappingHandlerMapping> handlerMappings) {
+        this.handlerMappings = handlerMappings;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<Route> resolved = new ArrayList<>();
+        Map<String, Integer> bucketLimits = new HashMap<>();
+        handlerMappings.orderedStream().forEach(mapping -> {
+            for (Map.Entry<RequestMappingInfo, HandlerMethod> entry : mapping.getHandlerMethods().entrySet()) {
+                RateLimited annotation = findAnnotation(entry.getValue());
+                if (annotation == null) {
+                    continue;
+                }
+                Policy policy = validate(Policy.of(annotation), entry.getValue(), bucketLimits);
+                Set<RequestMethod> methods = entry.getKey().getMethodsCondition().getMethods();
+                for (String pattern : entry.getKey().getPatternValues()) {
+                    resolved.add(new Route(PathPatternParser.defaultInstance.parse(pattern), methods, policy));
+                }
+            }
+        });
+        resolved.sort(Comparator.comparing(Route::pattern, PathPattern.SPECIFICITY_COMPARATOR));
+        routes = List.copyOf(resolved);
+        log.info("Resolved {} rate limited routes in {} buckets", routes.size(), bucketLimits.size());
+    }
+
+    /**
+     * The policy of the route a request is for
+     */
+    public Policy resolve(HttpServletRequest request) {
+        List<Route> candidates = routes;
+        if (candidates.isEmpty()) {
+            return Policy.DEFAULT;
+        }
+        RequestMethod method = RequestMethod.resolve(request.getMethod());
+        PathContainer path = PathContainer.parsePath(
+            request.getRequestURI().substring(request.getContextPath().length()));
+        for (Route route : candidates) {
+            if (route.matches(path, method)) {
+                return route.policy();
+            }
+        }
+        return Policy.DEFAULT;
+    }
+
+    private static RateLimited findAnnotation(HandlerMethod handlerMethod) {
+        RateLimited annotation = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(),
+            RateLimited.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), RateLimited.class);
+        }
+        return annotation;
+    }
+
+    private static Policy validate(Policy policy, HandlerMethod handlerMethod, Map<String, Integer> bucketLimits) {
+        String handler = handlerMethod.getShortLogMessage();
+        if (policy.cost() < 1) {
+            throw new IllegalStateException("Rate limit cost of " + handler + " must be positive");
+        }
+        if (!policy.hasOwnBucket()) {
+            return policy;
+        }
+        if (policy.limit() < policy.cost()) {
+            throw new IllegalStateException("Rate limit bucket '" + policy.bucket() + "' of " + handler
+                + " needs a limit of at least its cost");
+        }
+        Integer limit = bucketLimits.putIfAbsent(policy.bucket(), policy.limit());
+        if (limit != null && limit != policy.limit()) {
+            throw new IllegalStateException("Rate limit bucket '" + policy.bucket() + "' is declared with limits "
+                + limit + " and " + policy.limit());
+        }
+        return policy;
+    }
+}
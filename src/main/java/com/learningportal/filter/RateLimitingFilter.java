@@ -12,20 +12,26 @@ import java.time.Duration;
 
 /**
  * Filter for implementing rate limiting on API requests
+ *
+ * Each request is charged by the {@link RateLimitPolicies policy} of its
+ * route: one request of the client's general allowance unless the route
+ * declares a cost or an allowance of its own.
  */
 @Component
 @Order(1)
 public class RateLimitingFilter implements Filter {
 
     private final RateLimitingService rateLimitingService;
+    private final RateLimitPolicies rateLimitPolicies;
 
     // Rate limit configurations
     private static final int DEFAULT_MAX_REQUESTS = 1000;
     private static final int PREMIUM_MAX_REQUESTS = 5000;
     private static final Duration WINDOW_DURATION = Duration.ofHours(1);
 
-    public RateLimitingFilter(RateLimitingService rateLimitingService) {
+    public RateLimitingFilter(RateLimitingService rateLimitingService, RateLimitPolicies rateLimitPolicies) {
         this.rateLimitingService = rateLimitingService;
+        this.rateLimitPolicies = rateLimitPolicies;
     }
 
     @Override
@@ -45,13 +51,27 @@ public class RateLimitingFilter implements Filter {
         // Get client identifier (IP address or user ID)
         String clientId = getClientIdentifier(httpRequest);
         
-        // Determine rate limit based on user tier
+        // Determine the route's cost and allowance, scaled by user tier
+        RateLimitPolicies.Policy policy = rateLimitPolicies.resolve(httpRequest);
         int maxRequests = getUserTierLimit(httpRequest);
+        if (policy.hasOwnBucket()) {
+            clientId = clientId + ":" + policy.bucket();
+            maxRequests = policy.limit() * (maxRequests / DEFAULT_MAX_REQUESTS);
+        }
         
-        // Check rate limit
-        if (!rateLimitingService.isAllowed(clientId, maxRequests, WINDOW_DURATION)) {
+        // Check rate limit and read the allowance left in one call
+        RateLimitingService.Decision decision = rateLimitingService.tryAcquire(clientId, policy.cost(httpRequest),
+            maxRequests, WINDOW_DURATION);
+
+        // Add rate limit headers
+        httpResponse.setHeader("X-RateLimit-Limit", String.valueOf(decision.limit()));
+        httpResponse.setHeader("X-RateLimit-Remaining", String.valueOf(decision.remaining()));
+        httpResponse.setHeader("X-RateLimit-Reset", String.valueOf(decision.resetAt()));
+
+        if (!decision.allowed()) {
             // Rate limit exceeded
             httpResponse.setStatus(429); // Too Many Requests
+            httpResponse.setHeader("Retry-After", String.valueOf((decision.retryAfterMs() + 999) / 1000));
             httpResponse.setContentType("application/json");
             httpResponse.getWriter().write(
                 "{\"error\":\"Rate limit exceeded\",\"message\":\"Too many requests. Please try again later.\"}"
@@ -59,14 +79,6 @@ public class RateLimitingFilter implements Filter {
             return;
         }
 
-        // Add rate limit headers
-        int remaining = rateLimitingService.getRemainingRequests(clientId, maxRequests);
-        long resetTime = rateLimitingService.getResetTime(clientId);
-        
-        httpResponse.setHeader("X-RateLimit-Limit", String.valueOf(maxRequests));
-        httpResponse.setHeader("X-RateLimit-Remaining", String.valueOf(remaining));
-        httpResponse.setHeader("X-RateLimit-Reset", String.valueOf(resetTime));
-
         chain.doFilter(request, response);
     }
 
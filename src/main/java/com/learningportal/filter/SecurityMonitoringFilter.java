@@ -11,11 +11,27 @@ import java.io.IOException;
 
 /**
  * Filter for monitoring security events and API usage
+ *
+ * Suspicious patterns are found by one {@link PatternScanner} holding every
+ * pattern, compiled once, that scans each of the URI, query string and
+ * user agent in a single pass.
  */
 @Component
 @Order(2)
 public class SecurityMonitoringFilter implements Filter {
 
+    // Pattern categories
+    static final int SQL_INJECTION = 1;
+    static final int XSS = 1 << 1;
+    static final int BOT = 1 << 2;
+
+    static final PatternScanner PATTERNS = PatternScanner.builder()
+        .add(SQL_INJECTION, "union select", "drop table", "insert into", "delete from",
+            "' or '1'='1", "' or 1=1", "--")
+        .add(XSS, "<script", "javascript:", "onload=", "onerror=", "alert(", "document.cookie")
+        .add(BOT, "bot", "crawler", "spider", "scraper")
+        .build();
+
     private final SecurityMonitoringService securityMonitoringService;
 
     public SecurityMonitoringFilter(SecurityMonitoringService securityMonitoringService) {
@@ -72,56 +88,30 @@ public class SecurityMonitoringFilter implements Filter {
         String userAgent = request.getHeader("User-Agent");
         String endpoint = request.getRequestURI();
         
-        // Detect potential SQL injection attempts
         String queryString = request.getQueryString();
-        if (queryString != null && containsSqlInjectionPatterns(queryString)) {
+        int queryMatches = PATTERNS.scan(queryString, SQL_INJECTION | XSS);
+
+        // Detect potential SQL injection attempts
+        if ((queryMatches & SQL_INJECTION) != 0) {
             securityMonitoringService.logSuspiciousActivity("SQL_INJECTION_ATTEMPT", 
                 clientIp, "Potential SQL injection in query: " + queryString);
         }
 
         // Detect potential XSS attempts
-        if (containsXssPatterns(endpoint) || (queryString != null && containsXssPatterns(queryString))) {
+        if ((queryMatches & XSS) != 0 || PATTERNS.scan(endpoint, XSS) != 0) {
             securityMonitoringService.logSuspiciousActivity("XSS_ATTEMPT", 
                 clientIp, "Potential XSS attempt detected");
         }
 
         // Detect bot-like behavior
-        if (userAgent == null || userAgent.isEmpty() || containsBotPatterns(userAgent)) {
+        if (isBotUserAgent(userAgent)) {
             securityMonitoringService.logSecurityEvent("BOT_DETECTED", 
                 clientIp, userAgent, endpoint, "Potential bot activity");
         }
     }
 
-    private boolean containsSqlInjectionPatterns(String input) {
-        String lowerInput = input.toLowerCase();
-        return lowerInput.contains("union select") || 
-               lowerInput.contains("drop table") || 
-               lowerInput.contains("insert into") || 
-               lowerInput.contains("delete from") ||
-               lowerInput.contains("' or '1'='1") ||
-               lowerInput.contains("' or 1=1") ||
-               lowerInput.contains("--");
-    }
-
-    private boolean containsXssPatterns(String input) {
-        String lowerInput = input.toLowerCase();
-        return lowerInput.contains("<script") || 
-               lowerInput.contains("javascript:") || 
-               lowerInput.contains("onload=") || 
-               lowerInput.contains("onerror=") ||
-               lowerInput.contains("alert(") ||
-               lowerInput.contains("document.cookie");
-    }
-
-    private boolean containsBotPatterns(String userAgent) {
-        if (userAgent == null) return true;
-        
-        String lowerUserAgent = userAgent.toLowerCase();
-        return lowerUserAgent.contains("bot") || 
-               lowerUserAgent.contains("crawler") || 
-               lowerUserAgent.contains("spider") ||
-               lowerUserAgent.contains("scraper") ||
-               userAgent.length() < 10;
+    private boolean isBotUserAgent(String userAgent) {
+        return userAgent == null || userAgent.length() < 10 || PATTERNS.scan(userAgent, BOT) != 0;
     }
 
     private String getClientIpAddress(HttpServletRequest request) {
@@ -0,0 +1,89 @@
+package com.learningportal.interceptor;
+
+import com.learningportal.annotation.ConditionalContent;
+import com.learningportal.cache.ContentVersions;
+import com.learningportal.cache.PrecomputedResponses;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Conditional Request Interceptor
+ *
+ * Answers If-None-Match and If-Modified-Since for handlers marked
+ * {@link ConditionalContent} from the content's known version: a match
+ * ends the request with 304 Not Modified before the handler queries or
+ * serializes anything. Otherwise the ETag, Last-Modified and Cache-Control
+ * headers are set and the handler runs as usual - or, for static content
+ * with a {@link PrecomputedResponses precomputed body}, that body is written
+ * in its place.
+ */
+@Component
+public class ConditionalRequestInterceptor implements HandlerInterceptor {
+
+    private final ContentVersions contentVersions;
+    private final PrecomputedResponses precomputedResponses;
+    private final Map<Method, Optional<ConditionalContent>> policies = new ConcurrentHashMap<>();
+
+    public ConditionalRequestInterceptor(ContentVersions contentVersions, PrecomputedResponses precomputedResponses) {
+        this.contentVersions = contentVersions;
+        this.precomputedResponses = precomputedResponses;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (!(handler instanceof HandlerMethod handlerMethod)
+                || !(HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod()))) {
+            return true;
+        }
+        ConditionalContent policy = policies.computeIfAbsent(handlerMethod.getMethod(),
+            method -> Optional.ofNullable(findPolicy(handlerMethod))).orElse(null);
+        if (policy == null) {
+            return true;
+        }
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl(policy).getHeaderValue());
+        ContentVersions.Version version = switch (policy.value()) {
+            case LEARNING_CONTENT -> contentVersions.learningContent();
+            case STATIC -> contentVersions.staticContent(handlerMethod.getBeanType());
+        };
+        // An unknown version means serving in full, without validators
+        if (version != null
+                && new ServletWebRequest(request, response).checkNotModified(version.etag(), version.lastModified())) {
+            return false;
+        }
+        return policy.value() != ConditionalContent.Source.STATIC
+            || !precomputedResponses.write(handlerMethod.getMethod(), request, response);
+    }
+
+    private static ConditionalContent findPolicy(HandlerMethod handlerMethod) {
+        ConditionalContent policy = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(),
+            ConditionalContent.class);
+        if (policy == null) {
+            policy = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), ConditionalContent.class);
+        }
+        return policy;
+    }
+
+    private static CacheControl cacheControl(ConditionalContent policy) {
+        CacheControl cacheControl = policy.maxAge() > 0
+            ? CacheControl.maxAge(Duration.ofSeconds(policy.maxAge()))
+            : CacheControl.noCache();
+        return cacheControl.cachePublic();
+    }
+}
@@ -1,6 +1,8 @@
 package com.learningportal.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.learningportal.cache.ContentVersionEntityListener;
+import com.learningportal.search.SearchIndexEntityListener;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
@@ -15,7 +17,7 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "interview_questions")
 
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, SearchIndexEntityListener.class, ContentVersionEntityListener.class})
 @Schema(description = "Interview question from major tech companies")
 public class InterviewQuestion {
 
@@ -1,6 +1,8 @@
 package com.learningportal.model;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.learningportal.cache.ContentVersionEntityListener;
+import com.learningportal.search.SearchIndexEntityListener;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
@@ -19,7 +21,7 @@ import java.util.Objects;
 @Entity
 @Table(name = "learning_modules")
 
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, SearchIndexEntityListener.class, ContentVersionEntityListener.class})
 @Schema(description = "Learning module containing topics and interview questions")
 public class LearningModule {
 
@@ -1,5 +1,6 @@
 package com.learningportal.repository;
 
+import com.learningportal.dto.ContentStamp;
 import com.learningportal.model.InterviewQuestion;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.data.domain.Page;
@@ -9,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -58,6 +60,18 @@ public interface InterviewQuestionRepository extends JpaRepository<InterviewQues
            "ORDER BY q.id ASC")
     Page<InterviewQuestion> searchQuestions(@Param("searchTerm") String searchTerm, Pageable pageable);
 
+    /**
+     * Typo-tolerant search on question or answer text using pg_trgm word similarity
+     * (served by the trigram GIN indexes from TrigramIndexInitializer)
+     */
+    @Query(value = "SELECT * FROM interview_questions q WHERE " +
+                   ":searchTerm <% q.question OR :searchTerm <% q.answer " +
+                   "ORDER BY GREATEST(word_similarity(:searchTerm, q.question), " +
+                   "word_similarity(:searchTerm, COALESCE(q.answer, ''))) DESC, q.id ASC " +
+                   "LIMIT :limit",
+           nativeQuery = true)
+    List<InterviewQuestion> fuzzySearchQuestions(@Param("searchTerm") String searchTerm, @Param("limit") int limit);
+
     /**
      * Find questions by company and difficulty
      */
@@ -192,4 +206,23 @@ public interface InterviewQuestionRepository extends JpaRepository<InterviewQues
      * Find questions by difficulty ordered by ID descending
      */
     List<InterviewQuestion> findByDifficultyOrderByIdDesc(InterviewQuestion.Difficulty difficulty);
-}
\ No newline at end of file
+
+    /**
+     * All question IDs, used to reconcile a persisted search index with the table
+     */
+    @Query("SELECT q.id FROM InterviewQuestion q")
+    List<Long> findAllIds();
+
+    /**
+     * Questions created or updated after the given time
+     */
+    @Query("SELECT q FROM InterviewQuestion q WHERE COALESCE(q.updatedAt, q.createdAt) > :since")
+    List<InterviewQuestion> findModifiedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Row count, ID sum and latest modification, identifying the table's current content
+     */
+    @Query("SELECT new com.learningportal.dto.ContentStamp(COUNT(q), SUM(q.id), " +
+           "MAX(COALESCE(q.updatedAt, q.createdAt))) FROM InterviewQuestion q")
+    ContentStamp getContentStamp();
+}
@@ -1,5 +1,6 @@
 package com.learningportal.repository;
 
+import com.learningportal.dto.ContentStamp;
 import com.learningportal.model.LearningModule;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.data.domain.Page;
@@ -11,6 +12,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import jakarta.persistence.QueryHint;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -47,6 +49,18 @@ public interface LearningModuleRepository extends JpaRepository<LearningModule,
            "ORDER BY m.sortOrder ASC")
     Page<LearningModule> searchModules(@Param("searchTerm") String searchTerm, Pageable pageable);
 
+    /**
+     * Typo-tolerant search on name or description using pg_trgm word similarity
+     * (served by the trigram GIN indexes from TrigramIndexInitializer)
+     */
+    @Query(value = "SELECT * FROM learning_modules m WHERE " +
+                   "LOWER(:searchTerm) <% LOWER(m.name) OR LOWER(:searchTerm) <% LOWER(m.description) " +
+                   "ORDER BY GREATEST(word_similarity(LOWER(:searchTerm), LOWER(m.name)), " +
+                   "word_similarity(LOWER(:searchTerm), LOWER(m.description))) DESC, m.sort_order ASC " +
+                   "LIMIT :limit",
+           nativeQuery = true)
+    List<LearningModule> fuzzySearchModules(@Param("searchTerm") String searchTerm, @Param("limit") int limit);
+
     /**
      * Find modules with topic count
      */
@@ -174,4 +188,23 @@ public interface LearningModuleRepository extends JpaRepository<LearningModule,
     @Query(value = "SELECT m FROM LearningModule m ORDER BY m.sortOrder ASC",
            countQuery = "SELECT COUNT(m) FROM LearningModule m")
     Page<LearningModule> findAllOptimizedPaged(Pageable pageable);
-}
\ No newline at end of file
+
+    /**
+     * All module IDs, used to reconcile a persisted search index with the table
+     */
+    @Query("SELECT m.id FROM LearningModule m")
+    List<Long> findAllIds();
+
+    /**
+     * Modules created or updated after the given time
+     */
+    @Query("SELECT m FROM LearningModule m WHERE COALESCE(m.updatedAt, m.createdAt) > :since")
+    List<LearningModule> findModifiedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Row count, ID sum and latest modification, identifying the table's current content
+     */
+    @Query("SELECT new com.learningportal.dto.ContentStamp(COUNT(m), SUM(m.id), " +
+           "MAX(COALESCE(m.updatedAt, m.createdAt))) FROM LearningModule m")
+    ContentStamp getContentStamp();
+}
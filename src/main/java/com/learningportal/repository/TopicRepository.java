@@ -1,5 +1,6 @@
 package com.learningportal.repository;
 
+import com.learningportal.dto.ContentStamp;
 import com.learningportal.model.Topic;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.data.domain.Page;
@@ -9,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -126,9 +128,46 @@ public interface TopicRepository extends JpaRepository<Topic, Long> {
      */
     @Query("SELECT t FROM Topic t WHERE LOWER(t.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR LOWER(t.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')) ORDER BY t.sortOrder ASC")
     List<Topic> searchTopics(@Param("searchTerm") String searchTerm);
+
+    /**
+     * Search topics by title or description with pagination
+     */
+    @Query("SELECT t FROM Topic t WHERE LOWER(t.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR LOWER(t.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')) ORDER BY t.sortOrder ASC")
+    Page<Topic> searchTopics(@Param("searchTerm") String searchTerm, Pageable pageable);
+
+    /**
+     * Typo-tolerant search on title or description using pg_trgm word similarity
+     * (served by the trigram GIN indexes from TrigramIndexInitializer)
+     */
+    @Query(value = "SELECT * FROM topics t WHERE " +
+                   "LOWER(:searchTerm) <% LOWER(t.title) OR LOWER(:searchTerm) <% LOWER(t.description) " +
+                   "ORDER BY GREATEST(word_similarity(LOWER(:searchTerm), LOWER(t.title)), " +
+                   "word_similarity(LOWER(:searchTerm), LOWER(t.description))) DESC, t.sort_order ASC " +
+                   "LIMIT :limit",
+           nativeQuery = true)
+    List<Topic> fuzzySearchTopics(@Param("searchTerm") String searchTerm, @Param("limit") int limit);
     
     /**
      * Find top 10 topics ordered by ID descending
      */
     List<Topic> findTop10ByOrderByIdDesc();
-}
\ No newline at end of file
+
+    /**
+     * All topic IDs, used to reconcile a persisted search index with the table
+     */
+    @Query("SELECT t.id FROM Topic t")
+    List<Long> findAllIds();
+
+    /**
+     * Topics created or updated after the given time
+     */
+    @Query("SELECT t FROM Topic t WHERE COALESCE(t.updatedAt, t.createdAt) > :since")
+    List<Topic> findModifiedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Row count, ID sum and latest modification, identifying the table's current content
+     */
+    @Query("SELECT new com.learningportal.dto.ContentStamp(COUNT(t), SUM(t.id), " +
+           "MAX(COALESCE(t.updatedAt, t.createdAt))) FROM Topic t")
+    ContentStamp getContentStamp();
+}
@@ -0,0 +1,163 @@
+package com.learningportal.search;
+
+import com.learningportal.search.IndexSegment.PostingList;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * BM25 Scorer
+ *
+ * Okapi BM25 ranking over an immutable set of posting lists, shared by the
+ * content segments and the note partitions. The last query term is also
+ * expanded as a prefix for typeahead, and in fuzzy mode every term is
+ * expanded to indexed terms within its edit budget.
+ */
+final class Bm25Scorer {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Typeahead: the last query term also matches indexed terms it prefixes
+    static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 32;
+    private static final double PREFIX_MATCH_WEIGHT = 0.5;
+
+    private final Map<String, PostingList> postings;
+    private final String[] sortedTerms;
+    private final int[] lengths;
+    private final double averageLength;
+
+    // Built on first fuzzy query; most segments are replaced before one arrives
+    private volatile TrigramIndex trigrams;
+
+    Bm25Scorer(Map<String, PostingList> postings, int[] lengths) {
+        this.postings = postings;
+        this.lengths = lengths;
+
+        long totalLength = 0;
+        for (int length : lengths) {
+            totalLength += length;
+        }
+        this.averageLength = lengths.length == 0 ? 1.0 : Math.max(1.0, (double) totalLength / lengths.length);
+
+        this.sortedTerms = postings.keySet().toArray(new String[0]);
+        Arrays.sort(sortedTerms);
+    }
+
+    int termCount() {
+        return sortedTerms.length;
+    }
+
+    PostingList postings(String term) {
+        return postings.get(term);
+    }
+
+    /**
+     * Accumulate BM25 scores for a query, or return null when no term
+     * matched anything
+     *
+     * @param matchedTerms receives every indexed term that contributed to a
+     *                     score, for highlighting; may be null
+     */
+    float[] score(String query, SearchMode mode, Set<String> matchedTerms) {
+        List<String> queryTerms = SearchTokenizer.tokenize(query);
+        if (queryTerms.isEmpty() || lengths.length == 0) {
+            return null;
+        }
+
+        float[] scores = new float[lengths.length];
+        boolean matched = false;
+
+        Set<String> distinctTerms = new LinkedHashSet<>(queryTerms);
+        String lastTerm = queryTerms.get(queryTerms.size() - 1);
+        for (String term : distinctTerms) {
+            boolean prefix = term.equals(lastTerm) && term.length() >= MIN_PREFIX_LENGTH;
+            if (prefix) {
+                matched |= scorePrefix(term, scores, matchedTerms);
+            } else {
+                matched |= scoreTerm(term, 1.0, scores, matchedTerms);
+            }
+            if (mode == SearchMode.FUZZY) {
+                matched |= scoreFuzzy(term, prefix, scores, matchedTerms);
+            }
+        }
+
+        return matched ? scores : null;
+    }
+
+    private boolean scorePrefix(String prefix, float[] scores, Set<String> matchedTerms) {
+        int start = Arrays.binarySearch(sortedTerms, prefix);
+        if (start < 0) {
+            start = -start - 1;
+        }
+
+        boolean matched = false;
+        int expansions = 0;
+        for (int i = start; i < sortedTerms.length && expansions < MAX_PREFIX_EXPANSIONS; i++) {
+            String term = sortedTerms[i];
+            if (!term.startsWith(prefix)) {
+                break;
+            }
+            matched |= scoreTerm(term, term.length() == prefix.length() ? 1.0 : PREFIX_MATCH_WEIGHT, scores,
+                matchedTerms);
+            expansions++;
+        }
+        return matched;
+    }
+
+    private boolean scoreFuzzy(String term, boolean prefixScored, float[] scores, Set<String> matchedTerms) {
+        int maxEdits = TrigramIndex.maxEditsFor(term);
+        if (maxEdits == 0) {
+            return false;
+        }
+
+        boolean matched = false;
+        for (TrigramIndex.Match match : trigramIndex().lookup(term, maxEdits)) {
+            // Exact and prefix matches have already been scored
+            if (match.distance() > 0 && !(prefixScored && match.term().startsWith(term))) {
+                matched |= scoreTerm(match.term(), 1.0 / (1 + match.distance()), scores, matchedTerms);
+            }
+        }
+        return matched;
+    }
+
+    private TrigramIndex trigramIndex() {
+        TrigramIndex index = trigrams;
+        if (index == null) {
+            synchronized (this) {
+                index = trigrams;
+                if (index == null) {
+                    index = TrigramIndex.build(sortedTerms);
+                    trigrams = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    private boolean scoreTerm(String term, double weight, float[] scores, Set<String> matchedTerms) {
+        PostingList list = postings.get(term);
+        if (list == null) {
+            return false;
+        }
+        if (matchedTerms != null) {
+            matchedTerms.add(term);
+        }
+
+        int documentFrequency = list.size();
+        double idf = Math.log(1.0 + (lengths.length - documentFrequency + 0.5) / (documentFrequency + 0.5));
+
+        int[] docs = list.documents();
+        int[] frequencies = list.frequencies();
+        for (int i = 0; i < docs.length; i++) {
+            int tf = frequencies[i];
+            double norm = K1 * (1.0 - B + B * lengths[docs[i]] / averageLength);
+            scores[docs[i]] += (float) (weight * idf * (tf * (K1 + 1.0)) / (tf + norm));
+        }
+        return true;
+    }
+}
@@ -0,0 +1,73 @@
+package com.learningportal.search;
+
+import java.io.Serializable;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact cached form of a search result: the IDs and scores of the hits
+ * per content type plus any totals and facet counts, never the documents
+ * or entities themselves. Hits are re-read from the index or the database
+ * when the result is served, so cached entries stay small and never carry
+ * stale field values.
+ */
+public record CachedResult(
+        Map<DocumentType, long[]> ids,
+        Map<DocumentType, float[]> scores,
+        Map<DocumentType, Long> totals,
+        long totalMatches,
+        Map<Facet, Map<String, Integer>> facetCounts) implements Serializable {
+
+    /**
+     * Compact ranked hits per type
+     */
+    public static CachedResult of(Map<DocumentType, List<SearchHit>> hits, Map<DocumentType, Long> totals,
+                                  long totalMatches, Map<Facet, Map<String, Integer>> facetCounts) {
+        Map<DocumentType, long[]> ids = new EnumMap<>(DocumentType.class);
+        Map<DocumentType, float[]> scores = new EnumMap<>(DocumentType.class);
+        hits.forEach((type, typeHits) -> {
+            long[] typeIds = new long[typeHits.size()];
+            float[] typeScores = new float[typeHits.size()];
+            for (int i = 0; i < typeHits.size(); i++) {
+                typeIds[i] = typeHits.get(i).id();
+                typeScores[i] = (float) typeHits.get(i).score();
+            }
+            ids.put(type, typeIds);
+            scores.put(type, typeScores);
+        });
+        return new CachedResult(ids, scores, totals, totalMatches, facetCounts);
+    }
+
+    /**
+     * Compact an ordered page of IDs of one type
+     */
+    public static CachedResult ofPage(DocumentType type, long[] ids, long total) {
+        Map<DocumentType, long[]> pageIds = new EnumMap<>(DocumentType.class);
+        pageIds.put(type, ids);
+        Map<DocumentType, Long> totals = new EnumMap<>(DocumentType.class);
+        totals.put(type, total);
+        return new CachedResult(pageIds, Map.of(), totals, total, Map.of());
+    }
+
+    public float[] scores(DocumentType type) {
+        return scores.getOrDefault(type, new float[0]);
+    }
+
+    public long[] ids(DocumentType type) {
+        return ids.getOrDefault(type, new long[0]);
+    }
+
+    public long total(DocumentType type) {
+        return totals.getOrDefault(type, 0L);
+    }
+
+    boolean contains(DocumentKey key) {
+        for (long id : ids(key.type())) {
+            if (id == key.id()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
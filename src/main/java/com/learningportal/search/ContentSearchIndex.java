@@ -0,0 +1,524 @@
+package com.learningportal.search;
+
+import com.learningportal.model.InterviewQuestion;
+import com.learningportal.model.LearningModule;
+import com.learningportal.model.Topic;
+import com.learningportal.repository.InterviewQuestionRepository;
+import com.learningportal.repository.LearningModuleRepository;
+import com.learningportal.repository.TopicRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Content Search Index
+ *
+ * In-memory inverted index over module names and descriptions, topic titles
+ * and content, and interview question text. The {@link SearchIndexer}
+ * builds it once the application is ready (after data initialization) and
+ * then applies committed content changes in batches, so search requests
+ * never hit the database.
+ *
+ * Readers always see a complete, immutable {@link IndexSegment}; writers
+ * rebuild the segment from the analyzed documents and publish it with a
+ * single volatile write.
+ *
+ * The analyzed documents are persisted through the {@link SegmentStore}
+ * together with a high-water mark - the latest modification time they
+ * reflect - so a restart reloads the segment and only reads rows modified
+ * since then, plus the ID lists needed to spot inserts and deletions.
+ */
+@Service
+public class ContentSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ContentSearchIndex.class);
+
+    // Modification times are set before commit, so rows committed out of order
+    // may carry timestamps slightly older than the persisted high-water mark
+    private static final Duration REPLAY_MARGIN = Duration.ofMinutes(5);
+    private static final int ID_BATCH_SIZE = 1000;
+
+    private final LearningModuleRepository moduleRepository;
+    private final TopicRepository topicRepository;
+    private final InterviewQuestionRepository questionRepository;
+    private final SegmentStore segmentStore;
+    private final SearchResultCache resultCache;
+
+    // Analyzed documents by key and the latest modification they reflect; guarded by this
+    private final Map<DocumentKey, SearchDocument> documents = new HashMap<>();
+    private LocalDateTime highWater;
+
+    private volatile IndexSegment segment = IndexSegment.empty();
+    private volatile SuggestionTrie suggestions = SuggestionTrie.empty();
+
+    public ContentSearchIndex(LearningModuleRepository moduleRepository,
+                              TopicRepository topicRepository,
+                              InterviewQuestionRepository questionRepository,
+                              SegmentStore segmentStore,
+                              SearchResultCache resultCache) {
+        this.moduleRepository = moduleRepository;
+        this.topicRepository = topicRepository;
+        this.questionRepository = questionRepository;
+        this.segmentStore = segmentStore;
+        this.resultCache = resultCache;
+    }
+
+    /**
+     * Build the index from the database, replacing any documents held
+     */
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long startTime = System.currentTimeMillis();
+
+        Map<DocumentKey, SearchDocument> loaded = new HashMap<>();
+        LocalDateTime latest = null;
+        for (LearningModule module : moduleRepository.findAll()) {
+            put(loaded, toDocument(module));
+            latest = latest(latest, module.getUpdatedAt(), module.getCreatedAt());
+        }
+        for (Topic topic : topicRepository.findAll()) {
+            put(loaded, toDocument(topic));
+            latest = latest(latest, topic.getUpdatedAt(), topic.getCreatedAt());
+        }
+        for (InterviewQuestion question : questionRepository.findAll()) {
+            put(loaded, toDocument(question));
+            latest = latest(latest, question.getUpdatedAt(), question.getCreatedAt());
+        }
+
+        replace(loaded, latest);
+
+        IndexSegment current = segment;
+        log.info("Search index built: {} documents, {} terms, {} suggestions in {}ms",
+            current.size(), current.termCount(), suggestions.size(), System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Load the persisted segment and bring it up to date with the database,
+     * falling back to a full rebuild when no usable segment exists.
+     */
+    @Transactional(readOnly = true)
+    public void restore() {
+        long startTime = System.currentTimeMillis();
+
+        Optional<SegmentStore.Snapshot> snapshot = segmentStore.load();
+        if (snapshot.isEmpty() || snapshot.get().highWater() == null) {
+            rebuild();
+            return;
+        }
+
+        Map<DocumentKey, SearchDocument> loaded = new HashMap<>();
+        snapshot.get().documents().forEach(document -> put(loaded, document));
+        LocalDateTime since = snapshot.get().highWater().minus(REPLAY_MARGIN);
+
+        Replay replay = new Replay(loaded, snapshot.get().highWater());
+        replay.reconcile(DocumentType.MODULE, moduleRepository.findAllIds(),
+            moduleRepository.findModifiedSince(since), moduleRepository::findAllById,
+            ContentSearchIndex::toDocument, module -> latest(null, module.getUpdatedAt(), module.getCreatedAt()));
+        replay.reconcile(DocumentType.TOPIC, topicRepository.findAllIds(),
+            topicRepository.findModifiedSince(since), topicRepository::findAllById,
+            ContentSearchIndex::toDocument, topic -> latest(null, topic.getUpdatedAt(), topic.getCreatedAt()));
+        replay.reconcile(DocumentType.QUESTION, questionRepository.findAllIds(),
+            questionRepository.findModifiedSince(since), questionRepository::findAllById,
+            ContentSearchIndex::toDocument, question -> latest(null, question.getUpdatedAt(), question.getCreatedAt()));
+
+        replace(loaded, replay.highWater);
+
+        IndexSegment current = segment;
+        log.info("Search index restored: {} documents, {} terms, {} changes replayed since {} in {}ms",
+            current.size(), current.termCount(), replay.changes, since, System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Write the current documents to the segment store
+     */
+    public void persist() {
+        List<SearchDocument> snapshot;
+        LocalDateTime mark;
+        synchronized (this) {
+            snapshot = List.copyOf(documents.values());
+            mark = highWater;
+        }
+
+        long startTime = System.currentTimeMillis();
+        try {
+            segmentStore.save(snapshot, mark);
+            log.debug("Search segment persisted: {} documents in {}ms",
+                snapshot.size(), System.currentTimeMillis() - startTime);
+        } catch (IOException e) {
+            log.warn("Failed to persist search segment: {}", e.getMessage());
+        }
+    }
+
+    private synchronized void replace(Map<DocumentKey, SearchDocument> loaded, LocalDateTime latest) {
+        documents.clear();
+        documents.putAll(loaded);
+        highWater = latest;
+        publish();
+        resultCache.invalidateAll();
+    }
+
+    /**
+     * Search all content types and return the best hits per type
+     */
+    public Map<DocumentType, List<SearchHit>> search(String query, int limitPerType, SearchMode mode) {
+        QueryFingerprint key = QueryFingerprint.ofQuery(QueryFingerprint.Scope.CONTENT, query, mode,
+            Map.of(), 0, limitPerType);
+        return resultCache.get(key,
+            () -> segment.search(query, limitPerType, mode),
+            hits -> CachedResult.of(hits, Map.of(), 0, Map.of()),
+            this::expandHits);
+    }
+
+    /**
+     * Search all content types, restricted by facet filters, and count
+     * every facet value across the matches
+     */
+    public FacetedHits facetedSearch(String query, int limitPerType, SearchMode mode,
+                                     Map<Facet, Set<String>> filters) {
+        Map<String, Set<String>> filterNames = new HashMap<>();
+        filters.forEach((facet, values) -> filterNames.put(facet.name(), values));
+        QueryFingerprint key = QueryFingerprint.ofQuery(QueryFingerprint.Scope.FACETED, query, mode,
+            filterNames, 0, limitPerType);
+
+        return resultCache.get(key,
+            () -> segment.facetedSearch(query, limitPerType, mode, filters),
+            results -> CachedResult.of(results.hits(), Map.of(), results.totalMatches(), results.facetCounts()),
+            cached -> new FacetedHits(expandHits(cached), cached.facetCounts(), (int) cached.totalMatches()));
+    }
+
+    /**
+     * Match content against tags, one ranked page per requested type
+     */
+    public Map<DocumentType, TagPage> searchTags(Collection<String> tags, TagMatch match,
+                                                 Set<DocumentType> types, int page, int size) {
+        QueryFingerprint key = QueryFingerprint.ofTags(tags, Map.of(
+            "match", List.of(match.name()),
+            QueryFingerprint.TYPES_FILTER, types.stream().map(DocumentType::name).toList()), page, size);
+
+        return resultCache.get(key,
+            () -> segment.searchTags(tags, match, types, page, size),
+            pages -> {
+                Map<DocumentType, List<SearchHit>> hits = new EnumMap<>(DocumentType.class);
+                Map<DocumentType, Long> totals = new EnumMap<>(DocumentType.class);
+                pages.forEach((type, tagPage) -> {
+                    hits.put(type, tagPage.hits());
+                    totals.put(type, (long) tagPage.totalMatches());
+                });
+                return CachedResult.of(hits, totals, 0, Map.of());
+            },
+            cached -> {
+                Map<DocumentType, TagPage> pages = new EnumMap<>(DocumentType.class);
+                expandHits(cached).forEach((type, hits) ->
+                    pages.put(type, new TagPage(hits, (int) cached.total(type))));
+                return pages;
+            });
+    }
+
+    /**
+     * Rebuild cached hits from the documents in the current segment. A
+     * document deleted since the result was cached is skipped.
+     */
+    private Map<DocumentType, List<SearchHit>> expandHits(CachedResult cached) {
+        IndexSegment current = segment;
+        Map<DocumentType, List<SearchHit>> results = new EnumMap<>(DocumentType.class);
+        cached.ids().forEach((type, ids) -> {
+            float[] scores = cached.scores(type);
+            List<SearchHit> hits = new ArrayList<>(ids.length);
+            for (int i = 0; i < ids.length; i++) {
+                SearchHit hit = current.hit(new DocumentKey(type, ids[i]), scores[i]);
+                if (hit != null) {
+                    hits.add(hit);
+                }
+            }
+            results.put(type, hits);
+        });
+        return results;
+    }
+
+    /**
+     * Autocomplete module and topic names from the suggestion trie
+     */
+    public List<String> suggest(String prefix, int limit) {
+        return suggestions.complete(prefix, limit);
+    }
+
+    /**
+     * Apply a batch of committed changes and publish one new segment for
+     * the whole batch. Saved rows are reloaded and analyzed here, on the
+     * indexer's thread, never in the writing transaction. Deleting a module
+     * also drops the topics and questions deleted with it by cascade.
+     * Cached results the changes can affect are evicted once the new
+     * segment is visible.
+     */
+    @Transactional(readOnly = true)
+    public void apply(List<IndexChange> changes) {
+        Map<DocumentKey, Reloaded> reloaded = new HashMap<>();
+        reload(changes, DocumentType.MODULE, moduleRepository::findAllById, ContentSearchIndex::toDocument,
+            module -> latest(null, module.getUpdatedAt(), module.getCreatedAt()), reloaded);
+        reload(changes, DocumentType.TOPIC, topicRepository::findAllById, ContentSearchIndex::toDocument,
+            topic -> latest(null, topic.getUpdatedAt(), topic.getCreatedAt()), reloaded);
+        reload(changes, DocumentType.QUESTION, questionRepository::findAllById, ContentSearchIndex::toDocument,
+            question -> latest(null, question.getUpdatedAt(), question.getCreatedAt()), reloaded);
+
+        List<IndexChange> resolved = new ArrayList<>(changes.size());
+        for (IndexChange change : changes) {
+            Reloaded row = reloaded.get(change.key());
+            if (change.isDelete()) {
+                resolved.add(change);
+            } else if (row == null) {
+                // Deleted since; its own deletion follows
+                resolved.add(change.resolve(null, null));
+            } else {
+                resolved.add(change.resolve(row.document(), row.modifiedAt()));
+            }
+        }
+        applyResolved(resolved);
+    }
+
+    private record Reloaded(SearchDocument document, LocalDateTime modifiedAt) {
+    }
+
+    private static <T> void reload(List<IndexChange> changes, DocumentType type,
+                                   Function<List<Long>, List<T>> findByIds,
+                                   Function<T, SearchDocument> analyzer,
+                                   Function<T, LocalDateTime> modifiedAt,
+                                   Map<DocumentKey, Reloaded> reloaded) {
+        List<Long> ids = changes.stream()
+            .filter(change -> !change.isDelete() && change.key().type() == type)
+            .map(change -> change.key().id())
+            .distinct()
+            .toList();
+        for (int from = 0; from < ids.size(); from += ID_BATCH_SIZE) {
+            for (T entity : findByIds.apply(ids.subList(from, Math.min(from + ID_BATCH_SIZE, ids.size())))) {
+                SearchDocument document = analyzer.apply(entity);
+                reloaded.put(document.key(), new Reloaded(document, modifiedAt.apply(entity)));
+            }
+        }
+    }
+
+    private synchronized void applyResolved(List<IndexChange> changes) {
+        List<SearchDocument> versions = new ArrayList<>();
+        for (IndexChange change : changes) {
+            highWater = latest(highWater, change.modifiedAt(), null);
+            if (!change.isDelete()) {
+                SearchDocument previous = documents.put(change.key(), change.document());
+                if (previous != null) {
+                    versions.add(previous);
+                }
+                versions.add(change.document());
+                continue;
+            }
+            SearchDocument removed = documents.remove(change.key());
+            if (removed != null) {
+                versions.add(removed);
+            }
+            if (change.key().type() == DocumentType.MODULE) {
+                Long moduleId = change.key().id();
+                documents.values().removeIf(document -> {
+                    boolean cascaded = Objects.equals(document.moduleId(), moduleId);
+                    if (cascaded) {
+                        versions.add(document);
+                    }
+                    return cascaded;
+                });
+            }
+        }
+        publish();
+        resultCache.invalidate(versions);
+    }
+
+    public int size() {
+        return segment.size();
+    }
+
+    public int termCount() {
+        return segment.termCount();
+    }
+
+    private void publish() {
+        segment = IndexSegment.build(documents.values());
+        suggestions = buildSuggestions();
+    }
+
+    /**
+     * Weight suggestions by module size, the same popularity measure used by
+     * findPopularModules: a module scores one point per topic and question,
+     * and its topics share the module's question count so topics of
+     * well-covered modules surface first.
+     */
+    private SuggestionTrie buildSuggestions() {
+        Map<Long, Long> topicsPerModule = new HashMap<>();
+        Map<Long, Long> questionsPerModule = new HashMap<>();
+        for (SearchDocument document : documents.values()) {
+            if (document.moduleId() == null) {
+                continue;
+            }
+            if (document.key().type() == DocumentType.TOPIC) {
+                topicsPerModule.merge(document.moduleId(), 1L, Long::sum);
+            } else if (document.key().type() == DocumentType.QUESTION) {
+                questionsPerModule.merge(document.moduleId(), 1L, Long::sum);
+            }
+        }
+
+        List<SuggestionTrie.Entry> entries = new ArrayList<>();
+        for (SearchDocument document : documents.values()) {
+            long questions = questionsPerModule.getOrDefault(document.moduleId(), 0L);
+            if (document.key().type() == DocumentType.MODULE) {
+                long topics = topicsPerModule.getOrDefault(document.moduleId(), 0L);
+                entries.add(new SuggestionTrie.Entry(document.title(), 1 + topics + questions));
+            } else if (document.key().type() == DocumentType.TOPIC) {
+                entries.add(new SuggestionTrie.Entry(document.title(), 1 + questions));
+            }
+        }
+        return SuggestionTrie.build(entries);
+    }
+
+    private static void put(Map<DocumentKey, SearchDocument> target, SearchDocument document) {
+        target.put(document.key(), document);
+    }
+
+    /**
+     * Later of the current mark and an entity's modification time (its
+     * update time, or creation time if never updated)
+     */
+    static LocalDateTime latest(LocalDateTime current, LocalDateTime updatedAt, LocalDateTime createdAt) {
+        LocalDateTime modified = updatedAt != null ? updatedAt : createdAt;
+        if (modified == null) {
+            return current;
+        }
+        return current == null || modified.isAfter(current) ? modified : current;
+    }
+
+    /**
+     * Applies rows changed since a persisted segment was written: documents
+     * whose rows are gone are dropped, and modified or unknown rows are
+     * re-analyzed.
+     */
+    private static final class Replay {
+        private final Map<DocumentKey, SearchDocument> loaded;
+        private LocalDateTime highWater;
+        private int changes;
+
+        Replay(Map<DocumentKey, SearchDocument> loaded, LocalDateTime highWater) {
+            this.loaded = loaded;
+            this.highWater = highWater;
+        }
+
+        <T> void reconcile(DocumentType type, List<Long> currentIds, List<T> modified,
+                           Function<List<Long>, List<T>> findByIds,
+                           Function<T, SearchDocument> analyzer,
+                           Function<T, LocalDateTime> modifiedAt) {
+            Set<Long> ids = new HashSet<>(currentIds);
+            int before = loaded.size();
+            loaded.keySet().removeIf(key -> key.type() == type && !ids.contains(key.id()));
+            changes += before - loaded.size();
+
+            for (T entity : modified) {
+                add(entity, analyzer, modifiedAt);
+            }
+
+            // Rows without timestamps, or inserted out of order, show up as unknown IDs
+            List<Long> missing = ids.stream()
+                .filter(id -> !loaded.containsKey(new DocumentKey(type, id)))
+                .toList();
+            for (int from = 0; from < missing.size(); from += ID_BATCH_SIZE) {
+                List<Long> batch = missing.subList(from, Math.min(from + ID_BATCH_SIZE, missing.size()));
+                for (T entity : findByIds.apply(batch)) {
+                    add(entity, analyzer, modifiedAt);
+                }
+            }
+        }
+
+        private <T> void add(T entity, Function<T, SearchDocument> analyzer, Function<T, LocalDateTime> modifiedAt) {
+            put(loaded, analyzer.apply(entity));
+            highWater = latest(highWater, modifiedAt.apply(entity), null);
+            changes++;
+        }
+    }
+
+    static SearchDocument toDocument(LearningModule module) {
+        Map<Facet, String> facets = new EnumMap<>(Facet.class);
+        putFacet(facets, Facet.CATEGORY, module.getCategory());
+        putFacet(facets, Facet.DIFFICULTY_LEVEL, module.getDifficultyLevel());
+
+        return SearchDocument.of(new DocumentKey(DocumentType.MODULE, module.getId()), module.getId(),
+            module.getName(), module.getDescription(),
+            labels(module.getCategory() != null ? module.getCategory().getDisplayName() : null,
+                module.getDifficultyLevel() != null ? module.getDifficultyLevel().getDisplayName() : null),
+            facets,
+            module.getDescription());
+    }
+
+    static SearchDocument toDocument(Topic topic) {
+        Map<Facet, String> facets = new EnumMap<>(Facet.class);
+        putFacet(facets, Facet.TOPIC_TYPE, topic.getTopicType());
+
+        return SearchDocument.of(new DocumentKey(DocumentType.TOPIC, topic.getId()), topic.getModuleId(),
+            topic.getTitle(), topic.getDescription(),
+            labels(topic.getTopicType() != null ? topic.getTopicType().getDisplayName() : null),
+            facets,
+            topic.getDescription(), topic.getContent());
+    }
+
+    static SearchDocument toDocument(InterviewQuestion question) {
+        List<String> tags = new ArrayList<>();
+        if (question.getTags() != null) {
+            tags.addAll(Arrays.asList(question.getTags().split(",")));
+        }
+        tags.addAll(labels(question.getTopic(), question.getCompany(),
+            question.getDifficulty() != null ? question.getDifficulty().getDisplayName() : null));
+
+        Map<Facet, String> facets = new EnumMap<>(Facet.class);
+        putFacet(facets, Facet.QUESTION_DIFFICULTY, question.getDifficulty());
+
+        return SearchDocument.of(new DocumentKey(DocumentType.QUESTION, question.getId()), question.getModuleId(),
+            question.getQuestion(), summary(question), tags, facets,
+            question.getAnswer(), question.getTopic(), question.getTags(), question.getCompany());
+    }
+
+    /**
+     * A question's topic and company, as "topic (company)", leaving out
+     * whichever is missing; null when both are
+     */
+    static String summary(InterviewQuestion question) {
+        String topic = question.getTopic();
+        String company = question.getCompany();
+        if (topic == null || company == null) {
+            return topic != null ? topic : company;
+        }
+        return topic + " (" + company + ")";
+    }
+
+    private static void putFacet(Map<Facet, String> facets, Facet facet, Enum<?> value) {
+        if (value != null) {
+            facets.put(facet, value.name());
+        }
+    }
+
+    private static List<String> labels(String... values) {
+        List<String> labels = new ArrayList<>(values.length);
+        for (String value : values) {
+            if (value != null) {
+                labels.add(value);
+            }
+        }
+        return labels;
+    }
+}
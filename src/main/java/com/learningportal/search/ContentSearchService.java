@@ -0,0 +1,185 @@
+package com.learningportal.search;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Content Search Service
+ *
+ * Entry point for content search. Routes each query to the configured
+ * backend - the in-process index by default, or PostgreSQL when
+ * {@code app.search.backend=DATABASE} - unless the caller picks one
+ * explicitly.
+ *
+ * Database searches fan out to modules, topics and questions concurrently,
+ * one virtual thread per source, so latency is that of the slowest source
+ * rather than the sum of all three. Every source has its own deadline
+ * measured from the start of the fan-out; a source that misses it is
+ * cancelled and reported as timed out while the others still return.
+ *
+ * Cancelling does not stop a query the driver is already running, so each
+ * query is also given the time left as its statement timeout, and at most
+ * {@code app.search.max-concurrent-queries} source queries hold a
+ * connection at once. A source waits for its turn no longer than its
+ * deadline.
+ */
+@Service
+public class ContentSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(ContentSearchService.class);
+
+    private final ContentSearchIndex searchIndex;
+    private final DatabaseContentSearch databaseSearch;
+    private final SearchBackend defaultBackend;
+    private final long sourceTimeoutMs;
+    private final Semaphore queryPermits;
+    private final ExecutorService sourceExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ContentSearchService(ContentSearchIndex searchIndex,
+                                DatabaseContentSearch databaseSearch,
+                                @Value("${app.search.backend:MEMORY}") SearchBackend defaultBackend,
+                                @Value("${app.search.source-timeout-ms:800}") long sourceTimeoutMs,
+                                @Value("${app.search.max-concurrent-queries:10}") int maxConcurrentQueries) {
+        this.searchIndex = searchIndex;
+        this.databaseSearch = databaseSearch;
+        this.defaultBackend = defaultBackend;
+        this.sourceTimeoutMs = sourceTimeoutMs;
+        this.queryPermits = new Semaphore(maxConcurrentQueries);
+        log.info("Content search backend: {} (per-source deadline {}ms, at most {} concurrent database queries)",
+            defaultBackend, sourceTimeoutMs, maxConcurrentQueries);
+    }
+
+    public SearchBackend getDefaultBackend() {
+        return defaultBackend;
+    }
+
+    /**
+     * Search modules, topics and questions, returning the best hits per type
+     *
+     * @param backend backend to use, or null for the configured default
+     */
+    public SearchResults search(String query, int limitPerType, SearchMode mode, SearchBackend backend) {
+        SearchBackend selected = backend != null ? backend : defaultBackend;
+
+        if (selected == SearchBackend.MEMORY) {
+            return searchIndex(query, limitPerType, mode);
+        }
+        return searchDatabase(query, limitPerType, mode);
+    }
+
+    /**
+     * The index scores every content type in a single pass, so there is
+     * nothing to fan out; each type reports the latency of that pass.
+     */
+    private SearchResults searchIndex(String query, int limitPerType, SearchMode mode) {
+        long startTime = System.nanoTime();
+        Map<DocumentType, List<SearchHit>> hits = searchIndex.search(query, limitPerType, mode);
+        SourceStatus status = new SourceStatus(SourceStatus.State.COMPLETE, elapsedMs(startTime));
+
+        Map<DocumentType, SourceStatus> sources = new EnumMap<>(DocumentType.class);
+        for (DocumentType type : DocumentType.values()) {
+            sources.put(type, status);
+        }
+        return new SearchResults(hits, sources);
+    }
+
+    private SearchResults searchDatabase(String query, int limitPerType, SearchMode mode) {
+        long startTime = System.nanoTime();
+        long deadline = startTime + TimeUnit.MILLISECONDS.toNanos(sourceTimeoutMs);
+
+        Map<DocumentType, Future<TimedHits>> futures = new EnumMap<>(DocumentType.class);
+        futures.put(DocumentType.MODULE, submit(deadline,
+            timeoutMs -> databaseSearch.searchModules(query, limitPerType, mode, timeoutMs)));
+        futures.put(DocumentType.TOPIC, submit(deadline,
+            timeoutMs -> databaseSearch.searchTopics(query, limitPerType, mode, timeoutMs)));
+        futures.put(DocumentType.QUESTION, submit(deadline,
+            timeoutMs -> databaseSearch.searchQuestions(query, limitPerType, mode, timeoutMs)));
+
+        Map<DocumentType, List<SearchHit>> hits = new EnumMap<>(DocumentType.class);
+        Map<DocumentType, SourceStatus> sources = new EnumMap<>(DocumentType.class);
+        for (Map.Entry<DocumentType, Future<TimedHits>> entry : futures.entrySet()) {
+            DocumentType type = entry.getKey();
+            Future<TimedHits> future = entry.getValue();
+            try {
+                TimedHits result = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                hits.put(type, result.hits());
+                sources.put(type, new SourceStatus(SourceStatus.State.COMPLETE, result.latencyMs()));
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                timedOut(type, query, startTime, hits, sources);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof TimeoutException) {
+                    timedOut(type, query, startTime, hits, sources);
+                } else {
+                    hits.put(type, List.of());
+                    sources.put(type, new SourceStatus(SourceStatus.State.FAILED, elapsedMs(startTime)));
+                    log.error("Search source {} failed for query '{}'", type, query, e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.values().forEach(pending -> pending.cancel(true));
+                throw new IllegalStateException("Search interrupted", e);
+            }
+        }
+
+        return new SearchResults(hits, sources);
+    }
+
+    private void timedOut(DocumentType type, String query, long startTime,
+                          Map<DocumentType, List<SearchHit>> hits, Map<DocumentType, SourceStatus> sources) {
+        hits.put(type, List.of());
+        sources.put(type, new SourceStatus(SourceStatus.State.TIMED_OUT, elapsedMs(startTime)));
+        log.warn("Search source {} missed its {}ms deadline for query '{}'", type, sourceTimeoutMs, query);
+    }
+
+    /**
+     * Run a source query once a permit is free, with the time left until the
+     * deadline as its timeout
+     */
+    private Future<TimedHits> submit(long deadline, SourceQuery source) {
+        return sourceExecutor.submit(() -> {
+            long startTime = System.nanoTime();
+            if (!queryPermits.tryAcquire(deadline - startTime, TimeUnit.NANOSECONDS)) {
+                throw new TimeoutException("No database query permit before the deadline");
+            }
+            try {
+                long timeoutMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+                List<SearchHit> hits = source.run(timeoutMs);
+                return new TimedHits(hits, elapsedMs(startTime));
+            } finally {
+                queryPermits.release();
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sourceExecutor.shutdownNow();
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    @FunctionalInterface
+    private interface SourceQuery {
+        List<SearchHit> run(long timeoutMs);
+    }
+
+    private record TimedHits(List<SearchHit> hits, long latencyMs) {
+    }
+}
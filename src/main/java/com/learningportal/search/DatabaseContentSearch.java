@@ -0,0 +1,105 @@
+package com.learningportal.search;
+
+import com.learningportal.model.InterviewQuestion;
+import com.learningportal.model.LearningModule;
+import com.learningportal.model.Topic;
+import com.learningportal.repository.InterviewQuestionRepository;
+import com.learningportal.repository.LearningModuleRepository;
+import com.learningportal.repository.TopicRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Database Content Search
+ *
+ * Answers content searches with PostgreSQL queries. Exact mode uses the
+ * repository LIKE queries and fuzzy mode the pg_trgm word-similarity
+ * queries; both are served by the trigram GIN indexes that
+ * {@link TrigramIndexInitializer} creates. Rows are mapped to the same
+ * {@link SearchHit} shape the in-memory index returns, scored by trigram
+ * word similarity against the title.
+ *
+ * Each query runs in its own read-only transaction whose timeout is the
+ * time the caller has left. Spring hands that to the query as
+ * {@code jakarta.persistence.query.timeout} and the driver cancels the
+ * statement on the server once it passes, so a query the caller gave up on
+ * does not keep its connection. JDBC timeouts are whole seconds, rounded
+ * up here.
+ */
+@Component
+public class DatabaseContentSearch {
+
+    private final LearningModuleRepository moduleRepository;
+    private final TopicRepository topicRepository;
+    private final InterviewQuestionRepository questionRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    public DatabaseContentSearch(LearningModuleRepository moduleRepository,
+                                 TopicRepository topicRepository,
+                                 InterviewQuestionRepository questionRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.moduleRepository = moduleRepository;
+        this.topicRepository = topicRepository;
+        this.questionRepository = questionRepository;
+        this.transactionManager = transactionManager;
+    }
+
+    public List<SearchHit> searchModules(String query, int limit, SearchMode mode, long timeoutMs) {
+        return withTimeout(timeoutMs, status -> {
+            List<LearningModule> modules = mode == SearchMode.FUZZY
+                ? moduleRepository.fuzzySearchModules(query, limit)
+                : moduleRepository.searchModules(query, PageRequest.of(0, limit)).getContent();
+
+            return modules.stream()
+                .map(module -> new SearchHit(DocumentType.MODULE, module.getId(), module.getId(),
+                    module.getName(), SearchDocument.truncate(module.getDescription()),
+                    score(query, module.getName())))
+                .toList();
+        });
+    }
+
+    public List<SearchHit> searchTopics(String query, int limit, SearchMode mode, long timeoutMs) {
+        return withTimeout(timeoutMs, status -> {
+            List<Topic> topics = mode == SearchMode.FUZZY
+                ? topicRepository.fuzzySearchTopics(query, limit)
+                : topicRepository.searchTopics(query, PageRequest.of(0, limit)).getContent();
+
+            return topics.stream()
+                .map(topic -> new SearchHit(DocumentType.TOPIC, topic.getId(), topic.getModuleId(),
+                    topic.getTitle(), SearchDocument.truncate(topic.getDescription()),
+                    score(query, topic.getTitle())))
+                .toList();
+        });
+    }
+
+    public List<SearchHit> searchQuestions(String query, int limit, SearchMode mode, long timeoutMs) {
+        return withTimeout(timeoutMs, status -> {
+            List<InterviewQuestion> questions = mode == SearchMode.FUZZY
+                ? questionRepository.fuzzySearchQuestions(query, limit)
+                : questionRepository.searchQuestions(query, PageRequest.of(0, limit)).getContent();
+
+            return questions.stream()
+                .map(question -> new SearchHit(DocumentType.QUESTION, question.getId(), question.getModuleId(),
+                    question.getQuestion(), ContentSearchIndex.summary(question),
+                    score(query, question.getQuestion())))
+                .toList();
+        });
+    }
+
+    private <T> T withTimeout(long timeoutMs, TransactionCallback<T> query) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        template.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMs + 999)));
+        return template.execute(query);
+    }
+
+    private static double score(String query, String title) {
+        return Math.round(TrigramIndex.wordSimilarity(query, title) * 1000.0) / 1000.0;
+    }
+}
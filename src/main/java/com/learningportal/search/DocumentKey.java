@@ -0,0 +1,7 @@
+package com.learningportal.search;
+
+/**
+ * Identifies one indexed entity across all content types
+ */
+public record DocumentKey(DocumentType type, long id) {
+}
@@ -0,0 +1,23 @@
+package com.learningportal.search;
+
+/**
+ * Kinds of curriculum content held in the search index
+ */
+public enum DocumentType {
+    MODULE("modules"),
+    TOPIC("topics"),
+    QUESTION("questions");
+
+    private final String resultKey;
+
+    DocumentType(String resultKey) {
+        this.resultKey = resultKey;
+    }
+
+    /**
+     * Key used for this content type in search API responses
+     */
+    public String getResultKey() {
+        return resultKey;
+    }
+}
@@ -0,0 +1,44 @@
+package com.learningportal.search;
+
+import com.learningportal.model.InterviewQuestion;
+import com.learningportal.model.LearningModule;
+import com.learningportal.model.Topic;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Facets available on search results. Each facet belongs to one content
+ * type and takes the names of the matching model enum as its values.
+ */
+public enum Facet {
+    CATEGORY("category", DocumentType.MODULE, LearningModule.Category.values()),
+    DIFFICULTY_LEVEL("difficultyLevel", DocumentType.MODULE, LearningModule.DifficultyLevel.values()),
+    TOPIC_TYPE("topicType", DocumentType.TOPIC, Topic.TopicType.values()),
+    QUESTION_DIFFICULTY("questionDifficulty", DocumentType.QUESTION, InterviewQuestion.Difficulty.values());
+
+    private final String resultKey;
+    private final DocumentType documentType;
+    private final List<String> values;
+
+    Facet(String resultKey, DocumentType documentType, Enum<?>[] constants) {
+        this.resultKey = resultKey;
+        this.documentType = documentType;
+        this.values = Arrays.stream(constants).map(Enum::name).toList();
+    }
+
+    /**
+     * Key used for this facet in search API responses
+     */
+    public String getResultKey() {
+        return resultKey;
+    }
+
+    public DocumentType getDocumentType() {
+        return documentType;
+    }
+
+    public List<String> getValues() {
+        return values;
+    }
+}
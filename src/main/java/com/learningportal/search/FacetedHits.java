@@ -0,0 +1,13 @@
+package com.learningportal.search;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Best hits per content type together with the number of matching
+ * documents for every value of every facet
+ */
+public record FacetedHits(Map<DocumentType, List<SearchHit>> hits,
+                          Map<Facet, Map<String, Integer>> facetCounts,
+                          int totalMatches) {
+}
@@ -0,0 +1,208 @@
+package com.learningportal.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Highlighter
+ *
+ * Builds search result snippets from stored note text. Words are found with
+ * the same rules as {@link SearchTokenizer}, so a word is highlighted
+ * exactly when its term matched the query. A snippet is the window of text
+ * that holds the most matches, cut at word boundaries; the output is
+ * HTML-escaped with matches wrapped in {@code <mark>} tags.
+ */
+final class Highlighter {
+
+    static final String PRE_TAG = "<mark>";
+    static final String POST_TAG = "</mark>";
+
+    private static final String ELLIPSIS = "...";
+    private static final int MAX_TOKEN_LENGTH = 40;
+
+    private Highlighter() {
+    }
+
+    /**
+     * Reduce markup to its text: tags become whitespace, common entities
+     * are decoded and runs of whitespace collapse to one space.
+     */
+    static String stripMarkup(String html) {
+        if (html == null || html.isEmpty()) {
+            return "";
+        }
+
+        StringBuilder text = new StringBuilder(html.length());
+        boolean inTag = false;
+        for (int i = 0; i < html.length(); i++) {
+            char c = html.charAt(i);
+            if (inTag) {
+                inTag = c != '>';
+                continue;
+            }
+            if (c == '<' && i + 1 < html.length() && isTagStart(html.charAt(i + 1))) {
+                inTag = true;
+                appendSpace(text);
+            } else if (c == '&') {
+                int end = html.indexOf(';', i);
+                String decoded = end > i && end - i <= 6 ? decodeEntity(html.substring(i + 1, end)) : null;
+                if (decoded != null) {
+                    if (decoded.equals(" ")) {
+                        appendSpace(text);
+                    } else {
+                        text.append(decoded);
+                    }
+                    i = end;
+                } else {
+                    text.append(c);
+                }
+            } else if (Character.isWhitespace(c)) {
+                appendSpace(text);
+            } else {
+                text.append(c);
+            }
+        }
+        return text.toString().trim();
+    }
+
+    /**
+     * Escape the whole text, marking every matched word
+     */
+    static String highlight(String text, Set<String> terms) {
+        if (text == null) {
+            return null;
+        }
+        return render(text, 0, text.length(), matches(text, terms));
+    }
+
+    /**
+     * Escape at most {@code maxLength} characters of the text around its
+     * densest cluster of matched words, marking each of them. Text without
+     * matches yields its beginning.
+     */
+    static String snippet(String text, Set<String> terms, int maxLength) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        List<int[]> matches = matches(text, terms);
+        if (text.length() <= maxLength) {
+            return render(text, 0, text.length(), matches);
+        }
+
+        // Start a little before the match that begins the densest window
+        int lead = maxLength / 5;
+        int bestStart = 0;
+        int bestCount = 0;
+        for (int first = 0, last = 0; first < matches.size(); first++) {
+            last = Math.max(last, first);
+            while (last < matches.size() && matches.get(last)[1] <= matches.get(first)[0] - lead + maxLength) {
+                last++;
+            }
+            if (last - first > bestCount) {
+                bestCount = last - first;
+                bestStart = Math.max(0, matches.get(first)[0] - lead);
+            }
+        }
+
+        int from = bestStart;
+        if (from > 0) {
+            int space = text.indexOf(' ', from);
+            from = space >= 0 && space < from + lead ? space + 1 : from;
+        }
+        int to = Math.min(text.length(), from + maxLength);
+        if (to < text.length()) {
+            int space = text.lastIndexOf(' ', to);
+            to = space > from ? space : to;
+        }
+
+        StringBuilder snippet = new StringBuilder();
+        if (from > 0) {
+            snippet.append(ELLIPSIS);
+        }
+        snippet.append(render(text, from, to, matches));
+        if (to < text.length()) {
+            snippet.append(ELLIPSIS);
+        }
+        return snippet.toString();
+    }
+
+    /**
+     * Start and end offsets of every word whose term is in {@code terms}
+     */
+    private static List<int[]> matches(String text, Set<String> terms) {
+        List<int[]> matches = new ArrayList<>();
+        if (terms.isEmpty()) {
+            return matches;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                if (i - start <= MAX_TOKEN_LENGTH && terms.contains(text.substring(start, i).toLowerCase())) {
+                    matches.add(new int[] {start, i});
+                }
+                start = -1;
+            }
+        }
+        return matches;
+    }
+
+    private static String render(String text, int from, int to, List<int[]> matches) {
+        StringBuilder out = new StringBuilder(to - from + 16);
+        int position = from;
+        for (int[] match : matches) {
+            if (match[1] <= from || match[0] < position) {
+                continue;
+            }
+            if (match[1] > to) {
+                break;
+            }
+            escape(text, position, match[0], out);
+            out.append(PRE_TAG);
+            escape(text, match[0], match[1], out);
+            out.append(POST_TAG);
+            position = match[1];
+        }
+        escape(text, position, to, out);
+        return out.toString();
+    }
+
+    private static void escape(String text, int from, int to, StringBuilder out) {
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+
+    private static String decodeEntity(String entity) {
+        return switch (entity) {
+            case "amp" -> "&";
+            case "lt" -> "<";
+            case "gt" -> ">";
+            case "quot" -> "\"";
+            case "#39", "apos" -> "'";
+            case "nbsp" -> " ";
+            default -> null;
+        };
+    }
+
+    private static void appendSpace(StringBuilder text) {
+        if (!text.isEmpty() && text.charAt(text.length() - 1) != ' ') {
+            text.append(' ');
+        }
+    }
+
+    private static boolean isTagStart(char c) {
+        return Character.isLetter(c) || c == '/' || c == '!';
+    }
+}
@@ -0,0 +1,38 @@
+package com.learningportal.search;
+
+import java.time.LocalDateTime;
+
+/**
+ * Committed content change waiting to be applied to the search index. The
+ * writer only records which row changed; the indexer reloads a saved row
+ * and resolves the change with its document before applying it.
+ *
+ * @param document       the row's document once resolved; null for a deletion
+ * @param modifiedAt     the entity's last modification time, which moves the
+ *                       high-water mark of persisted segments
+ * @param committedNanos {@link System#nanoTime()} when the writing
+ *                       transaction committed, used to measure index lag
+ */
+record IndexChange(DocumentKey key, boolean deleted, SearchDocument document, LocalDateTime modifiedAt,
+                   long committedNanos) implements IndexEvent {
+
+    static IndexChange saved(DocumentKey key) {
+        return new IndexChange(key, false, null, null, System.nanoTime());
+    }
+
+    static IndexChange delete(DocumentKey key) {
+        return new IndexChange(key, true, null, null, System.nanoTime());
+    }
+
+    /**
+     * This change with the row as reloaded; a row that is gone makes it a
+     * deletion
+     */
+    IndexChange resolve(SearchDocument document, LocalDateTime modifiedAt) {
+        return new IndexChange(key, document == null, document, modifiedAt, committedNanos);
+    }
+
+    boolean isDelete() {
+        return deleted;
+    }
+}
@@ -0,0 +1,14 @@
+package com.learningportal.search;
+
+/**
+ * Committed change waiting on the {@link SearchIndexer} queue, either to
+ * the content index or to the notes index
+ */
+sealed interface IndexEvent permits IndexChange, NoteChange {
+
+    /**
+     * {@link System#nanoTime()} when the writing transaction committed,
+     * used to measure index lag
+     */
+    long committedNanos();
+}
@@ -0,0 +1,455 @@
+package com.learningportal.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Immutable Inverted Index Segment
+ *
+ * Maps every term to a posting list of (document ordinal, term frequency)
+ * pairs and ranks matches with Okapi BM25 (see {@link Bm25Scorer}). A segment is never modified after
+ * it is built; callers publish a new segment to reflect content changes, so
+ * readers can search without any locking.
+ *
+ * Tags are held as one bitset per tag over document ordinals. Because
+ * documents are ordered by type, each content type occupies a contiguous
+ * ordinal range and a tag query is answered with word-wide bitset
+ * intersections or unions followed by one pass over each range. Facet
+ * values are bitsets too, so facet counts come from intersecting them with
+ * the set of matched documents.
+ */
+public final class IndexSegment {
+
+    private static final IndexSegment EMPTY = build(List.of());
+
+    private final SearchDocument[] documents;
+    private final Map<DocumentKey, Integer> ordinals;
+    private final Bm25Scorer scorer;
+    private final Map<String, BitSet> tagPostings;
+    private final Map<Facet, Map<String, BitSet>> facetPostings;
+    private final int[] typeStarts;
+
+    private IndexSegment(SearchDocument[] documents, Map<String, PostingList> postings,
+                         Map<String, BitSet> tagPostings, Map<Facet, Map<String, BitSet>> facetPostings) {
+        this.documents = documents;
+        this.tagPostings = tagPostings;
+        this.facetPostings = facetPostings;
+        this.ordinals = new HashMap<>(documents.length * 2);
+
+        int[] lengths = new int[documents.length];
+        for (int ordinal = 0; ordinal < documents.length; ordinal++) {
+            lengths[ordinal] = documents[ordinal].length();
+            ordinals.put(documents[ordinal].key(), ordinal);
+        }
+        this.scorer = new Bm25Scorer(postings, lengths);
+
+        // typeStarts[t] is the first ordinal of type t; the last entry is the document count
+        DocumentType[] types = DocumentType.values();
+        this.typeStarts = new int[types.length + 1];
+        int ordinal = 0;
+        for (DocumentType type : types) {
+            typeStarts[type.ordinal()] = ordinal;
+            while (ordinal < documents.length && documents[ordinal].key().type() == type) {
+                ordinal++;
+            }
+        }
+        typeStarts[types.length] = documents.length;
+    }
+
+    public static IndexSegment empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Build a segment from analyzed documents. Documents are ordered by key
+     * so ordinals, and therefore tie-breaking between equal scores, are
+     * deterministic for the same content.
+     */
+    public static IndexSegment build(Collection<SearchDocument> source) {
+        SearchDocument[] documents = source.toArray(new SearchDocument[0]);
+        Arrays.sort(documents, Comparator
+            .comparing((SearchDocument document) -> document.key().type())
+            .thenComparingLong(document -> document.key().id()));
+
+        Map<String, PostingList.Builder> builders = new HashMap<>();
+        Map<String, BitSet> tagPostings = new HashMap<>();
+        Map<Facet, Map<String, BitSet>> facetPostings = new EnumMap<>(Facet.class);
+        for (int ordinal = 0; ordinal < documents.length; ordinal++) {
+            for (Map.Entry<String, Integer> entry : documents[ordinal].termFrequencies().entrySet()) {
+                builders.computeIfAbsent(entry.getKey(), term -> new PostingList.Builder())
+                    .add(ordinal, entry.getValue());
+            }
+            for (String tag : documents[ordinal].tags()) {
+                tagPostings.computeIfAbsent(tag, key -> new BitSet(documents.length)).set(ordinal);
+            }
+            for (Map.Entry<Facet, String> facet : documents[ordinal].facets().entrySet()) {
+                facetPostings.computeIfAbsent(facet.getKey(), key -> new HashMap<>())
+                    .computeIfAbsent(facet.getValue(), value -> new BitSet(documents.length)).set(ordinal);
+            }
+        }
+
+        Map<String, PostingList> postings = new HashMap<>(builders.size() * 2);
+        builders.forEach((term, builder) -> postings.put(term, builder.build()));
+
+        return new IndexSegment(documents, postings, tagPostings, facetPostings);
+    }
+
+    public int size() {
+        return documents.length;
+    }
+
+    public int termCount() {
+        return scorer.termCount();
+    }
+
+    public SearchDocument document(int ordinal) {
+        return documents[ordinal];
+    }
+
+    public Integer ordinalOf(DocumentKey key) {
+        return ordinals.get(key);
+    }
+
+    PostingList postings(String term) {
+        return scorer.postings(term);
+    }
+
+    public Map<DocumentType, List<SearchHit>> search(String query, int limitPerType) {
+        return search(query, limitPerType, SearchMode.EXACT);
+    }
+
+    /**
+     * Rank documents against a free-text query in a single scoring pass and
+     * return the best hits for each content type. In fuzzy mode every query
+     * term is also expanded to indexed terms within its edit budget, with
+     * closer matches weighted higher.
+     */
+    public Map<DocumentType, List<SearchHit>> search(String query, int limitPerType, SearchMode mode) {
+        float[] scores = scorer.score(query, mode, null);
+        if (scores == null || limitPerType <= 0) {
+            return emptyHits();
+        }
+        return collectTopHits(scores, limitPerType, null, null);
+    }
+
+    /**
+     * Rank documents as {@link #search} does, keeping only documents that
+     * pass the facet filters, and count every facet value across the
+     * matches. Facet values and filters are bitsets, so counting costs a
+     * few word-wide intersections on top of the scoring pass.
+     *
+     * A filter only restricts documents of its facet's content type; values
+     * of one facet combine with OR and different facets with AND. Each
+     * facet is counted with every filter except its own applied, so the
+     * counts show what selecting another value of that facet would return.
+     */
+    public FacetedHits facetedSearch(String query, int limitPerType, SearchMode mode,
+                                     Map<Facet, Set<String>> filters) {
+        Map<Facet, BitSet> filterBits = new EnumMap<>(Facet.class);
+        filters.forEach((facet, values) -> {
+            if (values != null && !values.isEmpty()) {
+                filterBits.put(facet, facetFilter(facet, values));
+            }
+        });
+
+        BitSet allowed = null;
+        for (BitSet bits : filterBits.values()) {
+            if (allowed == null) {
+                allowed = (BitSet) bits.clone();
+            } else {
+                allowed.and(bits);
+            }
+        }
+
+        BitSet matched = new BitSet(documents.length);
+        float[] scores = scorer.score(query, mode, null);
+        Map<DocumentType, List<SearchHit>> hits = scores == null || limitPerType <= 0
+            ? emptyHits()
+            : collectTopHits(scores, limitPerType, allowed, matched);
+
+        Map<Facet, Map<String, Integer>> facetCounts = new EnumMap<>(Facet.class);
+        for (Facet facet : Facet.values()) {
+            BitSet base = (BitSet) matched.clone();
+            filterBits.forEach((other, bits) -> {
+                if (other != facet) {
+                    base.and(bits);
+                }
+            });
+
+            Map<String, BitSet> valueBits = facetPostings.getOrDefault(facet, Map.of());
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            for (String value : facet.getValues()) {
+                BitSet bits = valueBits.get(value);
+                if (bits == null) {
+                    counts.put(value, 0);
+                    continue;
+                }
+                BitSet intersection = (BitSet) bits.clone();
+                intersection.and(base);
+                counts.put(value, intersection.cardinality());
+            }
+            facetCounts.put(facet, counts);
+        }
+
+        if (allowed != null) {
+            matched.and(allowed);
+        }
+        return new FacetedHits(hits, facetCounts, matched.cardinality());
+    }
+
+    /**
+     * Documents of other types, plus documents of the facet's type holding
+     * any of the given values
+     */
+    private BitSet facetFilter(Facet facet, Set<String> values) {
+        BitSet bits = new BitSet(documents.length);
+        bits.set(0, documents.length);
+        bits.clear(typeStarts[facet.getDocumentType().ordinal()], typeStarts[facet.getDocumentType().ordinal() + 1]);
+
+        Map<String, BitSet> valueBits = facetPostings.getOrDefault(facet, Map.of());
+        for (String value : values) {
+            BitSet holders = valueBits.get(value);
+            if (holders != null) {
+                bits.or(holders);
+            }
+        }
+        return bits;
+    }
+
+    private static Map<DocumentType, List<SearchHit>> emptyHits() {
+        Map<DocumentType, List<SearchHit>> results = new EnumMap<>(DocumentType.class);
+        for (DocumentType type : DocumentType.values()) {
+            results.put(type, List.of());
+        }
+        return results;
+    }
+
+    /**
+     * Match documents against a tag query and return one page of hits per
+     * requested content type, ranked by the number of query tags each
+     * document carries (ties in key order).
+     *
+     * A tag matches a document that is labelled with it or whose text
+     * contains every word of it. The per-tag bitsets are combined once for
+     * the whole query, so the cost grows with the number of matches rather
+     * than with the number of tags times the size of the content.
+     */
+    public Map<DocumentType, TagPage> searchTags(Collection<String> tags, TagMatch match,
+                                                 Set<DocumentType> types, int page, int size) {
+        Map<DocumentType, TagPage> results = new EnumMap<>(DocumentType.class);
+        for (DocumentType type : types) {
+            results.put(type, TagPage.EMPTY);
+        }
+
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String tag : tags) {
+            String key = SearchDocument.normalizeTag(tag);
+            if (!key.isEmpty()) {
+                normalized.add(key);
+            }
+        }
+        if (normalized.isEmpty() || documents.length == 0 || page < 0 || size <= 0) {
+            return results;
+        }
+
+        BitSet[] tagBits = new BitSet[normalized.size()];
+        int index = 0;
+        for (String tag : normalized) {
+            tagBits[index++] = tagBits(tag);
+        }
+
+        BitSet combined = (BitSet) tagBits[0].clone();
+        for (int i = 1; i < tagBits.length; i++) {
+            if (match == TagMatch.ALL) {
+                combined.and(tagBits[i]);
+            } else {
+                combined.or(tagBits[i]);
+            }
+        }
+
+        for (DocumentType type : types) {
+            results.put(type, tagPage(combined, tagBits, type, page, size));
+        }
+        return results;
+    }
+
+    private TagPage tagPage(BitSet combined, BitSet[] tagBits, DocumentType type, int page, int size) {
+        int from = typeStarts[type.ordinal()];
+        int to = typeStarts[type.ordinal() + 1];
+
+        // Count matching tags per document, then bucket by count (highest first)
+        // so ranking is a counting sort rather than a comparison sort
+        int[] matched = new int[combined.get(from, to).cardinality()];
+        int[] counts = new int[matched.length];
+        int[] histogram = new int[tagBits.length + 1];
+        int total = 0;
+        for (int ordinal = combined.nextSetBit(from); ordinal >= 0 && ordinal < to; ordinal = combined.nextSetBit(ordinal + 1)) {
+            int count = 0;
+            for (BitSet bits : tagBits) {
+                if (bits.get(ordinal)) {
+                    count++;
+                }
+            }
+            matched[total] = ordinal;
+            counts[total] = count;
+            histogram[count]++;
+            total++;
+        }
+
+        int offset = (int) Math.min((long) page * size, total);
+        if (offset == total) {
+            return new TagPage(List.of(), total);
+        }
+
+        int[] bucketStart = new int[histogram.length];
+        int position = 0;
+        for (int count = histogram.length - 1; count >= 0; count--) {
+            bucketStart[count] = position;
+            position += histogram[count];
+        }
+        int[] ranked = new int[total];
+        for (int i = 0; i < total; i++) {
+            ranked[bucketStart[counts[i]]++] = i;
+        }
+
+        int end = Math.min(offset + size, total);
+        List<SearchHit> hits = new ArrayList<>(end - offset);
+        for (int i = offset; i < end; i++) {
+            hits.add(toHit(matched[ranked[i]], counts[ranked[i]]));
+        }
+        return new TagPage(hits, total);
+    }
+
+    private BitSet tagBits(String tag) {
+        BitSet bits = new BitSet(documents.length);
+        BitSet labelled = tagPostings.get(tag);
+        if (labelled != null) {
+            bits.or(labelled);
+        }
+
+        BitSet containing = null;
+        for (String term : tag.split(" ")) {
+            BitSet termBits = new BitSet(documents.length);
+            PostingList list = scorer.postings(term);
+            if (list != null) {
+                for (int ordinal : list.documents()) {
+                    termBits.set(ordinal);
+                }
+            }
+            if (containing == null) {
+                containing = termBits;
+            } else {
+                containing.and(termBits);
+            }
+        }
+        if (containing != null) {
+            bits.or(containing);
+        }
+        return bits;
+    }
+
+    /**
+     * Select the best hits per type in one pass over the scores, skipping
+     * documents outside {@code allowed} (when given) and recording every
+     * scored document in {@code matched} (when given).
+     */
+    private Map<DocumentType, List<SearchHit>> collectTopHits(float[] scores, int limitPerType,
+                                                              BitSet allowed, BitSet matched) {
+        Map<DocumentType, PriorityQueue<Integer>> heaps = new EnumMap<>(DocumentType.class);
+        Comparator<Integer> byScore = Comparator
+            .comparingDouble((Integer ordinal) -> scores[ordinal])
+            .thenComparing(Comparator.reverseOrder());
+
+        for (int ordinal = 0; ordinal < scores.length; ordinal++) {
+            if (scores[ordinal] <= 0f) {
+                continue;
+            }
+            if (matched != null) {
+                matched.set(ordinal);
+            }
+            if (allowed != null && !allowed.get(ordinal)) {
+                continue;
+            }
+            PriorityQueue<Integer> heap = heaps.computeIfAbsent(documents[ordinal].key().type(),
+                type -> new PriorityQueue<>(byScore));
+            heap.offer(ordinal);
+            if (heap.size() > limitPerType) {
+                heap.poll();
+            }
+        }
+
+        Map<DocumentType, List<SearchHit>> results = new EnumMap<>(DocumentType.class);
+        for (DocumentType type : DocumentType.values()) {
+            PriorityQueue<Integer> heap = heaps.get(type);
+            if (heap == null) {
+                results.put(type, List.of());
+                continue;
+            }
+            List<SearchHit> hits = new ArrayList<>(heap.size());
+            while (!heap.isEmpty()) {
+                int ordinal = heap.poll();
+                hits.add(toHit(ordinal, scores[ordinal]));
+            }
+            Collections.reverse(hits);
+            results.put(type, hits);
+        }
+        return results;
+    }
+
+    /**
+     * The hit for a document by key, or null if the segment does not hold it
+     */
+    SearchHit hit(DocumentKey key, double score) {
+        Integer ordinal = ordinals.get(key);
+        return ordinal != null ? toHit(ordinal, score) : null;
+    }
+
+    private SearchHit toHit(int ordinal, double score) {
+        SearchDocument document = documents[ordinal];
+        return new SearchHit(document.key().type(), document.key().id(), document.moduleId(),
+            document.title(), document.summary(), Math.round(score * 1000.0) / 1000.0);
+    }
+
+    /**
+     * Ordinals and frequencies of every document containing one term, with
+     * ordinals in ascending order.
+     */
+    record PostingList(int[] documents, int[] frequencies) {
+
+        int size() {
+            return documents.length;
+        }
+
+        static final class Builder {
+            private int[] documents = new int[4];
+            private int[] frequencies = new int[4];
+            private int size;
+
+            void add(int ordinal, int frequency) {
+                if (size == documents.length) {
+                    documents = Arrays.copyOf(documents, size * 2);
+                    frequencies = Arrays.copyOf(frequencies, size * 2);
+                }
+                documents[size] = ordinal;
+                frequencies[size] = frequency;
+                size++;
+            }
+
+            PostingList build() {
+                return new PostingList(Arrays.copyOf(documents, size), Arrays.copyOf(frequencies, size));
+            }
+        }
+    }
+}
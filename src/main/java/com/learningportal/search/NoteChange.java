@@ -0,0 +1,37 @@
+package com.learningportal.search;
+
+/**
+ * Committed note change waiting to be applied to the notes index. The
+ * writer only records which note changed and its owner; the indexer
+ * reloads a saved note and resolves the change with its document before
+ * applying it.
+ *
+ * @param document the note's document once resolved; null for a deletion
+ */
+record NoteChange(long noteId, Long userId, boolean deleted, NoteDocument document, long committedNanos)
+        implements IndexEvent {
+
+    static NoteChange saved(long noteId, Long userId) {
+        return new NoteChange(noteId, userId, false, null, System.nanoTime());
+    }
+
+    static NoteChange upsert(NoteDocument document) {
+        return new NoteChange(document.id(), document.userId(), false, document, System.nanoTime());
+    }
+
+    static NoteChange delete(long noteId, Long userId) {
+        return new NoteChange(noteId, userId, true, null, System.nanoTime());
+    }
+
+    /**
+     * This change with the note as reloaded; a note that is gone makes it a
+     * deletion
+     */
+    NoteChange resolve(NoteDocument document) {
+        return new NoteChange(noteId, userId, document == null, document, committedNanos);
+    }
+
+    boolean isDelete() {
+        return deleted;
+    }
+}
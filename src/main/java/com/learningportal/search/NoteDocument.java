@@ -0,0 +1,46 @@
+package com.learningportal.search;
+
+import com.learningportal.model.UserNote;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Analyzed form of one user note.
+ *
+ * Unlike content documents, notes keep their text - stripped of markup -
+ * because search results show a highlighted snippet of the passage that
+ * matched. Title terms carry the same extra weight as content titles.
+ */
+record NoteDocument(
+        long id,
+        Long userId,
+        Long moduleId,
+        Long topicId,
+        UserNote.Category category,
+        String title,
+        String text,
+        boolean isPublic,
+        LocalDateTime updatedAt,
+        Map<String, Integer> termFrequencies,
+        int length) {
+
+    static NoteDocument of(long id, Long userId, Long moduleId, Long topicId, UserNote.Category category,
+                           String title, String content, boolean isPublic, LocalDateTime updatedAt) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = 0;
+
+        for (String term : SearchTokenizer.tokenize(title)) {
+            frequencies.merge(term, SearchDocument.TITLE_WEIGHT, Integer::sum);
+            length += SearchDocument.TITLE_WEIGHT;
+        }
+        for (String term : SearchTokenizer.tokenize(content)) {
+            frequencies.merge(term, 1, Integer::sum);
+            length++;
+        }
+
+        return new NoteDocument(id, userId, moduleId, topicId, category, title, Highlighter.stripMarkup(content),
+            isPublic, updatedAt, Map.copyOf(frequencies), length);
+    }
+}
@@ -0,0 +1,25 @@
+package com.learningportal.search;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.learningportal.model.UserNote;
+
+import java.time.LocalDateTime;
+
+/**
+ * Single ranked note search result. The highlighted title and snippet are
+ * HTML-escaped text with matched terms wrapped in {@code <mark>} tags.
+ */
+public record NoteHit(
+        long id,
+        Long userId,
+        Long moduleId,
+        Long topicId,
+        UserNote.Category category,
+        String title,
+        String highlightedTitle,
+        String snippet,
+        boolean isPublic,
+        @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss")
+        LocalDateTime updatedAt,
+        double score) {
+}
@@ -0,0 +1,148 @@
+package com.learningportal.search;
+
+import com.learningportal.search.IndexSegment.PostingList;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Immutable Note Partition
+ *
+ * Inverted index over one user's notes, or over all public notes. Like an
+ * {@link IndexSegment} it is never modified once built: applying changes
+ * builds a replacement, which for a single user's notes costs little more
+ * than analyzing the changed note itself.
+ *
+ * Notes are ordered most recently updated first, so equal scores - and a
+ * query that matches many notes equally - favour recent notes.
+ */
+final class NotePartition {
+
+    static final int SNIPPET_LENGTH = 200;
+
+    private static final NotePartition EMPTY = build(List.of());
+
+    private final NoteDocument[] documents;
+    private final Bm25Scorer scorer;
+
+    private NotePartition(NoteDocument[] documents, Bm25Scorer scorer) {
+        this.documents = documents;
+        this.scorer = scorer;
+    }
+
+    static NotePartition empty() {
+        return EMPTY;
+    }
+
+    static NotePartition build(Collection<NoteDocument> source) {
+        NoteDocument[] documents = source.toArray(new NoteDocument[0]);
+        Arrays.sort(documents, Comparator
+            .comparing(NoteDocument::updatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Comparator.comparingLong(NoteDocument::id).reversed()));
+
+        Map<String, PostingList.Builder> builders = new HashMap<>();
+        int[] lengths = new int[documents.length];
+        for (int ordinal = 0; ordinal < documents.length; ordinal++) {
+            lengths[ordinal] = documents[ordinal].length();
+            for (Map.Entry<String, Integer> entry : documents[ordinal].termFrequencies().entrySet()) {
+                builders.computeIfAbsent(entry.getKey(), term -> new PostingList.Builder())
+                    .add(ordinal, entry.getValue());
+            }
+        }
+
+        Map<String, PostingList> postings = new HashMap<>(builders.size() * 2);
+        builders.forEach((term, builder) -> postings.put(term, builder.build()));
+        return new NotePartition(documents, new Bm25Scorer(postings, lengths));
+    }
+
+    int size() {
+        return documents.length;
+    }
+
+    /**
+     * Build the partition that results from applying changes in order.
+     * Upserted notes are kept only if they belong to this partition, so a
+     * note made private leaves the public partition.
+     */
+    NotePartition apply(List<NoteChange> changes, Predicate<NoteDocument> belongs) {
+        Map<Long, NoteDocument> notes = new LinkedHashMap<>(documents.length * 2);
+        for (NoteDocument document : documents) {
+            notes.put(document.id(), document);
+        }
+
+        boolean changed = false;
+        for (NoteChange change : changes) {
+            changed |= notes.remove(change.noteId()) != null;
+            if (!change.isDelete() && belongs.test(change.document())) {
+                notes.put(change.noteId(), change.document());
+                changed = true;
+            }
+        }
+        return changed ? build(notes.values()) : this;
+    }
+
+    /**
+     * Rank notes against a free-text query and return one page of hits with
+     * highlighted titles and snippets. Only the notes on the requested page
+     * are highlighted.
+     */
+    Page<NoteHit> search(String query, SearchMode mode, Pageable pageable) {
+        Set<String> matchedTerms = new HashSet<>();
+        float[] scores = scorer.score(query, mode, matchedTerms);
+        if (scores == null) {
+            return new PageImpl<>(List.of(), pageable, 0);
+        }
+
+        // Keep the best (offset + size) notes; ties go to the lower, more recent ordinal
+        long wanted = pageable.getOffset() + pageable.getPageSize();
+        int limit = (int) Math.min(wanted, documents.length);
+        PriorityQueue<Integer> heap = new PriorityQueue<>(Comparator
+            .comparingDouble((Integer ordinal) -> scores[ordinal])
+            .thenComparing(Comparator.reverseOrder()));
+        int total = 0;
+        for (int ordinal = 0; ordinal < scores.length; ordinal++) {
+            if (scores[ordinal] <= 0f) {
+                continue;
+            }
+            total++;
+            heap.offer(ordinal);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+
+        List<Integer> ranked = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            ranked.add(heap.poll());
+        }
+        Collections.reverse(ranked);
+
+        List<NoteHit> hits = new ArrayList<>();
+        for (int i = (int) Math.min(pageable.getOffset(), ranked.size()); i < ranked.size(); i++) {
+            hits.add(toHit(ranked.get(i), scores[ranked.get(i)], matchedTerms));
+        }
+        return new PageImpl<>(hits, pageable, total);
+    }
+
+    private NoteHit toHit(int ordinal, double score, Set<String> matchedTerms) {
+        NoteDocument document = documents[ordinal];
+        return new NoteHit(document.id(), document.userId(), document.moduleId(), document.topicId(),
+            document.category(), document.title(), Highlighter.highlight(document.title(), matchedTerms),
+            Highlighter.snippet(document.text(), matchedTerms, SNIPPET_LENGTH), document.isPublic(),
+            document.updatedAt(), Math.round(score * 1000.0) / 1000.0);
+    }
+}
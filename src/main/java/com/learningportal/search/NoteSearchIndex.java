@@ -0,0 +1,206 @@
+package com.learningportal.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.learningportal.model.UserNote;
+import com.learningportal.repository.UserNoteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Note Search Index
+ *
+ * Full-text search over user notes, partitioned by owner. Each user's
+ * notes form their own {@link NotePartition}, and public notes form one
+ * shared partition, so a user's search only ever scores that user's notes
+ * no matter how many notes other users have written.
+ *
+ * Partitions are loaded from the database the first time they are searched
+ * and kept, up to a configurable number of users, until evicted. Committed
+ * note changes reach the index through the {@link SearchIndexer} and are
+ * applied only to partitions that are loaded or loading; an unloaded
+ * partition is read fresh on its next search.
+ *
+ * A load may read the notes just before a change commits, so a partition
+ * is registered as loading before it reads anything and deregistered only
+ * once it is installed. A change that finds its partition loading is
+ * reloaded like one for a loaded partition, and applying it waits for the
+ * load to finish and then applies it on top.
+ */
+@Service
+public class NoteSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(NoteSearchIndex.class);
+
+    private final UserNoteRepository noteRepository;
+    private final Cache<Long, NotePartition> userPartitions;
+    // Searches waiting on each user's partition load
+    private final Map<Long, Integer> loadingUsers = new ConcurrentHashMap<>();
+    private final Object publicLock = new Object();
+
+    // Null until the first public search
+    private volatile NotePartition publicPartition;
+    private volatile boolean publicLoading;
+
+    public NoteSearchIndex(UserNoteRepository noteRepository,
+                           @Value("${app.search.notes.max-user-partitions:10000}") long maxUserPartitions) {
+        this.noteRepository = noteRepository;
+        this.userPartitions = Caffeine.newBuilder()
+            .maximumSize(maxUserPartitions)
+            .build();
+    }
+
+    /**
+     * Search one user's notes, public or not
+     */
+    public Page<NoteHit> searchUserNotes(Long userId, String query, SearchMode mode, Pageable pageable) {
+        NotePartition partition = userPartitions.getIfPresent(userId);
+        if (partition == null) {
+            loadingUsers.merge(userId, 1, Integer::sum);
+            try {
+                partition = userPartitions.get(userId, this::loadUserPartition);
+            } finally {
+                loadingUsers.computeIfPresent(userId, (id, waiting) -> waiting == 1 ? null : waiting - 1);
+            }
+        }
+        return partition.search(query, mode, pageable);
+    }
+
+    /**
+     * Search the notes every user has shared
+     */
+    public Page<NoteHit> searchPublicNotes(String query, SearchMode mode, Pageable pageable) {
+        return publicPartition().search(query, mode, pageable);
+    }
+
+    /**
+     * Apply committed note changes to every loaded partition they touch,
+     * reloading and analyzing the saved notes on the indexer's thread
+     */
+    void apply(List<NoteChange> changes) {
+        List<NoteChange> resolved = resolve(changes);
+        Map<Long, List<NoteChange>> byUser = new LinkedHashMap<>();
+        for (NoteChange change : resolved) {
+            if (change.userId() != null) {
+                byUser.computeIfAbsent(change.userId(), id -> new ArrayList<>()).add(change);
+            }
+        }
+        // compute, unlike computeIfPresent, waits for a load in flight
+        byUser.forEach((userId, userChanges) -> userPartitions.asMap().compute(userId,
+            (id, partition) -> partition == null ? null : partition.apply(userChanges, document -> true)));
+
+        synchronized (publicLock) {
+            if (publicPartition != null) {
+                publicPartition = publicPartition.apply(resolved, NoteDocument::isPublic);
+            }
+        }
+    }
+
+    /**
+     * Drop every loaded partition so the next search reads notes afresh,
+     * used when queued changes had to be discarded
+     */
+    void invalidateAll() {
+        userPartitions.invalidateAll();
+        synchronized (publicLock) {
+            publicPartition = null;
+        }
+    }
+
+    /**
+     * Reload the saved notes some loaded or loading partition may hold.
+     * Saves no such partition can hold are dropped: a partition loaded later
+     * reads them from the database.
+     */
+    private List<NoteChange> resolve(List<NoteChange> changes) {
+        List<NoteChange> kept = new ArrayList<>(changes.size());
+        Set<Long> savedIds = new HashSet<>();
+        for (NoteChange change : changes) {
+            if (change.isDelete()) {
+                kept.add(change);
+            } else if (holdable(change.userId())) {
+                kept.add(change);
+                savedIds.add(change.noteId());
+            }
+        }
+        Map<Long, NoteDocument> reloaded = new HashMap<>();
+        if (!savedIds.isEmpty()) {
+            for (UserNote note : noteRepository.findAllById(savedIds)) {
+                reloaded.put(note.getId(), toDocument(note));
+            }
+        }
+        return kept.stream()
+            .map(change -> change.isDelete() ? change : change.resolve(reloaded.get(change.noteId())))
+            .toList();
+    }
+
+    /**
+     * Whether a partition holding this user's notes is loaded or loading.
+     * Loading is read first: a load is installed before it stops loading, so
+     * a load that read the notes before a change committed is always seen.
+     */
+    private boolean holdable(Long userId) {
+        if (publicLoading || publicPartition != null) {
+            return true;
+        }
+        return userId != null && (loadingUsers.containsKey(userId) || userPartitions.getIfPresent(userId) != null);
+    }
+
+    public long getLoadedUserPartitions() {
+        return userPartitions.estimatedSize();
+    }
+
+    private NotePartition publicPartition() {
+        NotePartition partition = publicPartition;
+        if (partition == null) {
+            synchronized (publicLock) {
+                partition = publicPartition;
+                if (partition == null) {
+                    publicLoading = true;
+                    try {
+                        partition = build(noteRepository.findByIsPublicTrueOrderByUpdatedAtDesc());
+                        publicPartition = partition;
+                    } finally {
+                        publicLoading = false;
+                    }
+                    log.info("Loaded public notes search partition: {} notes", partition.size());
+                }
+            }
+        }
+        return partition;
+    }
+
+    private NotePartition loadUserPartition(Long userId) {
+        return build(noteRepository.findByUserIdOrderByUpdatedAtDesc(userId));
+    }
+
+    private static NotePartition build(List<UserNote> notes) {
+        if (notes.isEmpty()) {
+            return NotePartition.empty();
+        }
+        List<NoteDocument> documents = new ArrayList<>(notes.size());
+        for (UserNote note : notes) {
+            documents.add(toDocument(note));
+        }
+        return NotePartition.build(documents);
+    }
+
+    static NoteDocument toDocument(UserNote note) {
+        return NoteDocument.of(note.getId(), note.getUserId(), note.getModuleId(), note.getTopicId(),
+            note.getCategory(), note.getTitle(), note.getContent(), Boolean.TRUE.equals(note.getIsPublic()),
+            ContentSearchIndex.latest(null, note.getUpdatedAt(), note.getCreatedAt()));
+    }
+}
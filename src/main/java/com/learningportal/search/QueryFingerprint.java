@@ -0,0 +1,179 @@
+package com.learningportal.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Query Fingerprint
+ *
+ * Normalized form of a search request, used as the key of cached results.
+ * Queries that the index is guaranteed to answer identically share one
+ * fingerprint: terms are normalized exactly as the tokenizer normalizes
+ * them (case, punctuation, markup, stop words), duplicates are dropped and
+ * all but the last term - the one expanded as a prefix - are sorted. Tags
+ * and filter values are sorted as well.
+ *
+ * A fingerprint also knows which documents could appear in its results,
+ * so a content change only evicts the cached queries it can affect.
+ */
+public record QueryFingerprint(
+        Scope scope,
+        List<String> terms,
+        SearchMode mode,
+        SortedMap<String, List<String>> filters,
+        int page,
+        int size) {
+
+    /**
+     * The kind of search a fingerprint identifies, which decides how its
+     * terms are matched against changed documents
+     */
+    public enum Scope {
+        /** Ranked full-text search over every content type */
+        CONTENT,
+        /** Full-text search with facet filters and counts */
+        FACETED,
+        /** Tag query; terms are normalized tags */
+        TAGS,
+        /** Case-insensitive substring search over module names and descriptions */
+        MODULE_TEXT
+    }
+
+    static final String TYPES_FILTER = "types";
+
+    /**
+     * Fingerprint a full-text query, or return null when it holds no
+     * searchable terms (such queries match nothing and are not worth caching)
+     */
+    public static QueryFingerprint ofQuery(Scope scope, String query, SearchMode mode,
+                                           Map<String, ? extends Collection<String>> filters, int page, int size) {
+        List<String> tokens = SearchTokenizer.tokenize(query);
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        String last = tokens.get(tokens.size() - 1);
+        Set<String> others = new TreeSet<>(tokens.subList(0, tokens.size() - 1));
+        others.remove(last);
+
+        List<String> terms = new ArrayList<>(others);
+        terms.add(last);
+        return new QueryFingerprint(scope, List.copyOf(terms), mode, sorted(filters), page, size);
+    }
+
+    /**
+     * Fingerprint a tag query, or return null when no tag is searchable
+     */
+    public static QueryFingerprint ofTags(Collection<String> tags, Map<String, ? extends Collection<String>> filters,
+                                          int page, int size) {
+        Set<String> normalized = new TreeSet<>();
+        for (String tag : tags) {
+            String key = SearchDocument.normalizeTag(tag);
+            if (!key.isEmpty()) {
+                normalized.add(key);
+            }
+        }
+        if (normalized.isEmpty()) {
+            return null;
+        }
+        return new QueryFingerprint(Scope.TAGS, List.copyOf(normalized), SearchMode.EXACT, sorted(filters), page, size);
+    }
+
+    /**
+     * Fingerprint a substring search; only case is normalized because the
+     * text is matched as typed
+     */
+    public static QueryFingerprint ofText(Scope scope, String text, int page, int size) {
+        String needle = text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+        return new QueryFingerprint(scope, List.of(needle), SearchMode.EXACT, sorted(Map.of()), page, size);
+    }
+
+    /**
+     * Whether a version of a document could be among this query's matches.
+     * Errs towards true, never towards false.
+     */
+    boolean mayMatch(SearchDocument document) {
+        List<String> types = filters.get(TYPES_FILTER);
+        if (types != null && !types.contains(document.key().type().name())) {
+            return false;
+        }
+
+        return switch (scope) {
+            case CONTENT, FACETED -> matchesTerms(document.termFrequencies().keySet());
+            case TAGS -> matchesTags(document);
+            case MODULE_TEXT -> document.key().type() == DocumentType.MODULE && matchesText(document);
+        };
+    }
+
+    private boolean matchesTerms(Set<String> documentTerms) {
+        String last = terms.get(terms.size() - 1);
+        for (String term : terms) {
+            if (documentTerms.contains(term)) {
+                return true;
+            }
+            if (mode == SearchMode.FUZZY && isWithinEdits(term, documentTerms)) {
+                return true;
+            }
+        }
+        if (last.length() >= Bm25Scorer.MIN_PREFIX_LENGTH) {
+            for (String documentTerm : documentTerms) {
+                if (documentTerm.startsWith(last)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isWithinEdits(String term, Set<String> documentTerms) {
+        int maxEdits = TrigramIndex.maxEditsFor(term);
+        if (maxEdits == 0) {
+            return false;
+        }
+        for (String documentTerm : documentTerms) {
+            if (TrigramIndex.boundedDistance(term, documentTerm, maxEdits) <= maxEdits) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean matchesTags(SearchDocument document) {
+        for (String tag : terms) {
+            if (document.tags().contains(tag)
+                    || document.termFrequencies().keySet().containsAll(List.of(tag.split(" ")))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean matchesText(SearchDocument document) {
+        String needle = terms.get(0);
+        return contains(document.title(), needle)
+            || contains(document.summary(), needle)
+            // The stored summary is truncated, so the rest of the text may hold the match
+            || SearchDocument.isTruncated(document.summary());
+    }
+
+    private static boolean contains(String text, String needle) {
+        return text != null && text.toLowerCase(Locale.ROOT).contains(needle);
+    }
+
+    private static SortedMap<String, List<String>> sorted(Map<String, ? extends Collection<String>> filters) {
+        SortedMap<String, List<String>> sorted = new TreeMap<>();
+        filters.forEach((name, values) -> {
+            if (values != null && !values.isEmpty()) {
+                sorted.put(name, List.copyOf(new TreeSet<>(values)));
+            }
+        });
+        return Collections.unmodifiableSortedMap(sorted);
+    }
+}
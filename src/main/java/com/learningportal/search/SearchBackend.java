@@ -0,0 +1,11 @@
+package com.learningportal.search;
+
+/**
+ * Where content search queries are answered
+ */
+public enum SearchBackend {
+    /** In-process inverted index ({@link ContentSearchIndex}) */
+    MEMORY,
+    /** PostgreSQL queries backed by pg_trgm GIN indexes */
+    DATABASE
+}
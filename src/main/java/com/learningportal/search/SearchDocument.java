@@ -0,0 +1,85 @@
+package com.learningportal.search;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Analyzed form of one indexed entity.
+ * 
+ * Holds the stored fields returned with each hit plus the term frequencies
+ * used for ranking, so the index never has to keep the raw content around.
+ * Title terms are counted with extra weight so a match in a module name or
+ * topic title outranks a passing mention in body text. Tags are normalized
+ * labels (question tags, categories, difficulty) matched by tag queries;
+ * facets hold the enum values results can be counted and filtered by.
+ */
+public record SearchDocument(
+        DocumentKey key,
+        Long moduleId,
+        String title,
+        String summary,
+        Set<String> tags,
+        Map<Facet, String> facets,
+        Map<String, Integer> termFrequencies,
+        int length) {
+
+    static final int TITLE_WEIGHT = 3;
+    private static final int MAX_SUMMARY_LENGTH = 240;
+
+    /**
+     * Analyze an entity's searchable text into a document
+     */
+    public static SearchDocument of(DocumentKey key, Long moduleId, String title, String summary,
+                                    Collection<String> tags, Map<Facet, String> facets,
+                                    String... bodyFields) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = 0;
+
+        for (String term : SearchTokenizer.tokenize(title)) {
+            frequencies.merge(term, TITLE_WEIGHT, Integer::sum);
+            length += TITLE_WEIGHT;
+        }
+        for (String field : bodyFields) {
+            for (String term : SearchTokenizer.tokenize(field)) {
+                frequencies.merge(term, 1, Integer::sum);
+                length++;
+            }
+        }
+
+        Set<String> normalizedTags = new LinkedHashSet<>();
+        for (String tag : tags) {
+            String normalized = normalizeTag(tag);
+            if (!normalized.isEmpty()) {
+                normalizedTags.add(normalized);
+            }
+        }
+
+        return new SearchDocument(key, moduleId, title, truncate(summary),
+            Set.copyOf(normalizedTags), Map.copyOf(facets), Map.copyOf(frequencies), length);
+    }
+
+    /**
+     * Normalize a tag to its search terms joined by single spaces, so
+     * "Spring-Boot" and "spring boot" are the same tag
+     */
+    static String normalizeTag(String tag) {
+        return String.join(" ", SearchTokenizer.tokenize(tag));
+    }
+
+    /**
+     * Whether a stored summary was cut short by {@link #truncate}
+     */
+    static boolean isTruncated(String summary) {
+        return summary != null && summary.length() > MAX_SUMMARY_LENGTH;
+    }
+
+    static String truncate(String text) {
+        if (text == null || text.length() <= MAX_SUMMARY_LENGTH) {
+            return text;
+        }
+        return text.substring(0, MAX_SUMMARY_LENGTH) + "...";
+    }
+}
@@ -0,0 +1,13 @@
+package com.learningportal.search;
+
+/**
+ * Single ranked search result served straight from the index
+ */
+public record SearchHit(
+        DocumentType type,
+        long id,
+        Long moduleId,
+        String title,
+        String summary,
+        double score) {
+}
@@ -0,0 +1,93 @@
+package com.learningportal.search;
+
+import com.learningportal.model.InterviewQuestion;
+import com.learningportal.model.LearningModule;
+import com.learningportal.model.Topic;
+import com.learningportal.model.UserNote;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Search Index Entity Listener
+ *
+ * JPA listener on indexed entities - content and user notes - that
+ * forwards their changes to the {@link SearchIndexer} once the writing
+ * transaction commits, and nothing for rolled-back writes. Only the
+ * changed row's key is captured; the indexer reloads and analyzes the row
+ * on its own thread, so indexing never adds work to the write transaction.
+ *
+ * The indexer is looked up lazily because Hibernate creates listeners
+ * while the entity manager factory - which the index itself depends on -
+ * is still being built.
+ */
+@Component
+public class SearchIndexEntityListener {
+
+    private final ObjectProvider<SearchIndexer> indexer;
+
+    public SearchIndexEntityListener(ObjectProvider<SearchIndexer> indexer) {
+        this.indexer = indexer;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        if (entity instanceof UserNote note) {
+            long noteId = note.getId();
+            Long userId = note.getUserId();
+            afterCommit(() -> NoteChange.saved(noteId, userId));
+            return;
+        }
+        DocumentKey key = toKey(entity);
+        if (key != null) {
+            afterCommit(() -> IndexChange.saved(key));
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        if (entity instanceof UserNote note) {
+            long noteId = note.getId();
+            Long userId = note.getUserId();
+            afterCommit(() -> NoteChange.delete(noteId, userId));
+            return;
+        }
+        DocumentKey key = toKey(entity);
+        if (key != null) {
+            afterCommit(() -> IndexChange.delete(key));
+        }
+    }
+
+    private void afterCommit(Supplier<? extends IndexEvent> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            indexer.getObject().submit(change.get());
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                indexer.getObject().submit(change.get());
+            }
+        });
+    }
+
+    private static DocumentKey toKey(Object entity) {
+        if (entity instanceof LearningModule module) {
+            return new DocumentKey(DocumentType.MODULE, module.getId());
+        }
+        if (entity instanceof Topic topic) {
+            return new DocumentKey(DocumentType.TOPIC, topic.getId());
+        }
+        if (entity instanceof InterviewQuestion question) {
+            return new DocumentKey(DocumentType.QUESTION, question.getId());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,238 @@
+package com.learningportal.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Search Indexer
+ *
+ * Single background thread that keeps the {@link ContentSearchIndex} and
+ * the {@link NoteSearchIndex} in step with committed changes. Changes
+ * arrive on a bounded queue from {@link SearchIndexEntityListener} as the
+ * keys of changed rows; the indexer drains them in batches, reloads the
+ * saved rows, and applies each batch with one segment swap per index, so a
+ * burst of writes costs one rebuild rather than one per entity.
+ *
+ * Submitting never blocks the writer. When the queue is full the change is
+ * dropped and a full rebuild from the database is scheduled instead, and
+ * loaded note partitions are discarded to be read afresh.
+ * Rebuilds run on the indexer thread, so every change committed after a
+ * rebuild has read its snapshot is applied after it.
+ *
+ * At startup the indexer restores the persisted segment and replays what
+ * changed since; afterwards it persists the index again whenever it has
+ * applied changes and the snapshot interval has passed, and on shutdown.
+ *
+ * Metrics:
+ * - search.index.freshness.lag: age of the oldest committed change not yet searchable
+ * - search.index.update.lag: commit-to-searchable latency of applied changes
+ * - search.index.queue.size: changes waiting to be applied
+ */
+@Component
+public class SearchIndexer {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchIndexer.class);
+    private static final long POLL_INTERVAL_MS = 500;
+    private static final long RETRY_DELAY_MS = 5000;
+
+    private final ContentSearchIndex searchIndex;
+    private final NoteSearchIndex noteIndex;
+    private final BlockingQueue<IndexEvent> queue;
+    private final int batchSize;
+    private final long snapshotIntervalMs;
+    private final Timer updateLag;
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+
+    // Commit time of the oldest change in the batch being applied, 0 when idle
+    private volatile long applyingSinceNanos;
+    private volatile Thread worker;
+
+    public SearchIndexer(ContentSearchIndex searchIndex,
+                         NoteSearchIndex noteIndex,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.search.indexer.queue-capacity:10000}") int queueCapacity,
+                         @Value("${app.search.indexer.batch-size:500}") int batchSize,
+                         @Value("${app.search.indexer.snapshot-interval-ms:60000}") long snapshotIntervalMs) {
+        this.searchIndex = searchIndex;
+        this.noteIndex = noteIndex;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.snapshotIntervalMs = snapshotIntervalMs;
+
+        this.updateLag = Timer.builder("search.index.update.lag")
+            .description("Time from commit until a change is searchable")
+            .register(meterRegistry);
+        Gauge.builder("search.index.freshness.lag", this, SearchIndexer::getFreshnessLagMs)
+            .description("Age of the oldest committed change not yet searchable")
+            .baseUnit("milliseconds")
+            .register(meterRegistry);
+        Gauge.builder("search.index.queue.size", queue, BlockingQueue::size)
+            .description("Changes waiting to be indexed")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Start indexing once data initialization has finished, beginning with
+     * restoring the persisted index.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(10)
+    public synchronized void start() {
+        if (worker != null) {
+            return;
+        }
+        worker = new Thread(this::run, "search-indexer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Stop the indexer, giving it a moment to persist pending changes
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        if (worker == null) {
+            return;
+        }
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        worker = null;
+    }
+
+    /**
+     * Queue a committed change. Never blocks; a full queue degrades to a
+     * scheduled rebuild.
+     */
+    void submit(IndexEvent change) {
+        if (!queue.offer(change) && rebuildRequested.compareAndSet(false, true)) {
+            log.warn("Search index queue full ({} changes); scheduling a full rebuild", queue.size());
+        }
+    }
+
+    public void requestRebuild() {
+        rebuildRequested.set(true);
+    }
+
+    public long getFreshnessLagMs() {
+        long oldest = applyingSinceNanos;
+        IndexEvent head = queue.peek();
+        if (head != null && (oldest == 0 || head.committedNanos() < oldest)) {
+            oldest = head.committedNanos();
+        }
+        return oldest == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - oldest);
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    private void run() {
+        // Everything queued so far is committed and will be in the restored index
+        if (!rebuildRequested.get()) {
+            try {
+                queue.clear();
+                noteIndex.invalidateAll();
+                searchIndex.restore();
+                searchIndex.persist();
+            } catch (RuntimeException e) {
+                log.error("Failed to restore search index; rebuilding", e);
+                rebuildRequested.set(true);
+            }
+        }
+
+        List<IndexEvent> batch = new ArrayList<>(batchSize);
+        List<IndexChange> contentChanges = new ArrayList<>(batchSize);
+        List<NoteChange> noteChanges = new ArrayList<>();
+        boolean dirty = false;
+        long lastPersisted = System.currentTimeMillis();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                if (rebuildRequested.getAndSet(false)) {
+                    // Everything queued so far is committed and will be in the snapshot
+                    queue.clear();
+                    noteIndex.invalidateAll();
+                    searchIndex.rebuild();
+                    dirty = true;
+                }
+
+                if (dirty && System.currentTimeMillis() - lastPersisted >= snapshotIntervalMs) {
+                    searchIndex.persist();
+                    dirty = false;
+                    lastPersisted = System.currentTimeMillis();
+                }
+
+                IndexEvent first = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+
+                applyingSinceNanos = first.committedNanos();
+                for (IndexEvent event : batch) {
+                    switch (event) {
+                        case IndexChange change -> contentChanges.add(change);
+                        case NoteChange change -> noteChanges.add(change);
+                    }
+                }
+                if (!contentChanges.isEmpty()) {
+                    searchIndex.apply(contentChanges);
+                    dirty = true;
+                }
+                if (!noteChanges.isEmpty()) {
+                    noteIndex.apply(noteChanges);
+                }
+
+                long now = System.nanoTime();
+                for (IndexEvent change : batch) {
+                    updateLag.record(now - change.committedNanos(), TimeUnit.NANOSECONDS);
+                }
+                log.debug("Applied {} search index changes", batch.size());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("Failed to apply search index changes; rebuilding in {}ms", RETRY_DELAY_MS, e);
+                rebuildRequested.set(true);
+                pauseBeforeRetry();
+            } finally {
+                applyingSinceNanos = 0;
+                batch.clear();
+                contentChanges.clear();
+                noteChanges.clear();
+            }
+        }
+
+        if (dirty) {
+            searchIndex.persist();
+        }
+        log.info("Search indexer stopped");
+    }
+
+    private static void pauseBeforeRetry() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(RETRY_DELAY_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
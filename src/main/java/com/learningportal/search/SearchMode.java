@@ -0,0 +1,11 @@
+package com.learningportal.search;
+
+/**
+ * How query terms are matched against indexed terms
+ */
+public enum SearchMode {
+    /** Terms must match exactly (the last term may also match as a prefix) */
+    EXACT,
+    /** Terms also match indexed terms within a small edit distance */
+    FUZZY
+}
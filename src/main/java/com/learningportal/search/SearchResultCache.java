@@ -0,0 +1,96 @@
+package com.learningportal.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Search Result Cache
+ *
+ * Caches search results in the {@code searchResults} cache, keyed by
+ * {@link QueryFingerprint} and stored as {@link CachedResult} ID lists.
+ *
+ * Entries are invalidated by content changes rather than left to expire:
+ * after the index applies a batch, every cached query whose results hold a
+ * changed document, or whose terms could match the old or new version of
+ * one, is evicted. Other entries stay hot. A result computed while an
+ * invalidation ran is not kept, since it may predate the change.
+ */
+@Component
+public class SearchResultCache {
+
+    public static final String CACHE_NAME = "searchResults";
+
+    private final Cache<Object, Object> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public SearchResultCache(CacheManager cacheManager) {
+        if (!(cacheManager.getCache(CACHE_NAME) instanceof CaffeineCache caffeineCache)) {
+            throw new IllegalStateException("Cache '" + CACHE_NAME + "' must be a Caffeine cache");
+        }
+        this.cache = caffeineCache.getNativeCache();
+    }
+
+    /**
+     * Serve a result from the cache, or compute and cache it
+     *
+     * @param key     fingerprint of the query, or null to bypass the cache
+     * @param loader  computes the full result on a miss
+     * @param compact reduces a computed result to the IDs to cache
+     * @param expand  rebuilds a full result from cached IDs
+     */
+    public <T> T get(QueryFingerprint key, Supplier<T> loader,
+                     Function<T, CachedResult> compact, Function<CachedResult, T> expand) {
+        if (key == null) {
+            return loader.get();
+        }
+        if (cache.getIfPresent(key) instanceof CachedResult cached) {
+            return expand.apply(cached);
+        }
+
+        long epoch = invalidations.get();
+        T result = loader.get();
+        cache.put(key, compact.apply(result));
+        // An invalidation that ran while loading may have scanned before this entry existed
+        if (invalidations.get() != epoch) {
+            cache.invalidate(key);
+        }
+        return result;
+    }
+
+    /**
+     * Evict every cached query that the given document versions - both
+     * before and after a change - could appear in
+     */
+    void invalidate(Collection<SearchDocument> versions) {
+        if (versions.isEmpty()) {
+            return;
+        }
+        invalidations.incrementAndGet();
+        cache.asMap().entrySet().removeIf(entry -> isAffected(entry, versions));
+    }
+
+    void invalidateAll() {
+        invalidations.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private static boolean isAffected(Map.Entry<Object, Object> entry, Collection<SearchDocument> versions) {
+        if (!(entry.getKey() instanceof QueryFingerprint key) || !(entry.getValue() instanceof CachedResult result)) {
+            return true;
+        }
+        for (SearchDocument document : versions) {
+            if (result.contains(document.key()) || key.mayMatch(document)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,23 @@
+package com.learningportal.search;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Search Results
+ *
+ * Best hits per content type together with how each source fared. A source
+ * that missed its deadline or failed contributes no hits, and the results
+ * are marked partial rather than failing the whole search.
+ */
+public record SearchResults(Map<DocumentType, List<SearchHit>> hits,
+                            Map<DocumentType, SourceStatus> sources) {
+
+    public boolean isPartial() {
+        return sources.values().stream().anyMatch(status -> !status.isComplete());
+    }
+
+    public int totalHits() {
+        return hits.values().stream().mapToInt(List::size).sum();
+    }
+}
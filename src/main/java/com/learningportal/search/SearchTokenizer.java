@@ -0,0 +1,77 @@
+package com.learningportal.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Search Tokenizer
+ * 
+ * Splits free text into normalized search terms. Markup tags are skipped,
+ * text is lowercased and broken on anything that is not a letter or digit,
+ * and common stop words are dropped so the index and incoming queries
+ * agree on term boundaries.
+ */
+public final class SearchTokenizer {
+
+    private static final int MAX_TOKEN_LENGTH = 40;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "how", "in",
+        "is", "it", "of", "on", "or", "that", "the", "this", "to", "what", "when", "with"
+    );
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * Tokenize text into lowercase terms in order of appearance
+     */
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inTag = false;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+
+            if (inTag) {
+                inTag = c != '>';
+                continue;
+            }
+
+            if (c == '<' && i + 1 < text.length() && isTagStart(text.charAt(i + 1))) {
+                flush(current, tokens);
+                inTag = true;
+            } else if (Character.isLetterOrDigit(c)) {
+                current.append(Character.toLowerCase(c));
+            } else {
+                flush(current, tokens);
+            }
+        }
+        flush(current, tokens);
+
+        return tokens;
+    }
+
+    private static boolean isTagStart(char c) {
+        return Character.isLetter(c) || c == '/' || c == '!';
+    }
+
+    private static void flush(StringBuilder current, List<String> tokens) {
+        if (current.isEmpty()) {
+            return;
+        }
+        if (current.length() <= MAX_TOKEN_LENGTH) {
+            String token = current.toString();
+            if (!STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        current.setLength(0);
+    }
+}
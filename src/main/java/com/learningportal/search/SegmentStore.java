@@ -0,0 +1,269 @@
+package com.learningportal.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Segment Store
+ *
+ * Persists the analyzed search documents to a single segment file so a
+ * restart can map the file instead of re-reading every content row. The
+ * file holds the stored fields of each document followed by the inverted
+ * postings, sorted by term, with document ordinals delta-encoded and every
+ * integer written as a varint; term frequencies are recovered on load by
+ * inverting the postings.
+ *
+ * Files are written to a temporary name and atomically renamed, so a crash
+ * mid-write leaves the previous segment intact. A missing, truncated or
+ * older-format file is simply ignored and the index is rebuilt.
+ */
+@Component
+public class SegmentStore {
+
+    private static final Logger log = LoggerFactory.getLogger(SegmentStore.class);
+
+    private static final int MAGIC = 0x4C505349; // "LPSI"
+    private static final int FORMAT_VERSION = 1;
+    private static final String SEGMENT_FILE = "content.segment";
+
+    private final Path directory;
+
+    public SegmentStore(@Value("${app.search.indexer.snapshot-dir:data/search-index}") String directory) {
+        this.directory = Paths.get(directory);
+    }
+
+    /**
+     * Documents held by a persisted segment and the latest content
+     * modification time they reflect
+     */
+    record Snapshot(List<SearchDocument> documents, LocalDateTime highWater) {
+    }
+
+    /**
+     * Map and decode the latest segment, if a readable one exists
+     */
+    Optional<Snapshot> load() {
+        Path file = directory.resolve(SEGMENT_FILE);
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return decode(buffer);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable search segment {}: {}", file, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Write a new segment, replacing the previous one atomically
+     */
+    void save(Collection<SearchDocument> documents, LocalDateTime highWater) throws IOException {
+        Files.createDirectories(directory);
+        Path target = directory.resolve(SEGMENT_FILE);
+        Path temporary = directory.resolve(SEGMENT_FILE + ".tmp");
+
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16)) {
+            encode(documents, highWater, out);
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static void encode(Collection<SearchDocument> source, LocalDateTime highWater, OutputStream stream)
+            throws IOException {
+        SearchDocument[] documents = source.toArray(new SearchDocument[0]);
+        Arrays.sort(documents, Comparator
+            .comparing((SearchDocument document) -> document.key().type())
+            .thenComparingLong(document -> document.key().id()));
+
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(highWater != null ? highWater.toInstant(ZoneOffset.UTC).toEpochMilli() : Long.MIN_VALUE);
+
+        // Stored fields
+        writeVarInt(out, documents.length);
+        Map<String, List<int[]>> postings = new TreeMap<>();
+        for (int ordinal = 0; ordinal < documents.length; ordinal++) {
+            SearchDocument document = documents[ordinal];
+            writeString(out, document.key().type().name());
+            out.writeLong(document.key().id());
+            out.writeLong(document.moduleId() != null ? document.moduleId() : Long.MIN_VALUE);
+            writeString(out, document.title());
+            writeString(out, document.summary());
+            writeVarInt(out, document.length());
+
+            writeVarInt(out, document.tags().size());
+            for (String tag : document.tags()) {
+                writeString(out, tag);
+            }
+            writeVarInt(out, document.facets().size());
+            for (Map.Entry<Facet, String> facet : document.facets().entrySet()) {
+                writeString(out, facet.getKey().name());
+                writeString(out, facet.getValue());
+            }
+
+            for (Map.Entry<String, Integer> term : document.termFrequencies().entrySet()) {
+                postings.computeIfAbsent(term.getKey(), key -> new ArrayList<>())
+                    .add(new int[] {ordinal, term.getValue()});
+            }
+        }
+
+        // Postings: ordinals are added in ascending order, so deltas are non-negative
+        writeVarInt(out, postings.size());
+        for (Map.Entry<String, List<int[]>> entry : postings.entrySet()) {
+            writeString(out, entry.getKey());
+            writeVarInt(out, entry.getValue().size());
+            int previous = 0;
+            for (int[] posting : entry.getValue()) {
+                writeVarInt(out, posting[0] - previous);
+                writeVarInt(out, posting[1]);
+                previous = posting[0];
+            }
+        }
+        out.flush();
+    }
+
+    static Optional<Snapshot> decode(ByteBuffer buffer) {
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                return Optional.empty();
+            }
+            long highWaterMillis = buffer.getLong();
+            LocalDateTime highWater = highWaterMillis == Long.MIN_VALUE
+                ? null
+                : LocalDateTime.ofInstant(Instant.ofEpochMilli(highWaterMillis), ZoneOffset.UTC);
+
+            int documentCount = readVarInt(buffer);
+            DocumentKey[] keys = new DocumentKey[documentCount];
+            Long[] moduleIds = new Long[documentCount];
+            String[] titles = new String[documentCount];
+            String[] summaries = new String[documentCount];
+            int[] lengths = new int[documentCount];
+            List<Set<String>> tags = new ArrayList<>(documentCount);
+            List<Map<Facet, String>> facets = new ArrayList<>(documentCount);
+
+            for (int ordinal = 0; ordinal < documentCount; ordinal++) {
+                DocumentType type = DocumentType.valueOf(readString(buffer));
+                keys[ordinal] = new DocumentKey(type, buffer.getLong());
+                long moduleId = buffer.getLong();
+                moduleIds[ordinal] = moduleId == Long.MIN_VALUE ? null : moduleId;
+                titles[ordinal] = readString(buffer);
+                summaries[ordinal] = readString(buffer);
+                lengths[ordinal] = readVarInt(buffer);
+
+                String[] documentTags = new String[readVarInt(buffer)];
+                for (int i = 0; i < documentTags.length; i++) {
+                    documentTags[i] = readString(buffer);
+                }
+                tags.add(Set.of(documentTags));
+
+                Map<Facet, String> documentFacets = new EnumMap<>(Facet.class);
+                int facetCount = readVarInt(buffer);
+                for (int i = 0; i < facetCount; i++) {
+                    documentFacets.put(Facet.valueOf(readString(buffer)), readString(buffer));
+                }
+                facets.add(documentFacets);
+            }
+
+            // Invert the postings back into per-document term frequencies
+            List<Map<String, Integer>> frequencies = new ArrayList<>(documentCount);
+            for (int ordinal = 0; ordinal < documentCount; ordinal++) {
+                frequencies.add(new HashMap<>());
+            }
+            int termCount = readVarInt(buffer);
+            for (int t = 0; t < termCount; t++) {
+                String term = readString(buffer);
+                int documentFrequency = readVarInt(buffer);
+                int ordinal = 0;
+                for (int i = 0; i < documentFrequency; i++) {
+                    ordinal += readVarInt(buffer);
+                    frequencies.get(ordinal).put(term, readVarInt(buffer));
+                }
+            }
+
+            List<SearchDocument> documents = new ArrayList<>(documentCount);
+            for (int ordinal = 0; ordinal < documentCount; ordinal++) {
+                documents.add(new SearchDocument(keys[ordinal], moduleIds[ordinal], titles[ordinal],
+                    summaries[ordinal], tags.get(ordinal), Map.copyOf(facets.get(ordinal)),
+                    Map.copyOf(frequencies.get(ordinal)), lengths[ordinal]));
+            }
+            return Optional.of(new Snapshot(documents, highWater));
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    // Strings are prefixed with their UTF-8 length plus one; zero marks null
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length + 1);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = readVarInt(buffer);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length - 1];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,17 @@
+package com.learningportal.search;
+
+/**
+ * Outcome and latency of one search source within a fan-out
+ */
+public record SourceStatus(State state, long latencyMs) {
+
+    public enum State {
+        COMPLETE,
+        TIMED_OUT,
+        FAILED
+    }
+
+    public boolean isComplete() {
+        return state == State.COMPLETE;
+    }
+}
@@ -0,0 +1,251 @@
+package com.learningportal.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Suggestion Trie
+ *
+ * Compact, immutable prefix trie used for autocomplete. Every suggestion is
+ * reachable from the start of each of its words, so "des" completes both
+ * "Design Patterns" and "System Design". Nodes are flattened into parallel
+ * arrays with children stored contiguously and sorted by character; each
+ * node records the highest weight found beneath it, which lets a best-first
+ * walk return the top-k completions without visiting the whole subtree.
+ *
+ * Results are ordered by weight (highest first) and then alphabetically, so
+ * the same content always yields the same suggestions.
+ */
+public final class SuggestionTrie {
+
+    private static final SuggestionTrie EMPTY = build(List.of());
+
+    // Flattened nodes; node 0 is the root
+    private final char[] labels;
+    private final int[] firstChild;
+    private final int[] childCount;
+    private final long[] maxWeight;
+    private final int[] entryStart;
+    private final int[] entryCount;
+
+    // Suggestions referenced by terminal nodes
+    private final int[] entryIds;
+    private final String[] texts;
+    private final long[] weights;
+
+    private SuggestionTrie(char[] labels, int[] firstChild, int[] childCount, long[] maxWeight,
+                           int[] entryStart, int[] entryCount, int[] entryIds,
+                           String[] texts, long[] weights) {
+        this.labels = labels;
+        this.firstChild = firstChild;
+        this.childCount = childCount;
+        this.maxWeight = maxWeight;
+        this.entryStart = entryStart;
+        this.entryCount = entryCount;
+        this.entryIds = entryIds;
+        this.texts = texts;
+        this.weights = weights;
+    }
+
+    public static SuggestionTrie empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Weighted suggestion text
+     */
+    public record Entry(String text, long weight) {
+    }
+
+    /**
+     * Build a trie from weighted entries. Entries with the same text are
+     * merged, keeping the highest weight.
+     */
+    public static SuggestionTrie build(List<Entry> source) {
+        Map<String, Long> merged = new TreeMap<>();
+        for (Entry entry : source) {
+            if (entry.text() != null && !entry.text().isBlank()) {
+                merged.merge(entry.text().trim(), entry.weight(), Math::max);
+            }
+        }
+
+        String[] texts = merged.keySet().toArray(new String[0]);
+        long[] weights = new long[texts.length];
+        for (int i = 0; i < texts.length; i++) {
+            weights[i] = merged.get(texts[i]);
+        }
+
+        // Insert every word-start suffix of every suggestion into a pointer trie
+        BuildNode root = new BuildNode();
+        int nodeCount = 1;
+        for (int id = 0; id < texts.length; id++) {
+            String key = normalize(texts[id]);
+            for (int start = 0; start < key.length(); start++) {
+                if (start > 0 && key.charAt(start - 1) != ' ') {
+                    continue;
+                }
+                BuildNode node = root;
+                for (int i = start; i < key.length(); i++) {
+                    BuildNode child = node.children.get(key.charAt(i));
+                    if (child == null) {
+                        child = new BuildNode();
+                        node.children.put(key.charAt(i), child);
+                        nodeCount++;
+                    }
+                    node = child;
+                }
+                node.entries.add(id);
+            }
+        }
+
+        // Flatten breadth-first so each node's children are contiguous
+        char[] labels = new char[nodeCount];
+        int[] firstChild = new int[nodeCount];
+        int[] childCount = new int[nodeCount];
+        int[] entryStart = new int[nodeCount];
+        int[] entryCount = new int[nodeCount];
+        List<BuildNode> ordered = new ArrayList<>(nodeCount);
+        List<Integer> entryIdList = new ArrayList<>();
+
+        ArrayDeque<BuildNode> queue = new ArrayDeque<>();
+        queue.add(root);
+        int next = 1;
+        while (!queue.isEmpty()) {
+            BuildNode node = queue.poll();
+            int index = ordered.size();
+            ordered.add(node);
+
+            firstChild[index] = next;
+            childCount[index] = node.children.size();
+            for (Map.Entry<Character, BuildNode> child : node.children.entrySet()) {
+                labels[next++] = child.getKey();
+                queue.add(child.getValue());
+            }
+
+            entryStart[index] = entryIdList.size();
+            entryCount[index] = node.entries.size();
+            entryIdList.addAll(node.entries);
+        }
+
+        int[] entryIds = entryIdList.stream().mapToInt(Integer::intValue).toArray();
+
+        // Propagate subtree maximum weights bottom-up (children always follow parents)
+        long[] maxWeight = new long[nodeCount];
+        for (int index = nodeCount - 1; index >= 0; index--) {
+            long best = 0;
+            for (int e = entryStart[index]; e < entryStart[index] + entryCount[index]; e++) {
+                best = Math.max(best, weights[entryIds[e]]);
+            }
+            for (int c = firstChild[index]; c < firstChild[index] + childCount[index]; c++) {
+                best = Math.max(best, maxWeight[c]);
+            }
+            maxWeight[index] = best;
+        }
+
+        return new SuggestionTrie(labels, firstChild, childCount, maxWeight,
+            entryStart, entryCount, entryIds, texts, weights);
+    }
+
+    public int size() {
+        return texts.length;
+    }
+
+    public int nodeCount() {
+        return labels.length;
+    }
+
+    /**
+     * Return up to {@code limit} suggestions completing the given prefix,
+     * highest weight first.
+     */
+    public List<String> complete(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0 || texts.length == 0) {
+            return List.of();
+        }
+
+        int node = 0;
+        for (int i = 0; i < key.length() && node >= 0; i++) {
+            node = child(node, key.charAt(i));
+        }
+        if (node < 0) {
+            return List.of();
+        }
+
+        // Best-first walk: a node is expanded before any suggestion of equal
+        // weight is emitted, so ties are resolved alphabetically
+        PriorityQueue<long[]> frontier = new PriorityQueue<>(Comparator
+            .comparingLong((long[] candidate) -> -candidate[1])
+            .thenComparingLong(candidate -> candidate[0])
+            .thenComparing(candidate -> candidate[0] == 0 ? "" : texts[(int) candidate[2]]));
+        frontier.add(new long[] {0, maxWeight[node], node});
+
+        Set<String> results = new LinkedHashSet<>();
+        while (!frontier.isEmpty() && results.size() < limit) {
+            long[] candidate = frontier.poll();
+            if (candidate[0] == 1) {
+                results.add(texts[(int) candidate[2]]);
+                continue;
+            }
+
+            int current = (int) candidate[2];
+            for (int e = entryStart[current]; e < entryStart[current] + entryCount[current]; e++) {
+                int id = entryIds[e];
+                frontier.add(new long[] {1, weights[id], id});
+            }
+            for (int c = firstChild[current]; c < firstChild[current] + childCount[current]; c++) {
+                frontier.add(new long[] {0, maxWeight[c], c});
+            }
+        }
+
+        return List.copyOf(results);
+    }
+
+    private int child(int node, char label) {
+        int from = firstChild[node];
+        int to = from + childCount[node];
+        int found = Arrays.binarySearch(labels, from, to, label);
+        return found >= 0 ? found : -1;
+    }
+
+    /**
+     * Lowercase and collapse every run of non-alphanumeric characters into a
+     * single space so "Spring-Boot" and "spring boot" share a key.
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && !normalized.isEmpty()) {
+                    normalized.append(' ');
+                }
+                normalized.append(Character.toLowerCase(c));
+                pendingSpace = false;
+            } else {
+                pendingSpace = true;
+            }
+        }
+        if (pendingSpace && !normalized.isEmpty() && text.endsWith(" ")) {
+            normalized.append(' ');
+        }
+        return normalized.toString();
+    }
+
+    private static final class BuildNode {
+        private final TreeMap<Character, BuildNode> children = new TreeMap<>();
+        private final List<Integer> entries = new ArrayList<>(1);
+    }
+}
@@ -0,0 +1,10 @@
+package com.learningportal.search;
+
+/**
+ * How the tags of a tag query combine: ANY matches documents carrying at
+ * least one tag, ALL only those carrying every tag
+ */
+public enum TagMatch {
+    ANY,
+    ALL
+}
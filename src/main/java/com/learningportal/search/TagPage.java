@@ -0,0 +1,12 @@
+package com.learningportal.search;
+
+import java.util.List;
+
+/**
+ * One page of tag query hits for a content type. Each hit's score is the
+ * number of query tags it carries.
+ */
+public record TagPage(List<SearchHit> hits, int totalMatches) {
+
+    static final TagPage EMPTY = new TagPage(List.of(), 0);
+}
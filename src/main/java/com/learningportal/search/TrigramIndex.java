@@ -0,0 +1,190 @@
+package com.learningportal.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Trigram Index
+ *
+ * Character n-gram index over a term dictionary, used to find indexed terms
+ * within a small edit distance of a misspelled query term ("polymorphsm",
+ * "dijkstras"). Candidates are gathered from shared trigrams and pruned with
+ * the q-gram count filter - a single edit destroys at most four trigrams
+ * (three for an insert, delete or substitution, four for a transposition) -
+ * before the edit distance is verified exactly, so no valid match is missed
+ * and few terms are ever compared character by character.
+ */
+final class TrigramIndex {
+
+    private static final char PAD = '$';
+    private static final int MAX_EXPANSIONS = 16;
+    private static final int TRIGRAMS_PER_EDIT = 4;
+
+    private final String[] terms;
+    private final Map<Long, int[]> postings;
+
+    private TrigramIndex(String[] terms, Map<Long, int[]> postings) {
+        this.terms = terms;
+        this.postings = postings;
+    }
+
+    /**
+     * A dictionary term matched by a fuzzy lookup
+     */
+    record Match(String term, int distance) {
+    }
+
+    static TrigramIndex build(String[] terms) {
+        Map<Long, List<Integer>> builders = new HashMap<>();
+        for (int id = 0; id < terms.length; id++) {
+            for (long gram : distinctTrigrams(terms[id])) {
+                builders.computeIfAbsent(gram, key -> new ArrayList<>()).add(id);
+            }
+        }
+
+        Map<Long, int[]> postings = new HashMap<>(builders.size() * 2);
+        builders.forEach((gram, ids) -> postings.put(gram, ids.stream().mapToInt(Integer::intValue).toArray()));
+        return new TrigramIndex(terms, postings);
+    }
+
+    /**
+     * Maximum edits tolerated for a term: exact for very short terms, one
+     * typo for medium terms and two for long ones.
+     */
+    static int maxEditsFor(String term) {
+        if (term.length() < 4) {
+            return 0;
+        }
+        return term.length() < 8 ? 1 : 2;
+    }
+
+    /**
+     * Find dictionary terms within {@code maxEdits} of the given term,
+     * closest first.
+     */
+    List<Match> lookup(String term, int maxEdits) {
+        Set<Long> grams = distinctTrigrams(term);
+        int required = grams.size() - TRIGRAMS_PER_EDIT * maxEdits;
+
+        Map<Integer, Integer> shared = new HashMap<>();
+        for (long gram : grams) {
+            int[] ids = postings.get(gram);
+            if (ids == null) {
+                continue;
+            }
+            for (int id : ids) {
+                if (Math.abs(terms[id].length() - term.length()) <= maxEdits) {
+                    shared.merge(id, 1, Integer::sum);
+                }
+            }
+        }
+
+        List<Match> matches = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> candidate : shared.entrySet()) {
+            if (candidate.getValue() < required) {
+                continue;
+            }
+            String other = terms[candidate.getKey()];
+            int distance = boundedDistance(term, other, maxEdits);
+            if (distance <= maxEdits) {
+                matches.add(new Match(other, distance));
+            }
+        }
+
+        matches.sort(Comparator.comparingInt(Match::distance).thenComparing(Match::term));
+        return matches.size() > MAX_EXPANSIONS ? matches.subList(0, MAX_EXPANSIONS) : matches;
+    }
+
+    /**
+     * Fraction of the query's trigrams found in the text, in [0, 1]. This is
+     * the in-process counterpart of pg_trgm's word_similarity(), used to
+     * score rows returned by the database backend.
+     */
+    static double wordSimilarity(String query, String text) {
+        Set<Long> queryGrams = textTrigrams(query);
+        if (queryGrams.isEmpty()) {
+            return 0.0;
+        }
+        Set<Long> textGrams = textTrigrams(text);
+        int shared = 0;
+        for (long gram : queryGrams) {
+            if (textGrams.contains(gram)) {
+                shared++;
+            }
+        }
+        return (double) shared / queryGrams.size();
+    }
+
+    /**
+     * Optimal string alignment distance (Levenshtein plus adjacent
+     * transpositions), abandoning the computation as soon as every cell in
+     * a row exceeds the bound. Returns {@code maxEdits + 1} when the bound is
+     * exceeded.
+     */
+    static int boundedDistance(String a, String b, int maxEdits) {
+        if (Math.abs(a.length() - b.length()) > maxEdits) {
+            return maxEdits + 1;
+        }
+
+        int[] previousPrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMinimum = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previousPrevious[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMinimum = Math.min(rowMinimum, value);
+            }
+            if (rowMinimum > maxEdits) {
+                return maxEdits + 1;
+            }
+            int[] recycled = previousPrevious;
+            previousPrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+
+        return Math.min(previous[b.length()], maxEdits + 1);
+    }
+
+    private static Set<Long> textTrigrams(String text) {
+        Set<Long> grams = new HashSet<>();
+        for (String token : SearchTokenizer.tokenize(text)) {
+            grams.addAll(distinctTrigrams(token));
+        }
+        return grams;
+    }
+
+    /**
+     * Padded trigrams packed into longs (three 16-bit chars). Two leading
+     * and one trailing pad character give word-start trigrams extra weight,
+     * matching pg_trgm's padding.
+     */
+    private static Set<Long> distinctTrigrams(String term) {
+        char[] padded = new char[term.length() + 3];
+        Arrays.fill(padded, PAD);
+        term.getChars(0, term.length(), padded, 2);
+
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length; i++) {
+            grams.add(((long) padded[i] << 32) | ((long) padded[i + 1] << 16) | padded[i + 2]);
+        }
+        return grams;
+    }
+}
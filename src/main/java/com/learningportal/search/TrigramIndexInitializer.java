@@ -0,0 +1,54 @@
+package com.learningportal.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+/**
+ * Trigram Index Initializer
+ *
+ * Creates the pg_trgm GIN indexes behind the DATABASE search backend once
+ * Hibernate has built the schema. The content tables belong to Hibernate,
+ * not Flyway, and are recreated on every start under create-drop, so the
+ * idempotent index script runs on every start too. A missing table or an
+ * unavailable pg_trgm extension fails startup rather than leaving the
+ * searches to scan whole tables.
+ *
+ * Other databases have no pg_trgm and cannot serve the fuzzy queries;
+ * there the script is skipped.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class TrigramIndexInitializer implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(TrigramIndexInitializer.class);
+
+    private static final String SCRIPT = "db/search/trigram-indexes.sql";
+
+    private final DataSource dataSource;
+
+    public TrigramIndexInitializer(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws MetaDataAccessException {
+        String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        if (!"PostgreSQL".equals(product)) {
+            log.info("Skipping trigram search indexes on {}", product);
+            return;
+        }
+        DatabasePopulatorUtils.execute(new ResourceDatabasePopulator(new ClassPathResource(SCRIPT)), dataSource);
+        log.info("Trigram search indexes in place");
+    }
+}
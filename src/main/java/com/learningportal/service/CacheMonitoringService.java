@@ -46,6 +46,7 @@ public class CacheMonitoringService {
                 cacheStats.setLoadCount(stats.loadCount());
                 cacheStats.setAverageLoadTime(stats.averageLoadPenalty());
                 cacheStats.setEstimatedSize(nativeCache.estimatedSize());
+                setWeights(cacheStats, nativeCache);
                 
                 // Calculate efficiency score
                 cacheStats.setEfficiencyScore(calculateEfficiencyScore(stats));
@@ -77,6 +78,7 @@ public class CacheMonitoringService {
             cacheStats.setLoadCount(stats.loadCount());
             cacheStats.setAverageLoadTime(stats.averageLoadPenalty());
             cacheStats.setEstimatedSize(nativeCache.estimatedSize());
+            setWeights(cacheStats, nativeCache);
             cacheStats.setEfficiencyScore(calculateEfficiencyScore(stats));
             
             return cacheStats;
@@ -148,6 +150,19 @@ public class CacheMonitoringService {
         return recommendations;
     }
 
+    /**
+     * Record the estimated bytes held by a cache and its byte budget; caches
+     * are weighed by the heap their entries retain
+     */
+    private void setWeights(CacheStatistics cacheStats, Cache<Object, Object> nativeCache) {
+        nativeCache.policy().eviction().ifPresent(eviction -> {
+            if (eviction.isWeighted()) {
+                cacheStats.setEstimatedBytes(eviction.weightedSize().orElse(0));
+                cacheStats.setMaxBytes(eviction.getMaximum());
+            }
+        });
+    }
+
     /**
      * Calculate cache efficiency score (0-100)
      */
@@ -172,6 +187,8 @@ public class CacheMonitoringService {
         private long loadCount;
         private double averageLoadTime;
         private long estimatedSize;
+        private long estimatedBytes;
+        private long maxBytes;
         private double efficiencyScore;
 
         // Getters and setters
@@ -202,6 +219,12 @@ public class CacheMonitoringService {
         public long getEstimatedSize() { return estimatedSize; }
         public void setEstimatedSize(long estimatedSize) { this.estimatedSize = estimatedSize; }
         
+        public long getEstimatedBytes() { return estimatedBytes; }
+        public void setEstimatedBytes(long estimatedBytes) { this.estimatedBytes = estimatedBytes; }
+        
+        public long getMaxBytes() { return maxBytes; }
+        public void setMaxBytes(long maxBytes) { this.maxBytes = maxBytes; }
+        
         public double getEfficiencyScore() { return efficiencyScore; }
         public void setEfficiencyScore(double efficiencyScore) { this.efficiencyScore = efficiencyScore; }
         
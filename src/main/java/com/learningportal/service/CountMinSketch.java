@@ -0,0 +1,93 @@
+package com.learningportal.service;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Count-Min Sketch
+ *
+ * Approximate, fixed-memory counts of string keys that decay over time:
+ * every counter is halved once per half-life, so an estimate reflects
+ * recent additions, each weighing half as much for every half-life passed.
+ *
+ * Estimates never undercount but may overcount when keys share counters;
+ * conservative updates - raising only the counters at a key's current
+ * minimum - keep that error low. Counters are updated with compare-and-set
+ * and halved by whichever caller first notices a half-life has passed.
+ */
+final class CountMinSketch {
+
+    private static final int DEPTH = 4;
+    private static final long[] SEEDS = {
+        0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+    };
+
+    private final int mask;
+    private final AtomicIntegerArray counters;
+    private final long halfLifeMs;
+    private final AtomicLong nextHalvingAt;
+
+    /**
+     * @param width counters per row, rounded up to a power of two
+     */
+    CountMinSketch(int width, long halfLifeMs, long now) {
+        int rowWidth = Integer.highestOneBit(Math.max(2, width - 1)) << 1;
+        this.mask = rowWidth - 1;
+        this.counters = new AtomicIntegerArray(DEPTH * rowWidth);
+        this.halfLifeMs = halfLifeMs;
+        this.nextHalvingAt = new AtomicLong(now + halfLifeMs);
+    }
+
+    /**
+     * Count one occurrence of a key
+     *
+     * @return the key's estimated count, including this occurrence
+     */
+    int add(String key, long now) {
+        decay(now);
+        int[] indexes = indexes(key);
+        int estimate = Integer.MAX_VALUE;
+        for (int index : indexes) {
+            estimate = Math.min(estimate, counters.get(index));
+        }
+        int target = estimate + 1;
+        for (int index : indexes) {
+            counters.accumulateAndGet(index, target, Math::max);
+        }
+        return target;
+    }
+
+    private void decay(long now) {
+        long due = nextHalvingAt.get();
+        if (now < due) {
+            return;
+        }
+        long periods = (now - due) / halfLifeMs + 1;
+        if (!nextHalvingAt.compareAndSet(due, due + periods * halfLifeMs)) {
+            return;
+        }
+        int shift = (int) Math.min(periods, Integer.SIZE - 1);
+        for (int i = 0; i < counters.length(); i++) {
+            counters.getAndUpdate(i, value -> value >>> shift);
+        }
+    }
+
+    private int[] indexes(String key) {
+        long hash = key.hashCode();
+        int rowWidth = mask + 1;
+        int[] indexes = new int[DEPTH];
+        for (int row = 0; row < DEPTH; row++) {
+            indexes[row] = row * rowWidth + (int) (mix(hash * SEEDS[row] + row) & mask);
+        }
+        return indexes;
+    }
+
+    // Murmur3 finalizer, so every bit of the key's hash reaches every row index
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+}
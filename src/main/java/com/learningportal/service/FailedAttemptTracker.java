@@ -0,0 +1,125 @@
+package com.learningportal.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Failed Attempt Tracker
+ *
+ * Fixed-memory record of failed attempts per client IP, for blocking brute
+ * force without growing with the number of sources. Every failure is
+ * counted in a decaying {@link CountMinSketch}; an IP the sketch estimates
+ * has failed repeatedly is admitted to a bounded table of offenders, whose
+ * failures are then counted exactly with exponential decay. Only offenders
+ * are ever blocked, so the sketch overcounting under a widely distributed
+ * attack cannot block an IP on failures it did not make.
+ *
+ * An offender whose decayed count reaches the threshold is blocked for a
+ * fixed period and unblocked automatically once it ends. Checking an IP is
+ * a single table lookup.
+ */
+final class FailedAttemptTracker {
+
+    // Estimated failures that get an IP tracked individually
+    private static final int ADMISSION_ESTIMATE = 2;
+
+    private final int threshold;
+    private final double halfLifeMs;
+    private final long blockMs;
+    private final LongSupplier clock;
+    private final CountMinSketch sketch;
+    private final Cache<String, Offender> offenders;
+
+    /**
+     * @param threshold decayed failures that block an IP
+     * @param halfLife time over which a failure's weight halves
+     * @param blockDuration how long an IP stays blocked
+     * @param maxOffenders IPs tracked individually at most
+     */
+    FailedAttemptTracker(int threshold, Duration halfLife, Duration blockDuration, int sketchWidth,
+                         int maxOffenders, LongSupplier clock) {
+        this.threshold = threshold;
+        this.halfLifeMs = halfLife.toMillis();
+        this.blockMs = blockDuration.toMillis();
+        this.clock = clock;
+        this.sketch = new CountMinSketch(sketchWidth, halfLife.toMillis(), clock.getAsLong());
+        this.offenders = Caffeine.newBuilder()
+            .maximumSize(maxOffenders)
+            .expireAfterAccess(blockDuration.plus(halfLife))
+            .build();
+    }
+
+    /**
+     * Count a failed attempt
+     *
+     * @return true when this failure blocks the IP
+     */
+    boolean recordFailure(String ip) {
+        long now = clock.getAsLong();
+        int estimate = sketch.add(ip, now);
+        Offender offender = offenders.getIfPresent(ip);
+        if (offender == null) {
+            if (estimate < ADMISSION_ESTIMATE) {
+                return false;
+            }
+            offender = offenders.get(ip, k -> new Offender(ADMISSION_ESTIMATE - 1, now));
+        }
+        return offender.record(now);
+    }
+
+    boolean isBlocked(String ip) {
+        Offender offender = offenders.getIfPresent(ip);
+        return offender != null && clock.getAsLong() < offender.blockedUntil;
+    }
+
+    void reset(String ip) {
+        offenders.invalidate(ip);
+    }
+
+    int blockedCount() {
+        long now = clock.getAsLong();
+        return (int) offenders.asMap().values().stream().filter(offender -> now < offender.blockedUntil).count();
+    }
+
+    long trackedCount() {
+        offenders.cleanUp();
+        return offenders.estimatedSize();
+    }
+
+    /**
+     * Decayed failures of all tracked IPs
+     */
+    double activeFailures() {
+        long now = clock.getAsLong();
+        return offenders.asMap().values().stream().mapToDouble(offender -> offender.count(now)).sum();
+    }
+
+    private final class Offender {
+
+        private double count;
+        private long updatedAt;
+        private volatile long blockedUntil;
+
+        Offender(double count, long now) {
+            this.count = count;
+            this.updatedAt = now;
+        }
+
+        synchronized boolean record(long now) {
+            count = count(now) + 1;
+            updatedAt = now;
+            if (count >= threshold && now >= blockedUntil) {
+                blockedUntil = now + blockMs;
+                return true;
+            }
+            return false;
+        }
+
+        synchronized double count(long now) {
+            return count * Math.pow(0.5, (now - updatedAt) / halfLifeMs);
+        }
+    }
+}
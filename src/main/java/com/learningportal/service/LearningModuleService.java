@@ -1,8 +1,14 @@
 package com.learningportal.service;
 
+import com.learningportal.cache.MethodKeyGenerator;
+import com.learningportal.dto.LearningModuleDto;
 import com.learningportal.dto.ModuleSummaryDto;
 import com.learningportal.model.LearningModule;
 import com.learningportal.repository.LearningModuleRepository;
+import com.learningportal.search.CachedResult;
+import com.learningportal.search.DocumentType;
+import com.learningportal.search.QueryFingerprint;
+import com.learningportal.search.SearchResultCache;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
@@ -10,13 +16,18 @@ import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service layer for Learning Module operations.
@@ -26,6 +37,10 @@ import java.util.Optional;
  * - Search and filtering capabilities
  * - Caching for performance optimization
  * - Statistics and analytics
+ * 
+ * Reads return immutable {@link LearningModuleDto} projections, built once
+ * inside the read transaction, so cached values never hold managed entities
+ * or lazy collections.
  */
 @Service
 @Transactional
@@ -34,9 +49,11 @@ public class LearningModuleService {
     private static final Logger log = LoggerFactory.getLogger(LearningModuleService.class);
     
     private final LearningModuleRepository moduleRepository;
+    private final SearchResultCache searchResultCache;
     
-    public LearningModuleService(LearningModuleRepository moduleRepository) {
+    public LearningModuleService(LearningModuleRepository moduleRepository, SearchResultCache searchResultCache) {
         this.moduleRepository = moduleRepository;
+        this.searchResultCache = searchResultCache;
     }
 
     /**
@@ -45,25 +62,51 @@ public class LearningModuleService {
      * @param pageable pagination parameters
      * @return paginated list of learning modules
      */
-    @Cacheable(value = "learningModules", key = "#pageable.pageNumber + '_' + #pageable.pageSize")
+    @Cacheable(value = "learningModules", keyGenerator = MethodKeyGenerator.BEAN_NAME, sync = true)
     @Transactional(readOnly = true)
-    public Page<LearningModule> getAllModules(Pageable pageable) {
+    public Page<LearningModuleDto> getAllModules(Pageable pageable) {
         log.debug("Fetching all modules with pagination: {}", pageable);
-        return moduleRepository.findAll(pageable);
+        return moduleRepository.findAll(pageable).map(LearningModuleDto::from);
     }
 
     /**
      * Search learning modules by name or description.
      * 
+     * Matching module IDs are cached per normalized search term and page,
+     * and evicted when a module the search could match changes; cached
+     * pages are served by loading the modules by ID.
+     * 
      * @param searchTerm search term to match against name or description
      * @param pageable pagination parameters
      * @return paginated list of matching learning modules
      */
-    @Cacheable(value = "learningModules", key = "'search_' + #searchTerm + '_' + #pageable.pageNumber + '_' + #pageable.pageSize")
     @Transactional(readOnly = true)
-    public Page<LearningModule> searchModules(String searchTerm, Pageable pageable) {
+    public Page<LearningModuleDto> searchModules(String searchTerm, Pageable pageable) {
         log.debug("Searching modules with term: '{}', pagination: {}", searchTerm, pageable);
-        return moduleRepository.searchModules(searchTerm, pageable);
+        QueryFingerprint key = QueryFingerprint.ofText(QueryFingerprint.Scope.MODULE_TEXT, searchTerm,
+            pageable.getPageNumber(), pageable.getPageSize());
+        
+        return searchResultCache.get(key,
+            () -> moduleRepository.searchModules(searchTerm, pageable).map(LearningModuleDto::from),
+            page -> CachedResult.ofPage(DocumentType.MODULE,
+                page.getContent().stream().mapToLong(LearningModuleDto::id).toArray(), page.getTotalElements()),
+            cached -> new PageImpl<>(findModulesInOrder(cached.ids(DocumentType.MODULE)), pageable,
+                cached.total(DocumentType.MODULE)));
+    }
+
+    private List<LearningModuleDto> findModulesInOrder(long[] ids) {
+        Map<Long, LearningModule> modules = moduleRepository.findAllById(Arrays.stream(ids).boxed().toList())
+            .stream()
+            .collect(Collectors.toMap(LearningModule::getId, Function.identity()));
+        
+        List<LearningModuleDto> ordered = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            LearningModule module = modules.get(id);
+            if (module != null) {
+                ordered.add(LearningModuleDto.from(module));
+            }
+        }
+        return ordered;
     }
 
     /**
@@ -73,10 +116,14 @@ public class LearningModuleService {
      * @return the learning module
      * @throws EntityNotFoundException if module not found
      */
-    @Cacheable(value = "learningModules", key = "#id")
+    @Cacheable(value = "learningModules", keyGenerator = MethodKeyGenerator.BEAN_NAME, sync = true)
     @Transactional(readOnly = true)
-    public LearningModule getModuleById(Long id) {
+    public LearningModuleDto getModuleById(Long id) {
         log.debug("Fetching module with ID: {}", id);
+        return LearningModuleDto.from(findModule(id));
+    }
+
+    private LearningModule findModule(Long id) {
         return moduleRepository.findById(id)
             .orElseThrow(() -> new EntityNotFoundException("Learning module not found with ID: " + id));
     }
@@ -88,11 +135,12 @@ public class LearningModuleService {
      * @return the learning module with topics
      * @throws EntityNotFoundException if module not found
      */
-    @Cacheable(value = "learningModules", key = "'with_topics_' + #id")
+    @Cacheable(value = "learningModules", keyGenerator = MethodKeyGenerator.BEAN_NAME, sync = true)
     @Transactional(readOnly = true)
-    public LearningModule getModuleByIdWithTopics(Long id) {
+    public LearningModuleDto getModuleByIdWithTopics(Long id) {
         log.debug("Fetching module with topics, ID: {}", id);
         return moduleRepository.findByIdWithTopics(id)
+            .map(LearningModuleDto::withTopics)
             .orElseThrow(() -> new EntityNotFoundException("Learning module not found with ID: " + id));
     }
 
@@ -103,11 +151,12 @@ public class LearningModuleService {
      * @return the learning module with questions
      * @throws EntityNotFoundException if module not found
      */
-    @Cacheable(value = "learningModules", key = "'with_questions_' + #id")
+    @Cacheable(value = "learningModules", keyGenerator = MethodKeyGenerator.BEAN_NAME, sync = true)
     @Transactional(readOnly = true)
-    public LearningModule getModuleByIdWithQuestions(Long id) {
+    public LearningModuleDto getModuleByIdWithQuestions(Long id) {
         log.debug("Fetching module with questions, ID: {}", id);
         return moduleRepository.findByIdWithQuestions(id)
+            .map(LearningModuleDto::withQuestions)
             .orElseThrow(() -> new EntityNotFoundException("Learning module not found with ID: " + id));
     }
 
@@ -117,11 +166,13 @@ public class LearningModuleService {
      * @param category the module category
      * @return list of modules in the category
      */
-    @Cacheable(value = "learningModules", key = "'category_' + #category")
+    @Cacheable(value = "learningModules", keyGenerator = MethodKeyGenerator.BEAN_NAME, sync = true)
     @Transactional(readOnly = true)
-    public List<LearningModule> getModulesByCategory(LearningModule.Category category) {
+    public List<LearningModuleDto> getModulesByCategory(LearningModule.Category category) {
         log.debug("Fetching modules by category: {}", category);
-        return moduleRepository.findByCategoryOrderBySortOrderAsc(category);
+        return moduleRepository.findByCategoryOrderBySortOrderAsc(category).stream()
+            .map(LearningModuleDto::from)
+            .toList();
     }
 
     /**
@@ -130,11 +181,13 @@ public class LearningModuleService {
      * @param difficulty the difficulty level
      * @return list of modules with the specified difficulty
      */
-    @Cacheable(value = "learningModules", key = "'difficulty_' + #difficulty")
+    @Cacheable(value = "learningModules", keyGenerator = MethodKeyGenerator.BEAN_NAME, sync = true)
     @Transactional(readOnly = true)
-    public List<LearningModule> getModulesByDifficulty(LearningModule.DifficultyLevel difficulty) {
+    public List<LearningModuleDto> getModulesByDifficulty(LearningModule.DifficultyLevel difficulty) {
         log.debug("Fetching modules by difficulty: {}", difficulty);
-        return moduleRepository.findByDifficultyLevelOrderBySortOrderAsc(difficulty);
+        return moduleRepository.findByDifficultyLevelOrderBySortOrderAsc(difficulty).stream()
+            .map(LearningModuleDto::from)
+            .toList();
     }
 
     /**
@@ -143,11 +196,13 @@ public class LearningModuleService {
      * @param pageable pagination parameters
      * @return list of popular modules
      */
-    @Cacheable(value = "learningModules", key = "'popular_' + #pageable.pageSize")
+    @Cacheable(value = "learningModules", keyGenerator = MethodKeyGenerator.BEAN_NAME, sync = true)
     @Transactional(readOnly = true)
-    public List<LearningModule> getPopularModules(Pageable pageable) {
+    public List<LearningModuleDto> getPopularModules(Pageable pageable) {
         log.debug("Fetching popular modules with limit: {}", pageable.getPageSize());
-        return moduleRepository.findPopularModules(pageable);
+        return moduleRepository.findPopularModules(pageable).stream()
+            .map(LearningModuleDto::from)
+            .toList();
     }
 
     /**
@@ -155,7 +210,7 @@ public class LearningModuleService {
      * 
      * @return statistics map with various metrics
      */
-    @Cacheable(value = "learningStats", key = "'module_statistics'")
+    @Cacheable(value = "learningStats", keyGenerator = MethodKeyGenerator.BEAN_NAME, sync = true)
     @Transactional(readOnly = true)
     public Map<String, Object> getModulesStatistics() {
         log.debug("Fetching modules statistics");
@@ -179,7 +234,7 @@ public class LearningModuleService {
      * 
      * @return list of module summaries
      */
-    @Cacheable(value = "learningModules", key = "'summaries'")
+    @Cacheable(value = "learningModules", keyGenerator = MethodKeyGenerator.BEAN_NAME, sync = true)
     @Transactional(readOnly = true)
     public List<ModuleSummaryDto> getModuleSummaries() {
         log.debug("Fetching module summaries");
@@ -226,7 +281,7 @@ public class LearningModuleService {
     public LearningModule updateModule(Long id, LearningModule moduleUpdate) {
         log.info("Updating module with ID: {}", id);
         
-        LearningModule existingModule = getModuleById(id);
+        LearningModule existingModule = findModule(id);
         
         // Check for name conflicts (excluding current module)
         if (!existingModule.getName().equalsIgnoreCase(moduleUpdate.getName()) &&
@@ -1,5 +1,6 @@
 package com.learningportal.service;
 
+import com.learningportal.cache.CacheWarmupEngine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.CacheManager;
@@ -26,10 +27,13 @@ public class PerformanceOptimizationService {
 
     private final DataSource dataSource;
     private final CacheManager cacheManager;
+    private final CacheWarmupEngine cacheWarmupEngine;
 
-    public PerformanceOptimizationService(DataSource dataSource, CacheManager cacheManager) {
+    public PerformanceOptimizationService(DataSource dataSource, CacheManager cacheManager,
+                                          CacheWarmupEngine cacheWarmupEngine) {
         this.dataSource = dataSource;
         this.cacheManager = cacheManager;
+        this.cacheWarmupEngine = cacheWarmupEngine;
     }
 
     /**
@@ -161,15 +165,12 @@ public class PerformanceOptimizationService {
     }
 
     /**
-     * Warm up caches with frequently accessed data
+     * Warm up caches with frequently accessed data, replaying the most
+     * frequently read entries recorded in the warm-up manifest
      */
-    public void warmUpCaches() {
+    public CacheWarmupEngine.WarmupReport warmUpCaches() {
         log.info("Warming up caches with frequently accessed data");
-        
-        // This would typically pre-load frequently accessed data
-        // Implementation depends on specific business logic
-        
-        log.info("Cache warm-up completed");
+        return cacheWarmupEngine.warmUp();
     }
 
     /**
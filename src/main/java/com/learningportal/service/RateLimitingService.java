@@ -1,56 +1,285 @@
 package com.learningportal.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Service for handling rate limiting logic
+ *
+ * Limits are shared by every node through Redis, where the generic cell
+ * rate algorithm (GCRA) runs in a script: each client's state is a single
+ * timestamp - the time its allowance is next fully spent - and one atomic
+ * call grants up to a requested number of requests and reports the
+ * remaining allowance and reset time. A limit of N requests per window
+ * admits bursts of up to N and then one request every window / N, which
+ * approximates a sliding window without storing individual requests. Time
+ * is read from Redis, so nodes need not agree on the clock.
+ *
+ * Redis is kept off the request path: each node reserves allowance in
+ * batches into local per-client buckets and takes requests from them with
+ * a compare-and-set. A bucket running low is topped up in the background;
+ * only an empty one waits for Redis, and a client Redis has refused is
+ * rejected locally until it may retry.
+ *
+ * When Redis fails, each node enforces a share of every limit on its own
+ * for a back-off period, with a local GCRA per client, rather than failing
+ * requests or letting them through unlimited.
  */
 @Service
 public class RateLimitingService {
 
+    private static final Logger log = LoggerFactory.getLogger(RateLimitingService.class);
+
+    private static final String KEY_PREFIX = "rate_limit:";
+    private static final int MAX_LOCAL_CLIENTS = 100_000;
+    private static final Duration LOCAL_IDLE_EXPIRY = Duration.ofMinutes(10);
+    private static final int RESERVE_THREADS = 2;
+    private static final int RESERVE_QUEUE_CAPACITY = 1024;
+
+    // ARGV: limit, window and the number of requests wanted; times in microseconds.
+    // Returns granted, remaining, reset-after and retry-after in milliseconds.
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final RedisScript<List<Long>> GCRA = (RedisScript) RedisScript.of("""
+        local limit = tonumber(ARGV[1])
+        local window = tonumber(ARGV[2])
+        local wanted = tonumber(ARGV[3])
+        local interval = math.max(1, math.floor(window / limit))
+        local time = redis.call('TIME')
+        local now = tonumber(time[1]) * 1000000 + tonumber(time[2])
+        local tat = tonumber(redis.call('GET', KEYS[1]))
+        if not tat or tat < now then
+            tat = now
+        end
+        local available = math.floor((window - (tat - now)) / interval)
+        local granted = math.min(wanted, available)
+        if granted <= 0 then
+            return {0, 0, math.ceil((tat - now) / 1000), math.ceil((tat + interval - window - now) / 1000)}
+        end
+        local next_tat = tat + granted * interval
+        redis.call('SET', KEYS[1], next_tat, 'PX', math.ceil((next_tat - now) / 1000))
+        return {granted, available - granted, math.ceil((next_tat - now) / 1000), 0}
+        """, List.class);
+
+    /**
+     * Outcome of a rate limit check
+     *
+     * @param remaining requests still allowed right now
+     * @param resetAt epoch milliseconds at which the full allowance is back
+     * @param retryAfterMs how long to wait before a rejected request can succeed, or 0
+     */
+    public record Decision(boolean allowed, int limit, long remaining, long resetAt, long retryAfterMs) {
+    }
+
+    /**
+     * Allowance granted by Redis in one call
+     */
+    private record Reservation(long granted, long remaining, long resetAfterMs, long retryAfterMs) {
+    }
+
     private final RedisTemplate<String, String> redisTemplate;
+    private final long retryAfterMs;
+    private final int batchSize;
+    private final double localShare;
+    private final Cache<String, LocalBucket> buckets = Caffeine.newBuilder()
+        .maximumSize(MAX_LOCAL_CLIENTS)
+        .expireAfterAccess(LOCAL_IDLE_EXPIRY)
+        .build();
+
+    // Background top-ups; when full, buckets are topped up by the request that empties them
+    private final ThreadPoolExecutor reserveExecutor = new ThreadPoolExecutor(
+        RESERVE_THREADS, RESERVE_THREADS, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(RESERVE_QUEUE_CAPACITY), r -> {
+            Thread t = new Thread(r, "rate-limit-reserve");
+            t.setDaemon(true);
+            return t;
+        });
+
+    private volatile long unavailableUntil;
 
-    public RateLimitingService(RedisTemplate<String, String> redisTemplate) {
+    public RateLimitingService(@Qualifier("rateLimitRedisTemplate") RedisTemplate<String, String> redisTemplate,
+                               @Value("${app.rate-limit.retry-after-ms:30000}") long retryAfterMs,
+                               @Value("${app.rate-limit.batch-size:20}") int batchSize,
+                               @Value("${app.rate-limit.local-share:1.0}") double localShare) {
         this.redisTemplate = redisTemplate;
+        this.retryAfterMs = retryAfterMs;
+        this.batchSize = batchSize;
+        this.localShare = localShare;
+    }
+
+    /**
+     * Take one request from a client's allowance of maxRequests per window
+     */
+    public Decision tryAcquire(String key, int maxRequests, Duration window) {
+        return tryAcquire(key, 1, maxRequests, window);
+    }
+
+    /**
+     * Take a request weighing cost requests from a client's allowance of
+     * maxRequests per window; a cost above the allowance is charged as all
+     * of it
+     */
+    public Decision tryAcquire(String key, int cost, int maxRequests, Duration window) {
+        int weight = Math.max(1, Math.min(cost, maxRequests));
+        LocalBucket bucket = buckets.get(key, k -> new LocalBucket());
+        int batch = Math.max(weight, batchSize(maxRequests));
+        long tokens = bucket.take(weight);
+        if (tokens >= 0) {
+            if (tokens <= batch / 2) {
+                reserveInBackground(key, bucket, maxRequests, window, batch);
+            }
+            return bucket.allowed(maxRequests, tokens);
+        }
+
+        long now = System.currentTimeMillis();
+        if (now < unavailableUntil) {
+            return bucket.local(weight, maxRequests, window, localShare);
+        }
+        if (now < bucket.deniedUntil) {
+            return bucket.denied(maxRequests, now);
+        }
+        Reservation reservation = reserve(key, maxRequests, window, batch);
+        if (reservation == null) {
+            return bucket.local(weight, maxRequests, window, localShare);
+        }
+        bucket.apply(reservation, now);
+        tokens = bucket.take(weight);
+        return tokens >= 0 ? bucket.allowed(maxRequests, tokens) : bucket.denied(maxRequests, now);
+    }
+
+    private int batchSize(int maxRequests) {
+        return Math.max(1, Math.min(batchSize, maxRequests / 10));
     }
 
-    public boolean isAllowed(String key, int maxRequests, Duration window) {
-        String redisKey = "rate_limit:" + key;
-        
-        // Get current count
-        String currentCountStr = redisTemplate.opsForValue().get(redisKey);
-        int currentCount = currentCountStr != null ? Integer.parseInt(currentCountStr) : 0;
-        
-        if (currentCount >= maxRequests) {
-            return false;
+    private void reserveInBackground(String key, LocalBucket bucket, int maxRequests, Duration window, int batch) {
+        if (System.currentTimeMillis() < unavailableUntil || !bucket.reserving.compareAndSet(false, true)) {
+            return;
         }
-        
-        // Increment counter
-        if (currentCount == 0) {
-            // First request in window - set with expiration
-            redisTemplate.opsForValue().set(redisKey, "1", window.getSeconds(), TimeUnit.SECONDS);
-        } else {
-            // Increment existing counter
-            redisTemplate.opsForValue().increment(redisKey);
+        try {
+            reserveExecutor.execute(() -> {
+                try {
+                    Reservation reservation = reserve(key, maxRequests, window, batch);
+                    if (reservation != null) {
+                        bucket.apply(reservation, System.currentTimeMillis());
+                    }
+                } finally {
+                    bucket.reserving.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            bucket.reserving.set(false);
         }
-        
-        return true;
     }
 
-    public int getRemainingRequests(String key, int maxRequests) {
-        String redisKey = "rate_limit:" + key;
-        String currentCountStr = redisTemplate.opsForValue().get(redisKey);
-        int currentCount = currentCountStr != null ? Integer.parseInt(currentCountStr) : 0;
-        return Math.max(0, maxRequests - currentCount);
+    /**
+     * Reserve up to a batch of requests from Redis, or return null when
+     * Redis is unavailable
+     */
+    private Reservation reserve(String key, int maxRequests, Duration window, int batch) {
+        List<Long> result;
+        try {
+            result = redisTemplate.execute(GCRA, List.of(KEY_PREFIX + key),
+                String.valueOf(maxRequests), String.valueOf(window.toNanos() / 1000), String.valueOf(batch));
+        } catch (DataAccessException e) {
+            unavailableUntil = System.currentTimeMillis() + retryAfterMs;
+            log.warn("Rate limiting store unavailable, limiting per node for {}ms: {}", retryAfterMs, e.getMessage());
+            return null;
+        }
+        if (result == null || result.size() < 4) {
+            return null;
+        }
+        return new Reservation(result.get(0), result.get(1), result.get(2), result.get(3));
     }
 
-    public long getResetTime(String key) {
-        String redisKey = "rate_limit:" + key;
-        Long ttl = redisTemplate.getExpire(redisKey, TimeUnit.SECONDS);
-        return ttl != null ? System.currentTimeMillis() + (ttl * 1000) : 0;
+    /**
+     * One client's allowance on this node: requests reserved from Redis
+     * and not yet taken, and the local limit applied while Redis is
+     * unavailable
+     */
+    private static final class LocalBucket {
+
+        private final AtomicLong tokens = new AtomicLong();
+        private final AtomicBoolean reserving = new AtomicBoolean();
+        // Theoretical arrival time of the local GCRA, in System.nanoTime() terms
+        private final AtomicLong localTat = new AtomicLong(System.nanoTime());
+
+        // Last state reported by Redis
+        private volatile long remaining;
+        private volatile long resetAt;
+        private volatile long deniedUntil;
+
+        /**
+         * Take reserved requests
+         *
+         * @return the tokens left after taking them, or -1 when there were too few
+         */
+        long take(int count) {
+            long current;
+            do {
+                current = tokens.get();
+                if (current < count) {
+                    return -1;
+                }
+            } while (!tokens.compareAndSet(current, current - count));
+            return current - count;
+        }
+
+        void apply(Reservation reservation, long now) {
+            remaining = reservation.remaining();
+            resetAt = now + reservation.resetAfterMs();
+            deniedUntil = reservation.granted() > 0 ? 0 : now + reservation.retryAfterMs();
+            if (reservation.granted() > 0) {
+                tokens.addAndGet(reservation.granted());
+            }
+        }
+
+        Decision allowed(int limit, long tokensLeft) {
+            return new Decision(true, limit, tokensLeft + remaining, resetAt, 0);
+        }
+
+        Decision denied(int limit, long now) {
+            return new Decision(false, limit, 0, resetAt, Math.max(0, deniedUntil - now));
+        }
+
+        /**
+         * Decide with this node's share of the limit alone
+         */
+        Decision local(int weight, int limit, Duration window, double share) {
+            long capacity = Math.max(1, (long) (limit * share));
+            long windowNanos = window.toNanos();
+            long interval = Math.max(1, windowNanos / capacity);
+            long cost = Math.min(weight, capacity) * interval;
+            long now = System.nanoTime();
+            long wallNow = System.currentTimeMillis();
+            while (true) {
+                long tat = localTat.get();
+                long next = (tat - now > 0 ? tat : now) + cost;
+                if (next - now > windowNanos) {
+                    long retryAfter = TimeUnit.NANOSECONDS.toMillis(next - windowNanos - now) + 1;
+                    return new Decision(false, limit, 0,
+                        wallNow + TimeUnit.NANOSECONDS.toMillis(next - cost - now), retryAfter);
+                }
+                if (localTat.compareAndSet(tat, next)) {
+                    return new Decision(true, limit, (windowNanos - (next - now)) / interval,
+                        wallNow + TimeUnit.NANOSECONDS.toMillis(next - now), 0);
+                }
+            }
+        }
     }
-}
\ No newline at end of file
+}
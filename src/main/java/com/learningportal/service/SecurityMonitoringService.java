@@ -4,27 +4,37 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Service for monitoring API security events and suspicious activities
+ *
+ * Failed attempts are tracked in fixed memory by a
+ * {@link FailedAttemptTracker}, with decaying counts: an IP failing
+ * repeatedly in a short time is blocked for a while and then unblocked
+ * automatically, however many IPs an attack comes from.
  */
 @Service
 public class SecurityMonitoringService {
 
     private static final Logger securityLogger = LoggerFactory.getLogger("SECURITY");
     
-    // Track failed attempts per IP
-    private final Map<String, AtomicInteger> failedAttempts = new ConcurrentHashMap<>();
-    private final Map<String, LocalDateTime> lastFailedAttempt = new ConcurrentHashMap<>();
-    
     // Suspicious patterns
     private static final int MAX_FAILED_ATTEMPTS = 5;
     private static final int SUSPICIOUS_REQUEST_THRESHOLD = 100;
 
+    // Failed attempt tracking: decay, block period and fixed memory bounds
+    private static final Duration FAILED_ATTEMPT_HALF_LIFE = Duration.ofMinutes(5);
+    private static final Duration BLOCK_DURATION = Duration.ofMinutes(15);
+    private static final int SKETCH_WIDTH = 1 << 14;
+    private static final int MAX_TRACKED_IPS = 10_000;
+
+    // Track failed attempts per IP
+    private final FailedAttemptTracker failedAttempts = new FailedAttemptTracker(MAX_FAILED_ATTEMPTS,
+        FAILED_ATTEMPT_HALF_LIFE, BLOCK_DURATION, SKETCH_WIDTH, MAX_TRACKED_IPS, System::currentTimeMillis);
+
     public void logSecurityEvent(String eventType, String clientIp, String userAgent, 
                                 String endpoint, String details) {
         securityLogger.info("Security Event: {} | IP: {} | Endpoint: {} | UserAgent: {} | Details: {}", 
@@ -33,16 +43,15 @@ public class SecurityMonitoringService {
 
     public void logFailedAuthentication(String clientIp, String username, String reason) {
         // Increment failed attempts
-        failedAttempts.computeIfAbsent(clientIp, k -> new AtomicInteger(0)).incrementAndGet();
-        lastFailedAttempt.put(clientIp, LocalDateTime.now());
+        boolean blocked = failedAttempts.recordFailure(clientIp);
         
         securityLogger.warn("Failed Authentication: IP: {} | Username: {} | Reason: {}", 
                            clientIp, username, reason);
         
         // Check for suspicious activity
-        if (failedAttempts.get(clientIp).get() >= MAX_FAILED_ATTEMPTS) {
+        if (blocked) {
             logSuspiciousActivity("BRUTE_FORCE_ATTEMPT", clientIp, 
-                                "Multiple failed authentication attempts");
+                                "Multiple failed authentication attempts; blocked for " + BLOCK_DURATION);
         }
     }
 
@@ -62,21 +71,18 @@ public class SecurityMonitoringService {
     }
 
     public boolean isSuspiciousIp(String clientIp) {
-        AtomicInteger attempts = failedAttempts.get(clientIp);
-        return attempts != null && attempts.get() >= MAX_FAILED_ATTEMPTS;
+        return failedAttempts.isBlocked(clientIp);
     }
 
     public void resetFailedAttempts(String clientIp) {
-        failedAttempts.remove(clientIp);
-        lastFailedAttempt.remove(clientIp);
+        failedAttempts.reset(clientIp);
     }
 
     public Map<String, Object> getSecurityMetrics() {
         return Map.of(
-            "totalSuspiciousIps", failedAttempts.size(),
-            "activeThreats", failedAttempts.entrySet().stream()
-                .mapToInt(entry -> entry.getValue().get())
-                .sum(),
+            "totalSuspiciousIps", failedAttempts.blockedCount(),
+            "activeThreats", Math.round(failedAttempts.activeFailures()),
+            "trackedIps", failedAttempts.trackedCount(),
             "lastUpdated", LocalDateTime.now()
         );
     }
@@ -2,6 +2,9 @@ package com.learningportal.service;
 
 import com.learningportal.model.UserNote;
 import com.learningportal.repository.UserNoteRepository;
+import com.learningportal.search.NoteHit;
+import com.learningportal.search.NoteSearchIndex;
+import com.learningportal.search.SearchMode;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -15,9 +18,11 @@ import java.util.Optional;
 public class UserNoteService {
 
     private final UserNoteRepository noteRepository;
+    private final NoteSearchIndex noteSearchIndex;
 
-    public UserNoteService(UserNoteRepository noteRepository) {
+    public UserNoteService(UserNoteRepository noteRepository, NoteSearchIndex noteSearchIndex) {
         this.noteRepository = noteRepository;
+        this.noteSearchIndex = noteSearchIndex;
     }
 
     public UserNote createNote(UserNote note) {
@@ -56,12 +61,14 @@ public class UserNoteService {
         return noteRepository.findByIsPublicTrueOrderByUpdatedAtDesc();
     }
 
-    public List<UserNote> searchUserNotes(Long userId, String search) {
-        return noteRepository.searchUserNotes(userId, search);
+    @Transactional(readOnly = true)
+    public Page<NoteHit> searchUserNotes(Long userId, String search, SearchMode mode, Pageable pageable) {
+        return noteSearchIndex.searchUserNotes(userId, search, mode, pageable);
     }
 
-    public List<UserNote> searchPublicNotes(String search) {
-        return noteRepository.searchPublicNotes(search);
+    @Transactional(readOnly = true)
+    public Page<NoteHit> searchPublicNotes(String search, SearchMode mode, Pageable pageable) {
+        return noteSearchIndex.searchPublicNotes(search, mode, pageable);
     }
 
     public UserNote updateNote(Long id, UserNote noteUpdate) {
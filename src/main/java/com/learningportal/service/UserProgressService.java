@@ -1,5 +1,8 @@
 package com.learningportal.service;
 
+import com.learningportal.cache.CacheRegion;
+import com.learningportal.config.CacheConfig;
+import com.learningportal.dto.UserProgressDto;
 import com.learningportal.model.LearningModule;
 import com.learningportal.model.Topic;
 import com.learningportal.model.User;
@@ -9,7 +12,7 @@ import com.learningportal.repository.UserProgressRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -39,9 +42,12 @@ public class UserProgressService {
     private static final Logger log = LoggerFactory.getLogger(UserProgressService.class);
     
     private final UserProgressRepository progressRepository;
+    private final CacheRegion progressRegion;
     
-    public UserProgressService(UserProgressRepository progressRepository) {
+    public UserProgressService(UserProgressRepository progressRepository,
+                               @Qualifier(CacheConfig.USER_PROGRESS_REGION) CacheRegion progressRegion) {
         this.progressRepository = progressRepository;
+        this.progressRegion = progressRegion;
     }
 
     /**
@@ -70,6 +76,7 @@ public class UserProgressService {
         newProgress.setAccessCount(0);
         
         UserProgress savedProgress = progressRepository.save(newProgress);
+        progressRegion.invalidate(userId);
         log.info("Created new module progress record with ID: {}", savedProgress.getId());
         return savedProgress;
     }
@@ -100,6 +107,7 @@ public class UserProgressService {
         newProgress.setAccessCount(0);
         
         UserProgress savedProgress = progressRepository.save(newProgress);
+        progressRegion.invalidate(userId);
         log.info("Created new topic progress record with ID: {}", savedProgress.getId());
         return savedProgress;
     }
@@ -113,7 +121,6 @@ public class UserProgressService {
      * @param timeSpentMinutes additional time spent
      * @return the updated progress record
      */
-    @CacheEvict(value = "userProgress", key = "#userId")
     @Transactional
     public UserProgress updateModuleProgress(Long userId, Long moduleId, Integer progressPercentage, Integer timeSpentMinutes) {
         log.info("Updating module progress for user {} and module {}: {}%", userId, moduleId, progressPercentage);
@@ -130,6 +137,7 @@ public class UserProgressService {
         }
         
         UserProgress savedProgress = progressRepository.save(progress);
+        progressRegion.invalidate(userId);
         log.info("Updated progress record ID: {}", savedProgress.getId());
         return savedProgress;
     }
@@ -143,7 +151,6 @@ public class UserProgressService {
      * @param timeSpentMinutes additional time spent
      * @return the updated progress record
      */
-    @CacheEvict(value = "userProgress", key = "#userId")
     @Transactional
     public UserProgress updateTopicProgress(Long userId, Long topicId, Integer progressPercentage, Integer timeSpentMinutes) {
         log.info("Updating topic progress for user {} and topic {}: {}%", userId, topicId, progressPercentage);
@@ -160,6 +167,7 @@ public class UserProgressService {
         }
         
         UserProgress savedProgress = progressRepository.save(progress);
+        progressRegion.invalidate(userId);
         log.info("Updated progress record ID: {}", savedProgress.getId());
         return savedProgress;
     }
@@ -169,13 +177,14 @@ public class UserProgressService {
      * 
      * @param userId the user ID
      * @param pageable pagination parameters
-     * @return paginated progress records
+     * @return paginated progress records, projected so that no lazy user,
+     *         module or topic reference is cached
      */
-    @Cacheable(value = "userProgress", key = "#userId + '_page_' + #pageable.pageNumber")
+    @Cacheable(value = "userProgress", keyGenerator = CacheConfig.USER_PROGRESS_REGION, sync = true)
     @Transactional(readOnly = true)
-    public Page<UserProgress> getUserProgress(Long userId, Pageable pageable) {
+    public Page<UserProgressDto> getUserProgress(Long userId, Pageable pageable) {
         log.debug("Fetching progress for user: {}", userId);
-        return progressRepository.findByUserIdOrderByUpdatedAtDesc(userId, pageable);
+        return progressRepository.findByUserIdOrderByUpdatedAtDesc(userId, pageable).map(UserProgressDto::from);
     }
 
     /**
@@ -184,7 +193,7 @@ public class UserProgressService {
      * @param userId the user ID
      * @return comprehensive progress statistics
      */
-    @Cacheable(value = "userProgress", key = "#userId + '_stats'")
+    @Cacheable(value = "userProgress", keyGenerator = CacheConfig.USER_PROGRESS_REGION, sync = true)
     @Transactional(readOnly = true)
     public Map<String, Object> getUserProgressStatistics(Long userId) {
         log.debug("Calculating progress statistics for user: {}", userId);
@@ -315,7 +324,6 @@ public class UserProgressService {
      * @param notes optional notes
      * @return the updated progress record
      */
-    @CacheEvict(value = "userProgress", allEntries = true)
     @Transactional
     public UserProgress rateProgress(Long progressId, Integer rating, String notes) {
         log.info("Rating progress record {} with rating: {}", progressId, rating);
@@ -330,6 +338,7 @@ public class UserProgressService {
         progress.updateLastAccessed();
         
         UserProgress savedProgress = progressRepository.save(progress);
+        progressRegion.invalidate(progress.getUser().getId());
         log.info("Updated rating for progress record ID: {}", savedProgress.getId());
         return savedProgress;
     }
@@ -370,16 +379,15 @@ public class UserProgressService {
      * 
      * @param progressId the progress record ID
      */
-    @CacheEvict(value = "userProgress", allEntries = true)
     @Transactional
     public void deleteProgress(Long progressId) {
         log.info("Deleting progress record with ID: {}", progressId);
         
-        if (!progressRepository.existsById(progressId)) {
-            throw new EntityNotFoundException("Progress record not found with ID: " + progressId);
-        }
+        UserProgress progress = progressRepository.findById(progressId)
+            .orElseThrow(() -> new EntityNotFoundException("Progress record not found with ID: " + progressId));
         
-        progressRepository.deleteById(progressId);
+        progressRepository.delete(progress);
+        progressRegion.invalidate(progress.getUser().getId());
         log.info("Deleted progress record with ID: {}", progressId);
     }
 
@@ -0,0 +1,23 @@
+-- Trigram search indexes
+-- pg_trgm GIN indexes make both the LOWER(column) LIKE '%term%' searches and the
+-- typo-tolerant word-similarity (<%) searches index-backed instead of full table
+-- scans. Expressions match the repository queries exactly so the planner can use
+-- them. Run by TrigramIndexInitializer after Hibernate has built the schema, on
+-- every start, so the tables must exist and indexes dropped with them come back.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_learning_modules_name_trgm
+    ON learning_modules USING gin (LOWER(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_learning_modules_description_trgm
+    ON learning_modules USING gin (LOWER(description) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_topics_title_trgm
+    ON topics USING gin (LOWER(title) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_topics_description_trgm
+    ON topics USING gin (LOWER(description) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_interview_questions_question_trgm
+    ON interview_questions USING gin (question gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_interview_questions_answer_trgm
+    ON interview_questions USING gin (answer gin_trgm_ops);
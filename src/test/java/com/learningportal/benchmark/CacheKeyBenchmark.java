@@ -0,0 +1,119 @@
+package com.learningportal.benchmark;
+
+import com.learningportal.cache.MethodKeyGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache key generation: the SpEL keys the cached services used to declare
+ * against {@link MethodKeyGenerator}, each followed by the hash lookup the
+ * cache performs with the key.
+ *
+ * SpEL keys are evaluated the way Spring's cache interceptor does, with a
+ * fresh method-based evaluation context per call and pre-parsed expressions.
+ *
+ * Run with allocation profiling:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main
+ *     -Dexec.args="CacheKeyBenchmark -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheKeyBenchmark {
+
+    /**
+     * Stands in for the cached service methods
+     */
+    public static class Service {
+
+        public Object getUserProgress(Long userId, Pageable pageable) {
+            return null;
+        }
+
+        public Object getModuleByIdWithTopics(Long id) {
+            return null;
+        }
+    }
+
+    private final Service target = new Service();
+    private final ParameterNameDiscoverer parameterNames = new DefaultParameterNameDiscoverer();
+    private final MethodKeyGenerator keyGenerator = new MethodKeyGenerator();
+
+    private Method pageMethod;
+    private Method idMethod;
+    private Expression spelPageKey;
+    private Expression spelIdKey;
+    private Object[] pageArgs;
+    private Object[] idArgs;
+    private Map<Object, Object> spelEntries;
+    private Map<Object, Object> typedEntries;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        pageMethod = Service.class.getMethod("getUserProgress", Long.class, Pageable.class);
+        idMethod = Service.class.getMethod("getModuleByIdWithTopics", Long.class);
+
+        SpelExpressionParser parser = new SpelExpressionParser();
+        spelPageKey = parser.parseExpression("#userId + '_page_' + #pageable.pageNumber");
+        spelIdKey = parser.parseExpression("'with_topics_' + #id");
+
+        // Boxed outside the small-value cache, as real IDs usually are
+        pageArgs = new Object[] {4242L, PageRequest.of(3, 20)};
+        idArgs = new Object[] {4242L};
+
+        spelEntries = new HashMap<>();
+        spelEntries.put(spelKey(spelPageKey, pageMethod, pageArgs), "page");
+        spelEntries.put(spelKey(spelIdKey, idMethod, idArgs), "module");
+        typedEntries = new HashMap<>();
+        typedEntries.put(keyGenerator.generate(target, pageMethod, pageArgs), "page");
+        typedEntries.put(keyGenerator.generate(target, idMethod, idArgs), "module");
+    }
+
+    @Benchmark
+    public Object spelPageKey() {
+        return spelEntries.get(spelKey(spelPageKey, pageMethod, pageArgs));
+    }
+
+    @Benchmark
+    public Object typedPageKey() {
+        return typedEntries.get(keyGenerator.generate(target, pageMethod, pageArgs));
+    }
+
+    @Benchmark
+    public Object spelIdKey() {
+        return spelEntries.get(spelKey(spelIdKey, idMethod, idArgs));
+    }
+
+    @Benchmark
+    public Object typedIdKey() {
+        return typedEntries.get(keyGenerator.generate(target, idMethod, idArgs));
+    }
+
+    private Object spelKey(Expression expression, Method method, Object[] args) {
+        MethodBasedEvaluationContext context = new MethodBasedEvaluationContext(target, method, args, parameterNames);
+        return expression.getValue(context);
+    }
+}
@@ -0,0 +1,62 @@
+package com.learningportal.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CacheRegion generations, without Redis
+ */
+class CacheRegionTest {
+
+    @SuppressWarnings("unused")
+    private static class Service {
+        Object getUserProgress(Long userId, Pageable pageable) { return null; }
+        Object getUserProgressStatistics(Long userId) { return null; }
+    }
+
+    private final CacheRegion region = new CacheRegion("userProgress", Long::valueOf, new MethodKeyGenerator(),
+        null, null, "portal:cache:", Duration.ofMinutes(5));
+    private final Service target = new Service();
+
+    private Object key(String name, Object... args) {
+        for (Method method : Service.class.getDeclaredMethods()) {
+            if (method.getName().equals(name)) {
+                return region.generate(target, method, args);
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    @Test
+    void generate_ShouldStampKeysWithOwnersGeneration() {
+        Object page = key("getUserProgress", 42L, PageRequest.of(0, 10));
+
+        assertEquals(page, key("getUserProgress", 42L, PageRequest.of(0, 10)));
+        assertNotEquals(page, key("getUserProgress", 43L, PageRequest.of(0, 10)));
+        assertTrue(page.toString().startsWith("getUserProgress:42:0:10@"));
+    }
+
+    @Test
+    void invalidate_ShouldRetireEveryKeyOfThatOwnerOnly() {
+        Object page = key("getUserProgress", 42L, PageRequest.of(1, 20));
+        Object statistics = key("getUserProgressStatistics", 42L);
+        Object otherUser = key("getUserProgressStatistics", 7L);
+
+        region.invalidate(42L);
+
+        assertNotEquals(page, key("getUserProgress", 42L, PageRequest.of(1, 20)));
+        assertNotEquals(statistics, key("getUserProgressStatistics", 42L));
+        assertEquals(otherUser, key("getUserProgressStatistics", 7L));
+    }
+
+    @Test
+    void generate_ShouldLeaveKeysWithoutOwnerUnstamped() {
+        assertInstanceOf(MethodKey.Page.class, key("getUserProgress", null, PageRequest.of(0, 10)));
+    }
+}
@@ -0,0 +1,67 @@
+package com.learningportal.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MethodKeyGenerator
+ */
+class MethodKeyGeneratorTest {
+
+    @SuppressWarnings("unused")
+    private static class Service {
+        Object getUserProgress(Long userId, Pageable pageable) { return null; }
+        Object getModuleById(Long id) { return null; }
+        Object getModuleByIdWithTopics(Long id) { return null; }
+        Object getModuleSummaries() { return null; }
+        Object search(String term, String category, Pageable pageable) { return null; }
+    }
+
+    private final MethodKeyGenerator generator = new MethodKeyGenerator();
+    private final Service target = new Service();
+
+    private Object key(String name, Object... args) {
+        for (Method method : Service.class.getDeclaredMethods()) {
+            if (method.getName().equals(name)) {
+                return generator.generate(target, method, args);
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    @Test
+    void generate_ShouldKeyByMethodAndArguments() {
+        assertEquals(key("getModuleById", 7L), key("getModuleById", 7L));
+        assertEquals(key("getModuleById", 7L).hashCode(), key("getModuleById", 7L).hashCode());
+        assertNotEquals(key("getModuleById", 7L), key("getModuleByIdWithTopics", 7L));
+        assertNotEquals(key("getModuleById", 7L), key("getModuleById", 8L));
+        assertSame(key("getModuleSummaries"), key("getModuleSummaries"));
+        assertEquals("getModuleById:7", key("getModuleById", 7L).toString());
+    }
+
+    @Test
+    void generate_ShouldKeyPagesByNumberSizeAndSort() {
+        Object first = key("getUserProgress", 3L, PageRequest.of(0, 10));
+
+        assertEquals(first, key("getUserProgress", 3L, PageRequest.of(0, 10)));
+        assertNotEquals(first, key("getUserProgress", 3L, PageRequest.of(1, 10)));
+        assertNotEquals(first, key("getUserProgress", 3L, PageRequest.of(0, 20)));
+        assertNotEquals(first, key("getUserProgress", 4L, PageRequest.of(0, 10)));
+        assertNotEquals(first, key("getUserProgress", 3L, PageRequest.of(0, 10, Sort.by("updatedAt"))));
+        assertEquals("getUserProgress:3:0:10", first.toString());
+    }
+
+    @Test
+    void generate_ShouldFallBackToSimpleKeysForOtherShapes() {
+        Object key = key("search", "redis", "DATABASES", PageRequest.of(0, 10));
+
+        assertEquals(key, key("search", "redis", "DATABASES", PageRequest.of(0, 10)));
+        assertNotEquals(key, key("search", "redis", "BACKEND", PageRequest.of(0, 10)));
+    }
+}
@@ -0,0 +1,58 @@
+package com.learningportal.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ObjectSizeEstimator
+ */
+class ObjectSizeEstimatorTest {
+
+    private record Topic(long id, String title, String content) {
+    }
+
+    private record Module(long id, String name, List<Topic> topics) {
+    }
+
+    @Test
+    void estimate_ShouldGrowWithRetainedContent() {
+        Topic small = new Topic(1, "Streams", "short");
+        Topic large = new Topic(2, "Streams", "x".repeat(100_000));
+
+        assertTrue(ObjectSizeEstimator.estimate(large) > 100_000);
+        assertTrue(ObjectSizeEstimator.estimate(small) < 200);
+        assertTrue(ObjectSizeEstimator.estimate("\u20ac".repeat(1000)) > ObjectSizeEstimator.estimate("e".repeat(1000)));
+    }
+
+    @Test
+    void estimate_ShouldCountSharedObjectsOnce() {
+        Topic topic = new Topic(1, "Streams", "y".repeat(10_000));
+        List<Topic> once = new ArrayList<>(List.of(topic));
+        List<Topic> twice = new ArrayList<>(List.of(topic, topic));
+
+        long difference = ObjectSizeEstimator.estimate(twice) - ObjectSizeEstimator.estimate(once);
+
+        assertTrue(difference < 100, "second reference should cost a reference, not a copy: " + difference);
+    }
+
+    @Test
+    void weigh_ShouldSeparateModuleGraphsFromStatistics() {
+        List<Topic> topics = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            topics.add(new Topic(i, "Topic " + i, "z".repeat(5_000)));
+        }
+        Map<String, Object> stats = new HashMap<>(Map.of("totalModules", 12L, "averageTopics", 4.5));
+
+        int module = ObjectSizeEstimator.weigh("with_topics_1", new Module(1, "Java", topics));
+        int statistics = ObjectSizeEstimator.weigh("module_statistics", stats);
+
+        assertTrue(module > 100 * statistics);
+        assertEquals(1, ObjectSizeEstimator.weigh(null, null));
+    }
+}
@@ -0,0 +1,63 @@
+package com.learningportal.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TwoLevelCache evictions received from other nodes, with
+ * Redis unreachable so only the local level holds entries
+ */
+class TwoLevelCacheTest {
+
+    private final RedisConnectionFactory unreachable = (RedisConnectionFactory) Proxy.newProxyInstance(
+        getClass().getClassLoader(), new Class<?>[] {RedisConnectionFactory.class},
+        (proxy, method, args) -> {
+            throw new RedisConnectionFailureException("unreachable");
+        });
+    private final RedisCacheStore store = new RedisCacheStore(unreachable, 60_000);
+    private final CacheInvalidationBus bus = new CacheInvalidationBus(store, "test");
+
+    private TwoLevelCache cache(Caffeine<Object, Object> localCache) {
+        return new TwoLevelCache("modules", localCache, Duration.ZERO, Runnable::run, "test:", Duration.ofMinutes(5),
+            store, bus);
+    }
+
+    @Test
+    void evictLocal_ShouldDropOnlyTheEntryWithThatKey() {
+        TwoLevelCache cache = cache(Caffeine.newBuilder());
+        MethodKey first = MethodKey.Value.of("getModuleById", 1L);
+        MethodKey second = MethodKey.Value.of("getModuleById", 2L);
+        cache.get(first, () -> "first");
+        cache.put(second, "second");
+
+        cache.evictLocal("getModuleById:1");
+
+        assertNull(cache.get(first));
+        assertEquals("second", cache.get(second).get());
+        assertEquals("reloaded", cache.get(first, () -> "reloaded"));
+    }
+
+    @Test
+    void evictLocal_ShouldFindEntriesReloadedAfterLocalEvictions() {
+        TwoLevelCache cache = cache(Caffeine.newBuilder().maximumSize(1).executor(Runnable::run));
+        MethodKey first = MethodKey.Value.of("getModuleById", 1L);
+        MethodKey second = MethodKey.Value.of("getModuleById", 2L);
+        cache.get(first, () -> "first");
+        cache.get(second, () -> "second");
+        cache.getNativeCache().cleanUp();
+        cache.get(first, () -> "first again");
+        cache.getNativeCache().cleanUp();
+
+        cache.evictLocal("getModuleById:1");
+        cache.evictLocal("getModuleById:2");
+
+        assertEquals(0, cache.getNativeCache().estimatedSize());
+    }
+}
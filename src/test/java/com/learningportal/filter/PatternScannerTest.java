@@ -0,0 +1,45 @@
+package com.learningportal.filter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PatternScanner matching
+ */
+class PatternScannerTest {
+
+    private static final int SQL = 1;
+    private static final int XSS = 2;
+    private static final int BOT = 4;
+
+    private final PatternScanner scanner = PatternScanner.builder()
+        .add(SQL, "union select", "' or 1=1", "--")
+        .add(XSS, "<script", "onerror=", "alert(")
+        .add(BOT, "bot", "spider")
+        .build();
+
+    @Test
+    void scan_ShouldFindPatternsOfEveryCategoryCaseInsensitively() {
+        assertEquals(SQL, scanner.scan("id=1 UNION SELECT password"));
+        assertEquals(SQL | XSS, scanner.scan("q=%27x' OR 1=1 <ScRiPt>"));
+        assertEquals(BOT, scanner.scan("Mozilla/5.0 (compatible; Googlebot/2.1)"));
+        assertEquals(0, scanner.scan("page=2&size=20&sort=title"));
+        assertEquals(0, scanner.scan(null));
+    }
+
+    @Test
+    void scan_ShouldFollowFailureLinksAcrossOverlappingPatterns() {
+        // Partial matches that fail restart from their longest matching suffix
+        assertEquals(SQL, scanner.scan("ununion select"));
+        assertEquals(BOT, scanner.scan("spispider"));
+        assertEquals(XSS, scanner.scan("img onerror=alert(1)"));
+        assertEquals(0, scanner.scan("union\u00e9select"));
+    }
+
+    @Test
+    void scan_ShouldOnlyReportWantedCategories() {
+        assertEquals(XSS, scanner.scan("a--b<script", XSS));
+        assertEquals(0, scanner.scan("robots", SQL | XSS));
+    }
+}
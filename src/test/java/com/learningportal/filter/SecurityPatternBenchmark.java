@@ -0,0 +1,113 @@
+package com.learningportal.filter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.learningportal.filter.SecurityMonitoringFilter.BOT;
+import static com.learningportal.filter.SecurityMonitoringFilter.PATTERNS;
+import static com.learningportal.filter.SecurityMonitoringFilter.SQL_INJECTION;
+import static com.learningportal.filter.SecurityMonitoringFilter.XSS;
+
+/**
+ * Per-request suspicious pattern checks of the security monitoring filter:
+ * the lower-casing contains() chains it used to run against the filter's
+ * own single pass {@link SecurityMonitoringFilter#PATTERNS} scanner, over
+ * the URI, query string and user agent of one request.
+ *
+ * Run with allocation profiling:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main
+ *     -Dexec.args="SecurityPatternBenchmark -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecurityPatternBenchmark {
+
+    /**
+     * A typical request, and one carrying an injection attempt
+     */
+    @Param({"clean", "attack"})
+    public String request;
+
+    private String uri;
+    private String query;
+    private String userAgent;
+
+    @Setup
+    public void setUp() {
+        uri = "/api/search/faceted";
+        userAgent = "Mozilla/5.0 (Macintosh; Intel Mac OS X 14_4) AppleWebKit/605.1.15 (KHTML, like Gecko) "
+            + "Version/17.4 Safari/605.1.15";
+        query = request.equals("clean")
+            ? "q=Spring+Boot+caching+strategies&limit=10&mode=FUZZY&category=BACKEND&difficultyLevel=INTERMEDIATE"
+            : "q=java' OR 1=1 UNION SELECT password FROM users&limit=10&mode=EXACT";
+    }
+
+    @Benchmark
+    public int containsChains() {
+        int found = 0;
+        if (containsSqlInjectionPatterns(query)) {
+            found |= SQL_INJECTION;
+        }
+        if (containsXssPatterns(uri) || containsXssPatterns(query)) {
+            found |= XSS;
+        }
+        if (containsBotPatterns(userAgent)) {
+            found |= BOT;
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int scanner() {
+        int found = PATTERNS.scan(query, SQL_INJECTION | XSS) | PATTERNS.scan(uri, XSS);
+        if (userAgent.length() < 10 || PATTERNS.scan(userAgent, BOT) != 0) {
+            found |= BOT;
+        }
+        return found;
+    }
+
+    private static boolean containsSqlInjectionPatterns(String input) {
+        String lowerInput = input.toLowerCase();
+        return lowerInput.contains("union select") ||
+               lowerInput.contains("drop table") ||
+               lowerInput.contains("insert into") ||
+               lowerInput.contains("delete from") ||
+               lowerInput.contains("' or '1'='1") ||
+               lowerInput.contains("' or 1=1") ||
+               lowerInput.contains("--");
+    }
+
+    private static boolean containsXssPatterns(String input) {
+        String lowerInput = input.toLowerCase();
+        return lowerInput.contains("<script") ||
+               lowerInput.contains("javascript:") ||
+               lowerInput.contains("onload=") ||
+               lowerInput.contains("onerror=") ||
+               lowerInput.contains("alert(") ||
+               lowerInput.contains("document.cookie");
+    }
+
+    private static boolean containsBotPatterns(String userAgent) {
+        String lowerUserAgent = userAgent.toLowerCase();
+        return lowerUserAgent.contains("bot") ||
+               lowerUserAgent.contains("crawler") ||
+               lowerUserAgent.contains("spider") ||
+               lowerUserAgent.contains("scraper") ||
+               userAgent.length() < 10;
+    }
+}
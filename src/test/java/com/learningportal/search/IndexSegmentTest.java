@@ -0,0 +1,145 @@
+package com.learningportal.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for IndexSegment ranking and lookup behaviour
+ */
+class IndexSegmentTest {
+
+    private static SearchDocument module(long id, String name, String description, String category,
+                                         String... tags) {
+        return SearchDocument.of(new DocumentKey(DocumentType.MODULE, id), id, name, description,
+            List.of(tags), Map.of(Facet.CATEGORY, category), description);
+    }
+
+    private static SearchDocument topic(long id, long moduleId, String title, String content) {
+        return SearchDocument.of(new DocumentKey(DocumentType.TOPIC, id), moduleId, title, title,
+            List.of(), Map.of(Facet.TOPIC_TYPE, "LEARNING_CONTENT"), content);
+    }
+
+    private final IndexSegment segment = IndexSegment.build(List.of(
+        module(1, "Java Fundamentals", "Classes, objects and polymorphism in Java", "PROGRAMMING_LANGUAGES",
+            "Programming Languages"),
+        module(2, "System Design", "Scalable architectures, caching and sharding", "SYSTEM_DESIGN",
+            "System Design", "Backend"),
+        module(3, "Redis Deep Dive", "In-memory data structures and caching", "DATABASES",
+            "Databases", "Backend"),
+        topic(10, 1, "Polymorphism", "<p>Method overriding and dynamic dispatch</p>"),
+        topic(11, 2, "Caching Strategies", "Write-through and write-back caching with Redis")
+    ));
+
+    @Test
+    void search_ShouldRankTitleMatchesAboveBodyMatches() {
+        Map<DocumentType, List<SearchHit>> results = segment.search("polymorphism", 10);
+
+        List<SearchHit> topics = results.get(DocumentType.TOPIC);
+        assertEquals(1, topics.size());
+        assertEquals(10L, topics.get(0).id());
+
+        List<SearchHit> modules = results.get(DocumentType.MODULE);
+        assertEquals(1, modules.size());
+        assertEquals(1L, modules.get(0).id());
+        assertTrue(topics.get(0).score() > modules.get(0).score());
+    }
+
+    @Test
+    void search_ShouldExpandLastTermAsPrefix() {
+        List<SearchHit> topics = segment.search("cach", 10).get(DocumentType.TOPIC);
+
+        assertEquals(1, topics.size());
+        assertEquals(11L, topics.get(0).id());
+    }
+
+    @Test
+    void search_ShouldIgnoreMarkupAndStopWords() {
+        Map<DocumentType, List<SearchHit>> markup = segment.search("p", 10);
+        Map<DocumentType, List<SearchHit>> stopWords = segment.search("the and of", 10);
+
+        markup.values().forEach(hits -> assertTrue(hits.isEmpty()));
+        stopWords.values().forEach(hits -> assertTrue(hits.isEmpty()));
+    }
+
+    @Test
+    void search_ShouldLimitHitsPerType() {
+        List<SearchHit> modules = segment.search("java system", 1).get(DocumentType.MODULE);
+
+        assertEquals(1, modules.size());
+    }
+
+    @Test
+    void search_ShouldTolerateTyposOnlyInFuzzyMode() {
+        List<SearchHit> exact = segment.search("polymorphsm", 10, SearchMode.EXACT).get(DocumentType.TOPIC);
+        List<SearchHit> fuzzy = segment.search("polymorphsm", 10, SearchMode.FUZZY).get(DocumentType.TOPIC);
+        List<SearchHit> transposed = segment.search("cahcing", 10, SearchMode.FUZZY).get(DocumentType.TOPIC);
+
+        assertTrue(exact.isEmpty());
+        assertEquals(10L, fuzzy.get(0).id());
+        assertEquals(11L, transposed.get(0).id());
+    }
+
+    @Test
+    void searchTags_ShouldRankByNumberOfMatchingTags() {
+        TagPage modules = segment.searchTags(List.of("backend", "system-design"), TagMatch.ANY,
+            Set.of(DocumentType.MODULE), 0, 10).get(DocumentType.MODULE);
+
+        assertEquals(2, modules.totalMatches());
+        assertEquals(List.of(2L, 3L), modules.hits().stream().map(SearchHit::id).toList());
+        assertEquals(2.0, modules.hits().get(0).score());
+    }
+
+    @Test
+    void searchTags_ShouldIntersectTagsAndMatchContentWords() {
+        Map<DocumentType, TagPage> all = segment.searchTags(List.of("Backend", "caching"), TagMatch.ALL,
+            Set.of(DocumentType.MODULE, DocumentType.TOPIC), 0, 10);
+
+        assertEquals(List.of(2L, 3L), all.get(DocumentType.MODULE).hits().stream().map(SearchHit::id).toList());
+        assertEquals(0, all.get(DocumentType.TOPIC).totalMatches());
+    }
+
+    @Test
+    void searchTags_ShouldPaginateWithinType() {
+        TagPage second = segment.searchTags(List.of("backend"), TagMatch.ANY,
+            Set.of(DocumentType.MODULE), 1, 1).get(DocumentType.MODULE);
+
+        assertEquals(2, second.totalMatches());
+        assertEquals(List.of(3L), second.hits().stream().map(SearchHit::id).toList());
+    }
+
+    @Test
+    void facetedSearch_ShouldCountFacetValuesAcrossMatches() {
+        FacetedHits results = segment.facetedSearch("caching", 10, SearchMode.EXACT, Map.of());
+
+        assertEquals(3, results.totalMatches());
+        assertEquals(1, results.facetCounts().get(Facet.CATEGORY).get("SYSTEM_DESIGN"));
+        assertEquals(1, results.facetCounts().get(Facet.CATEGORY).get("DATABASES"));
+        assertEquals(0, results.facetCounts().get(Facet.CATEGORY).get("FRONTEND"));
+        assertEquals(1, results.facetCounts().get(Facet.TOPIC_TYPE).get("LEARNING_CONTENT"));
+    }
+
+    @Test
+    void facetedSearch_ShouldFilterOwnTypeAndKeepOtherFacetCounts() {
+        FacetedHits results = segment.facetedSearch("caching", 10, SearchMode.EXACT,
+            Map.of(Facet.CATEGORY, Set.of("DATABASES")));
+
+        assertEquals(List.of(3L), results.hits().get(DocumentType.MODULE).stream().map(SearchHit::id).toList());
+        assertEquals(1, results.hits().get(DocumentType.TOPIC).size());
+        assertEquals(2, results.totalMatches());
+        // A facet's own filter does not narrow its counts, so other values stay selectable
+        assertEquals(1, results.facetCounts().get(Facet.CATEGORY).get("SYSTEM_DESIGN"));
+    }
+
+    @Test
+    void build_ShouldAssignOrdinalsByKey() {
+        assertEquals(5, segment.size());
+        assertEquals(0, segment.ordinalOf(new DocumentKey(DocumentType.MODULE, 1)));
+        assertEquals(4, segment.ordinalOf(new DocumentKey(DocumentType.TOPIC, 11)));
+        assertNull(segment.ordinalOf(new DocumentKey(DocumentType.QUESTION, 1)));
+    }
+}
@@ -0,0 +1,89 @@
+package com.learningportal.search;
+
+import com.learningportal.model.UserNote;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for NotePartition ranking, highlighting and maintenance
+ */
+class NotePartitionTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 15, 12, 0);
+
+    private static NoteDocument note(long id, String title, String content, boolean isPublic, int daysAgo) {
+        return NoteDocument.of(id, 7L, null, null, UserNote.Category.GENERAL, title, content, isPublic,
+            NOW.minusDays(daysAgo));
+    }
+
+    private final NotePartition partition = NotePartition.build(List.of(
+        note(1, "HashMap internals", "<p>Buckets, hashing &amp; treeification</p>", false, 3),
+        note(2, "Concurrency", "<p>A ConcurrentHashMap avoids locking the whole map</p>", true, 1),
+        note(3, "Garbage collection", "G1 regions and pauses", false, 2)
+    ));
+
+    @Test
+    void search_ShouldHighlightMatchesInTitleAndSnippet() {
+        Page<NoteHit> page = partition.search("hashing", SearchMode.EXACT, PageRequest.of(0, 10));
+
+        assertEquals(1, page.getTotalElements());
+        NoteHit hit = page.getContent().get(0);
+        assertEquals(1L, hit.id());
+        assertEquals("Buckets, <mark>hashing</mark> &amp; treeification", hit.snippet());
+        assertEquals("HashMap internals", hit.highlightedTitle());
+    }
+
+    @Test
+    void search_ShouldPaginateRankedHits() {
+        Page<NoteHit> first = partition.search("concurrency hashing", SearchMode.EXACT, PageRequest.of(0, 1));
+        Page<NoteHit> second = partition.search("concurrency hashing", SearchMode.EXACT, PageRequest.of(1, 1));
+
+        assertEquals(2, first.getTotalElements());
+        assertEquals(2, second.getTotalElements());
+        assertEquals(1, first.getContent().size());
+        assertNotEquals(first.getContent().get(0).id(), second.getContent().get(0).id());
+    }
+
+    @Test
+    void search_ShouldPreferRecentNotesOnEqualScores() {
+        NotePartition equal = NotePartition.build(List.of(
+            note(1, "Streams", "", false, 5),
+            note(2, "Streams", "", false, 1)));
+
+        List<NoteHit> hits = equal.search("streams", SearchMode.EXACT, PageRequest.of(0, 10)).getContent();
+
+        assertEquals(List.of(2L, 1L), hits.stream().map(NoteHit::id).toList());
+    }
+
+    @Test
+    void apply_ShouldDropNotesThatNoLongerBelong() {
+        NotePartition publicNotes = NotePartition.build(List.of(note(2, "Concurrency", "locking", true, 1)));
+
+        NotePartition updated = publicNotes.apply(List.of(
+            NoteChange.upsert(note(2, "Concurrency", "locking", false, 0)),
+            NoteChange.upsert(note(4, "Virtual threads", "Loom", true, 0))), NoteDocument::isPublic);
+
+        assertEquals(1, updated.size());
+        assertEquals(0, updated.search("locking", SearchMode.EXACT, PageRequest.of(0, 10)).getTotalElements());
+        assertEquals(1, updated.search("loom", SearchMode.EXACT, PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    void snippet_ShouldCenterOnMatchesInLongText() {
+        String text = "filler ".repeat(100) + "the volatile keyword " + "filler ".repeat(100);
+
+        String snippet = Highlighter.snippet(text, Set.of("volatile"), 80);
+
+        assertTrue(snippet.startsWith("..."));
+        assertTrue(snippet.endsWith("..."));
+        assertTrue(snippet.contains("<mark>volatile</mark>"));
+        assertTrue(snippet.length() <= 80 + 6 + Highlighter.PRE_TAG.length() + Highlighter.POST_TAG.length());
+    }
+}
@@ -0,0 +1,127 @@
+package com.learningportal.search;
+
+import com.learningportal.model.UserNote;
+import com.learningportal.repository.UserNoteRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for NoteSearchIndex changes committed while a partition is
+ * still loading what it read before the commit
+ */
+class NoteSearchIndexTest {
+
+    private static final long USER = 7L;
+    private static final Pageable PAGE = PageRequest.of(0, 10);
+
+    // The notes table, keyed by note ID
+    private final Map<Long, UserNote> table = new ConcurrentHashMap<>();
+    private final CountDownLatch loadRead = new CountDownLatch(1);
+    private final CountDownLatch loadReturn = new CountDownLatch(1);
+
+    private final UserNoteRepository repository = (UserNoteRepository) Proxy.newProxyInstance(
+        getClass().getClassLoader(), new Class<?>[] {UserNoteRepository.class},
+        (proxy, method, args) -> switch (method.getName()) {
+            case "findByUserIdOrderByUpdatedAtDesc" -> slowLoad(note -> note.getUserId().equals(args[0]));
+            case "findByIsPublicTrueOrderByUpdatedAtDesc" -> slowLoad(note -> note.getIsPublic());
+            case "findAllById" -> {
+                List<UserNote> found = new ArrayList<>();
+                for (Object id : (Iterable<?>) args[0]) {
+                    UserNote note = table.get((Long) id);
+                    if (note != null) {
+                        found.add(note);
+                    }
+                }
+                yield found;
+            }
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    private final NoteSearchIndex index = new NoteSearchIndex(repository, 100);
+
+    @Test
+    void apply_ShouldReachAUserPartitionStillLoading() throws InterruptedException {
+        raceLoadAgainstApply(() -> index.searchUserNotes(USER, "caching", SearchMode.EXACT, PAGE),
+            () -> table.put(2L, note(2L, false)), NoteChange.saved(2L, USER));
+
+        assertEquals(List.of(2L), ids(index.searchUserNotes(USER, "caching", SearchMode.EXACT, PAGE)));
+    }
+
+    @Test
+    void apply_ShouldDeleteFromAUserPartitionStillLoading() throws InterruptedException {
+        table.put(1L, note(1L, false));
+
+        raceLoadAgainstApply(() -> index.searchUserNotes(USER, "caching", SearchMode.EXACT, PAGE),
+            () -> table.remove(1L), NoteChange.delete(1L, USER));
+
+        assertEquals(List.of(), ids(index.searchUserNotes(USER, "caching", SearchMode.EXACT, PAGE)));
+    }
+
+    @Test
+    void apply_ShouldReachThePublicPartitionStillLoading() throws InterruptedException {
+        raceLoadAgainstApply(() -> index.searchPublicNotes("caching", SearchMode.EXACT, PAGE),
+            () -> table.put(2L, note(2L, true)), NoteChange.saved(2L, USER));
+
+        assertEquals(List.of(2L), ids(index.searchPublicNotes("caching", SearchMode.EXACT, PAGE)));
+    }
+
+    /**
+     * Search on one thread until its partition load has read the table,
+     * commit a change and apply it on another, and let the load return only
+     * once the apply is waiting for it or has finished
+     */
+    private void raceLoadAgainstApply(Runnable search, Runnable commit, NoteChange change)
+            throws InterruptedException {
+        Thread loader = new Thread(search);
+        loader.start();
+        assertTrue(loadRead.await(5, TimeUnit.SECONDS));
+
+        commit.run();
+        Thread applier = new Thread(() -> index.apply(List.of(change)));
+        applier.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (applier.isAlive() && applier.getState() != Thread.State.BLOCKED && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+
+        loadReturn.countDown();
+        loader.join(5_000);
+        applier.join(5_000);
+        assertFalse(loader.isAlive());
+        assertFalse(applier.isAlive());
+    }
+
+    private List<UserNote> slowLoad(Predicate<UserNote> matches) throws InterruptedException {
+        List<UserNote> read = table.values().stream().filter(matches).toList();
+        loadRead.countDown();
+        loadReturn.await();
+        return read;
+    }
+
+    private static UserNote note(long id, boolean isPublic) {
+        UserNote note = new UserNote("Caching strategies", "Read-through and write-behind", USER);
+        note.setId(id);
+        note.setCategory(UserNote.Category.GENERAL);
+        note.setIsPublic(isPublic);
+        note.setCreatedAt(LocalDateTime.of(2024, 1, 15, 12, 0));
+        note.setUpdatedAt(LocalDateTime.of(2024, 1, 15, 12, 0));
+        return note;
+    }
+
+    private static List<Long> ids(Page<NoteHit> page) {
+        return page.getContent().stream().map(NoteHit::id).toList();
+    }
+}
@@ -0,0 +1,70 @@
+package com.learningportal.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for QueryFingerprint normalization and change matching
+ */
+class QueryFingerprintTest {
+
+    private static SearchDocument topic(long id, String title, String content) {
+        return SearchDocument.of(new DocumentKey(DocumentType.TOPIC, id), 1L, title, title,
+            List.of(), Map.of(), content);
+    }
+
+    private static QueryFingerprint content(String query, SearchMode mode) {
+        return QueryFingerprint.ofQuery(QueryFingerprint.Scope.CONTENT, query, mode, Map.of(), 0, 10);
+    }
+
+    @Test
+    void ofQuery_ShouldShareKeyForEquivalentQueries() {
+        assertEquals(content("Spring  JAVA, the cach", SearchMode.EXACT),
+            content("java spring java cach", SearchMode.EXACT));
+        // The last term is expanded as a prefix, so it is not reordered
+        assertNotEquals(content("java spring", SearchMode.EXACT), content("spring java", SearchMode.EXACT));
+        assertNull(content("the and of", SearchMode.EXACT));
+    }
+
+    @Test
+    void ofQuery_ShouldSortFilterValues() {
+        QueryFingerprint first = QueryFingerprint.ofQuery(QueryFingerprint.Scope.FACETED, "redis",
+            SearchMode.EXACT, Map.of("CATEGORY", Set.of("DATABASES", "BACKEND")), 0, 10);
+        QueryFingerprint second = QueryFingerprint.ofQuery(QueryFingerprint.Scope.FACETED, "redis",
+            SearchMode.EXACT, Map.of("CATEGORY", List.of("BACKEND", "DATABASES"), "TOPIC_TYPE", List.of()), 0, 10);
+
+        assertEquals(first, second);
+    }
+
+    @Test
+    void mayMatch_ShouldMatchTermsPrefixesAndTypos() {
+        SearchDocument document = topic(11, "Caching Strategies", "Write-through caching with Redis");
+
+        assertTrue(content("redis", SearchMode.EXACT).mayMatch(document));
+        assertTrue(content("write strat", SearchMode.EXACT).mayMatch(document));
+        assertFalse(content("kafka", SearchMode.EXACT).mayMatch(document));
+        assertFalse(content("cahcing", SearchMode.EXACT).mayMatch(document));
+        assertTrue(content("cahcing", SearchMode.FUZZY).mayMatch(document));
+    }
+
+    @Test
+    void mayMatch_ShouldRespectTagTypesAndSubstrings() {
+        SearchDocument document = topic(11, "Caching Strategies", "Write-back caching");
+        QueryFingerprint topicTags = QueryFingerprint.ofTags(List.of("write back"),
+            Map.of(QueryFingerprint.TYPES_FILTER, List.of("TOPIC")), 0, 10);
+        QueryFingerprint moduleTags = QueryFingerprint.ofTags(List.of("write back"),
+            Map.of(QueryFingerprint.TYPES_FILTER, List.of("MODULE")), 0, 10);
+        QueryFingerprint moduleText = QueryFingerprint.ofText(QueryFingerprint.Scope.MODULE_TEXT, "ACHING", 0, 10);
+
+        assertTrue(topicTags.mayMatch(document));
+        assertFalse(moduleTags.mayMatch(document));
+        assertFalse(moduleText.mayMatch(document));
+        assertTrue(moduleText.mayMatch(SearchDocument.of(new DocumentKey(DocumentType.MODULE, 3), 3L,
+            "Caching", "", List.of(), Map.of())));
+    }
+}
@@ -0,0 +1,64 @@
+package com.learningportal.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the persisted segment format
+ */
+class SegmentStoreTest {
+
+    private static final LocalDateTime HIGH_WATER = LocalDateTime.of(2024, 3, 1, 12, 30, 15);
+
+    private final List<SearchDocument> documents = List.of(
+        SearchDocument.of(new DocumentKey(DocumentType.TOPIC, 11), 2L, "Caching Strategies", "Caching",
+            List.of("Learning Content"), Map.of(Facet.TOPIC_TYPE, "LEARNING_CONTENT"),
+            "Write-through and write-back caching with Redis"),
+        SearchDocument.of(new DocumentKey(DocumentType.MODULE, 2), 2L, "System Design", null,
+            List.of("System Design", "Advanced"), Map.of(Facet.CATEGORY, "SYSTEM_DESIGN"),
+            "Scalable architectures, caching and sharding")
+    );
+
+    private static Optional<SegmentStore.Snapshot> roundTrip(List<SearchDocument> documents) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SegmentStore.encode(documents, HIGH_WATER, out);
+        return SegmentStore.decode(ByteBuffer.wrap(out.toByteArray()));
+    }
+
+    @Test
+    void decode_ShouldRestoreDocumentsAndHighWater() throws Exception {
+        SegmentStore.Snapshot snapshot = roundTrip(documents).orElseThrow();
+
+        assertEquals(HIGH_WATER, snapshot.highWater());
+        assertEquals(2, snapshot.documents().size());
+        // Documents are written in key order
+        assertEquals(documents.get(1), snapshot.documents().get(0));
+        assertEquals(documents.get(0), snapshot.documents().get(1));
+    }
+
+    @Test
+    void decode_ShouldRebuildIdenticalSearchResults() throws Exception {
+        IndexSegment original = IndexSegment.build(documents);
+        IndexSegment restored = IndexSegment.build(roundTrip(documents).orElseThrow().documents());
+
+        assertEquals(original.search("caching redis", 10), restored.search("caching redis", 10));
+    }
+
+    @Test
+    void decode_ShouldRejectTruncatedOrForeignData() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SegmentStore.encode(documents, HIGH_WATER, out);
+        byte[] bytes = out.toByteArray();
+
+        assertTrue(SegmentStore.decode(ByteBuffer.wrap(bytes, 0, bytes.length / 2).slice()).isEmpty());
+        assertTrue(SegmentStore.decode(ByteBuffer.wrap(new byte[] {1, 2, 3, 4, 5, 6, 7, 8})).isEmpty());
+    }
+}
@@ -0,0 +1,43 @@
+package com.learningportal.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SuggestionTrie autocomplete ordering
+ */
+class SuggestionTrieTest {
+
+    private final SuggestionTrie trie = SuggestionTrie.build(List.of(
+        new SuggestionTrie.Entry("System Design", 10),
+        new SuggestionTrie.Entry("Design Patterns", 5),
+        new SuggestionTrie.Entry("Spring Security", 7),
+        new SuggestionTrie.Entry("JavaScript", 3),
+        new SuggestionTrie.Entry("Java Streams", 3),
+        new SuggestionTrie.Entry("Java", 3)
+    ));
+
+    @Test
+    void complete_ShouldMatchFromEveryWordStart() {
+        assertEquals(List.of("System Design", "Design Patterns"), trie.complete("des", 10));
+    }
+
+    @Test
+    void complete_ShouldOrderByWeightThenAlphabetically() {
+        assertEquals(List.of("Java", "Java Streams", "JavaScript"), trie.complete("JAVA", 10));
+    }
+
+    @Test
+    void complete_ShouldReturnTopKByWeight() {
+        assertEquals(List.of("System Design", "Spring Security"), trie.complete("s", 2));
+    }
+
+    @Test
+    void complete_ShouldReturnEmptyForUnknownPrefix() {
+        assertTrue(trie.complete("kotlin", 10).isEmpty());
+        assertTrue(trie.complete("", 10).isEmpty());
+    }
+}
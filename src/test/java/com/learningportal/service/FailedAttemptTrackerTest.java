@@ -0,0 +1,55 @@
+package com.learningportal.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FailedAttemptTracker blocking and decay
+ */
+class FailedAttemptTrackerTest {
+
+    private static final long MINUTE = 60_000;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private final FailedAttemptTracker tracker = new FailedAttemptTracker(5, Duration.ofMinutes(5),
+        Duration.ofMinutes(15), 1 << 10, 100, clock::get);
+
+    @Test
+    void recordFailure_ShouldBlockRepeatedFailuresUntilTheBlockEnds() {
+        for (int i = 0; i < 4; i++) {
+            assertFalse(tracker.recordFailure("10.0.0.1"));
+        }
+        assertFalse(tracker.isBlocked("10.0.0.1"));
+
+        assertTrue(tracker.recordFailure("10.0.0.1"));
+        assertTrue(tracker.isBlocked("10.0.0.1"));
+        assertFalse(tracker.isBlocked("10.0.0.2"));
+
+        clock.addAndGet(15 * MINUTE);
+        assertFalse(tracker.isBlocked("10.0.0.1"));
+    }
+
+    @Test
+    void recordFailure_ShouldForgiveFailuresSpreadOverTime() {
+        for (int i = 0; i < 20; i++) {
+            assertFalse(tracker.recordFailure("10.0.0.1"));
+            clock.addAndGet(5 * MINUTE);
+        }
+        assertFalse(tracker.isBlocked("10.0.0.1"));
+    }
+
+    @Test
+    void recordFailure_ShouldStayBoundedUnderManySources() {
+        for (int i = 0; i < 50_000; i++) {
+            tracker.recordFailure("198.51." + (i >> 8) + "." + (i & 0xFF));
+        }
+
+        // Sketch collisions may admit a source but never block it on others' failures
+        assertTrue(tracker.trackedCount() <= 100);
+        assertEquals(0, tracker.blockedCount());
+    }
+}
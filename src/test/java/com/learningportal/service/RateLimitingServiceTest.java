@@ -0,0 +1,93 @@
+package com.learningportal.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RateLimitingService local buckets, against a stand-in for
+ * the Redis script
+ */
+class RateLimitingServiceTest {
+
+    private static final Duration HOUR = Duration.ofHours(1);
+
+    /**
+     * Grants reservations from a fixed allowance, as the script does within
+     * one window
+     */
+    private static class FakeRedis extends RedisTemplate<String, String> {
+
+        final AtomicInteger calls = new AtomicInteger();
+        private long left;
+        private final boolean failing;
+
+        FakeRedis(long allowance, boolean failing) {
+            this.left = allowance;
+            this.failing = failing;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public synchronized <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+            calls.incrementAndGet();
+            if (failing) {
+                throw new RedisConnectionFailureException("down");
+            }
+            long granted = Math.min(Long.parseLong((String) args[2]), left);
+            left -= granted;
+            return (T) (granted > 0 ? List.of(granted, left, 1000L, 0L) : List.of(0L, 0L, 1000L, 1000L));
+        }
+    }
+
+    @Test
+    void tryAcquire_ShouldReserveFromRedisInBatches() {
+        FakeRedis redis = new FakeRedis(100, false);
+        RateLimitingService service = new RateLimitingService(redis, 30000, 20, 1.0);
+
+        int allowed = 0;
+        for (int i = 0; i < 150; i++) {
+            if (service.tryAcquire("user:1", 100, HOUR).allowed()) {
+                allowed++;
+            }
+        }
+
+        // Batches of a tenth of the limit; a top-up may still be in flight
+        assertTrue(allowed <= 100 && allowed >= 90, "allowed " + allowed);
+        assertTrue(redis.calls.get() < 30, "calls " + redis.calls.get());
+    }
+
+    @Test
+    void tryAcquire_ShouldLimitPerNodeWhileRedisIsUnavailable() {
+        FakeRedis redis = new FakeRedis(0, true);
+        RateLimitingService service = new RateLimitingService(redis, 30000, 20, 1.0);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(service.tryAcquire("ip:10.0.0.1", 5, HOUR).allowed());
+        }
+        RateLimitingService.Decision rejected = service.tryAcquire("ip:10.0.0.1", 5, HOUR);
+
+        assertFalse(rejected.allowed());
+        assertTrue(rejected.retryAfterMs() > 0);
+        assertTrue(service.tryAcquire("ip:10.0.0.2", 5, HOUR).allowed());
+        assertEquals(1, redis.calls.get());
+    }
+
+    @Test
+    void tryAcquire_ShouldChargeRequestsByCost() {
+        FakeRedis redis = new FakeRedis(10, false);
+        RateLimitingService service = new RateLimitingService(redis, 30000, 20, 1.0);
+
+        assertTrue(service.tryAcquire("user:1:search", 4, 10, HOUR).allowed());
+        assertTrue(service.tryAcquire("user:1:search", 4, 10, HOUR).allowed());
+        assertFalse(service.tryAcquire("user:1:search", 4, 10, HOUR).allowed());
+        assertTrue(service.tryAcquire("user:1:search", 2, 10, HOUR).allowed());
+    }
+}